@@ -9,6 +9,7 @@ import android.widget.Toast
 import androidx.appcompat.app.AppCompatActivity
 import com.eresult.sdk.EResult
 import com.eresult.sdk.EResult.ResultCallback
+import com.eresult.sdk.android.CaptchaBitmapDecoder
 import com.eresult.sdk.data.BoardType
 import com.eresult.sdk.data.ExamType
 import com.eresult.sdk.data.ResultType
@@ -35,7 +36,7 @@ class MainActivity : AppCompatActivity() {
             .build() // Building the EResult instance with the specified parameters
 
         // Example of requesting a captcha image
-        result.requestCaptcha(object : ResultCallback<Bitmap> {
+        result.requestCaptcha(CaptchaBitmapDecoder.getDefault(), object : ResultCallback<Bitmap> {
             override fun onResponse(result: Bitmap?) {
                 // Displaying the captcha image in an ImageView
                 i1.setImageBitmap(result)
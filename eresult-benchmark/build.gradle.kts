@@ -0,0 +1,30 @@
+plugins {
+    id("java")
+    id("me.champeau.jmh")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+dependencies {
+    implementation(project(":eresult-core"))
+    implementation(project(":eresult-jvm"))
+    implementation("com.squareup.okhttp3:mockwebserver:4.12.0")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    // Allocation rate per operation, next to throughput and the latency percentiles of SampleTime.
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
+
+// Load test against FakeEboardServer, see LoadTest for the arguments:
+// ./gradlew :eresult-benchmark:loadTest -PloadTest.args="rate=500 duration=60"
+tasks.register<JavaExec>("loadTest") {
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.eresult.sdk.benchmark.LoadTest")
+    args = (findProperty("loadTest.args") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
@@ -0,0 +1,97 @@
+/**
+ * AggregationBenchmark measures computing the statistics of district sized results: collecting the
+ * records in a list before looping over them, streaming them into ResultStatistics, and aggregating the
+ * institutions of the district one after another or in parallel with the ResultAggregator.
+ */
+package com.eresult.sdk.benchmark;
+
+import com.eresult.sdk.data.ResultRecord;
+import com.eresult.sdk.data.query.ResultReader;
+import com.eresult.sdk.stats.ResultAggregator;
+import com.eresult.sdk.stats.ResultStatistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okio.Buffer;
+import okio.ByteString;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class AggregationBenchmark {
+
+    // Students of the district, split in institutions of 1000 students.
+    @Param({"100000", "250000"})
+    public int students;
+
+    private static final int INSTITUTION_SIZE = 1000;
+
+    private String district;
+    private final List<ResultAggregator.Source> institutions = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder(students * 420 + 64).append("{\"status\":0,\"msg\":\"\",\"res\":[");
+        for (int first = 0; first < students; first += INSTITUTION_SIZE) {
+            String payload = Payloads.result(INSTITUTION_SIZE, 100000 + first);
+            ByteString bytes = ByteString.encodeUtf8(payload);
+            institutions.add(() -> new ResultReader(new Buffer().write(bytes)));
+            if (first > 0) json.append(',');
+            json.append(payload, payload.indexOf('[') + 1, payload.lastIndexOf(']'));
+        }
+        district = json.append("]}").toString();
+    }
+
+    @Benchmark
+    public ResultStatistics listThenLoop() throws IOException {
+        // What callers did before: every record is kept until the loop runs.
+        List<ResultRecord> records = new ArrayList<>();
+        ResultReader.of(district).readAll(records::add);
+        ResultStatistics statistics = new ResultStatistics();
+        for (ResultRecord record : records) {
+            statistics.add(record);
+        }
+        return statistics;
+    }
+
+    @Benchmark
+    public ResultStatistics streamed() throws IOException {
+        ResultStatistics statistics = new ResultStatistics();
+        ResultReader.of(district).readAll(statistics);
+        return statistics;
+    }
+
+    @Benchmark
+    public ResultStatistics institutionsSequential() throws IOException {
+        ResultStatistics statistics = new ResultStatistics();
+        for (ResultAggregator.Source source : institutions) {
+            try (ResultReader reader = source.open()) {
+                reader.readAll(statistics);
+            }
+        }
+        return statistics;
+    }
+
+    @Benchmark
+    public ResultStatistics institutionsParallel() throws IOException {
+        return ResultAggregator.aggregate(institutions);
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * BlockingLookupBenchmark is the load test of the blocking API: one operation starts a thread per lookup,
+ * each fetching a captcha and then the result from FakeEboardServer, and waits until all of them are done.
+ * On JDK 21 and later the lookups run on virtual threads, which park on the ConcurrencyLimiter instead of
+ * holding connections, before that on platform threads. Any failed lookup fails the benchmark.
+ * <p>
+ * Run it with -Djdk.tracePinnedThreads=short on JDK 21 to print any carrier thread pinned by a lookup.
+ */
+package com.eresult.sdk.benchmark;
+
+import com.eresult.sdk.EResult;
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.Captcha;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.data.query.http.AimdLimit;
+import com.eresult.sdk.data.query.http.ConcurrencyLimiter;
+import com.eresult.sdk.data.query.http.FailureException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BlockingLookupBenchmark {
+
+    @Param({"1000", "10000"})
+    public int lookups;
+
+    private FakeEboardServer server;
+    private EResult eResult;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, IllegalAccessException {
+        server = new FakeEboardServer(500).start();
+        eResult = new EResult.Builder()
+                .setBaseUrl(server.baseUrl())
+                .setYear("2023")
+                .setExamType(ExamType.SSC)
+                .setBoardType(BoardType.DHAKA)
+                .setResultType(ResultType.INDIVIDUAL)
+                .setStudentRollNumber("123456")
+                .setRegistrationId("1234567890")
+                .setConnectionPool(256, 5, TimeUnit.MINUTES)
+                .setConcurrencyLimiter(new ConcurrencyLimiter.Builder()
+                        .algorithm(new AimdLimit(64, 8, 256, 0.9, 5, TimeUnit.SECONDS))
+                        .queue(2 * lookups)
+                        .build())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public int lookups() throws InterruptedException {
+        AtomicInteger completed = new AtomicInteger();
+        Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+        ExecutorService executor = newThreadPerTaskExecutor();
+        for (int i = 0; i < lookups; i++) {
+            executor.execute(() -> {
+                try {
+                    Captcha<byte[]> captcha = eResult.fetchCaptcha(30, TimeUnit.SECONDS);
+                    eResult.fetchResult(captcha.getSession(), "1234", 30, TimeUnit.SECONDS);
+                    completed.incrementAndGet();
+                } catch (FailureException e) {
+                    failures.computeIfAbsent(e.getReason().name(), reason -> new AtomicInteger()).incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Lookups did not complete");
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException(failures + " lookups failed");
+        }
+        return completed.get();
+    }
+
+    // A virtual thread per task on JDK 21 and later, this module compiles against JDK 17.
+    private static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
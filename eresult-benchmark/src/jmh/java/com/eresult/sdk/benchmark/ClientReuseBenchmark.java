@@ -0,0 +1,143 @@
+/**
+ * ClientReuseBenchmark compares 1,000 captcha lookups made with a new OkHttpClient per lookup, as every
+ * EResult used to do, with lookups through LazyHttp's shared client. Besides the time, it reports how
+ * many connections were opened (each one a TLS handshake against the live site) and how many threads
+ * were started per 1,000 lookups.
+ */
+package com.eresult.sdk.benchmark;
+
+import com.eresult.sdk.data.Captcha;
+import com.eresult.sdk.data.query.CaptchaFactory;
+import com.eresult.sdk.data.query.http.LazyHttp;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClientReuseBenchmark {
+
+    private static final int LOOKUPS = 1000;
+
+    private FakeEboardServer server;
+    private Request request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new FakeEboardServer(1).start();
+        request = new Request.Builder().url(server.baseUrl()).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public void clientPerLookup(Counters counters) throws InterruptedException {
+        counters.start(server);
+        CountDownLatch latch = new CountDownLatch(LOOKUPS);
+        for (int i = 0; i < LOOKUPS; i++) {
+            OkHttpClient client = new OkHttpClient();
+            new CaptchaFactory().createCall(client, request).enqueue(new CountingCallback(latch));
+        }
+        latch.await(60, TimeUnit.SECONDS);
+        counters.stop(server);
+    }
+
+    @Benchmark
+    public void sharedClient(Counters counters) throws InterruptedException {
+        counters.start(server);
+        CountDownLatch latch = new CountDownLatch(LOOKUPS);
+        for (int i = 0; i < LOOKUPS; i++) {
+            // A LazyHttp per lookup, like an EResult per lookup, all backed by one client.
+            LazyHttp lazyHttp = new LazyHttp.Builder().baseUrl(server.baseUrl()).build();
+            lazyHttp.queryAsync(new CaptchaFactory(), CaptchaFactory.RESPONSE_TYPE, new LazyHttp.Callback<Captcha<byte[]>>() {
+                @Override
+                public void onResponse(Call call, Captcha<byte[]> response) {
+                    latch.countDown();
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(60, TimeUnit.SECONDS);
+        counters.stop(server);
+    }
+
+    /**
+     * Connections and threads started during one run of 1,000 lookups.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private int startConnections;
+        private long startThreads;
+
+        public int connections;
+        public long threadsStarted;
+
+        void start(FakeEboardServer server) {
+            startConnections = server.connectionCount();
+            startThreads = threads.getTotalStartedThreadCount();
+        }
+
+        void stop(FakeEboardServer server) {
+            connections = server.connectionCount() - startConnections;
+            threadsStarted = threads.getTotalStartedThreadCount() - startThreads;
+        }
+    }
+
+    /**
+     * OkHttp callback closing the response and counting down a latch.
+     */
+    private static class CountingCallback implements Callback {
+        private final CountDownLatch latch;
+
+        CountingCallback(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            latch.countDown();
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            response.close();
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * QueryThroughputBenchmark measures end-to-end LazyHttp.queryAsync against FakeEboardServer at several
+ * concurrency levels. One operation is a batch of concurrent captcha or individual result queries.
+ */
+package com.eresult.sdk.benchmark;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.Captcha;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.data.query.CaptchaFactory;
+import com.eresult.sdk.data.query.ResultRequestFactory;
+import com.eresult.sdk.data.query.http.LazyHttp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryThroughputBenchmark {
+
+    @Param({"1", "8", "32"})
+    public int concurrency;
+
+    private FakeEboardServer server;
+    private LazyHttp lazyHttp;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new FakeEboardServer(500).start();
+        lazyHttp = new LazyHttp.Builder()
+                .baseUrl(server.baseUrl())
+                .maxRequests(64)
+                .maxRequestsPerHost(64)
+                .connectionPool(64, 5, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public int captcha() throws InterruptedException {
+        Batch<Captcha<byte[]>> batch = new Batch<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            lazyHttp.queryAsync(new CaptchaFactory(), CaptchaFactory.RESPONSE_TYPE, batch);
+        }
+        return batch.await();
+    }
+
+    @Benchmark
+    public int individualResult() throws InterruptedException {
+        Batch<String> batch = new Batch<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            lazyHttp.queryAsync(
+                    new ResultRequestFactory(
+                            "1234", "PHPSESSID=abc", String.valueOf(100000 + i), "1234567890", BoardType.DHAKA,
+                            "2023", ExamType.SSC, ResultType.INDIVIDUAL, null, null, null),
+                    String.class,
+                    batch);
+        }
+        return batch.await();
+    }
+
+    /**
+     * Callback counting down a latch once every query of a batch has completed.
+     */
+    private static class Batch<T> implements LazyHttp.Callback<T> {
+        private final CountDownLatch latch;
+        private final AtomicInteger failures = new AtomicInteger();
+
+        Batch(int size) {
+            this.latch = new CountDownLatch(size);
+        }
+
+        @Override
+        public void onResponse(Call call, T response) {
+            latch.countDown();
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            failures.incrementAndGet();
+            latch.countDown();
+        }
+
+        int await() throws InterruptedException {
+            if (!latch.await(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Batch did not complete");
+            }
+            if (failures.get() > 0) {
+                throw new IllegalStateException(failures.get() + " queries failed");
+            }
+            return failures.get();
+        }
+    }
+}
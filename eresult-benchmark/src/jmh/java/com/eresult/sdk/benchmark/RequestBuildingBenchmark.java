@@ -0,0 +1,68 @@
+/**
+ * RequestBuildingBenchmark measures how long the factories take to turn a query into an OkHttp Call,
+ * which is dominated by building and encoding the request URL. The query plan benchmarks execute a
+ * compiled {@link QueryPlan}, which only encodes the roll, registration and captcha of each lookup.
+ */
+package com.eresult.sdk.benchmark;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.data.query.CaptchaFactory;
+import com.eresult.sdk.data.query.QueryPlan;
+import com.eresult.sdk.data.query.ResultRequestFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBuildingBenchmark {
+
+    private final OkHttpClient client = new OkHttpClient();
+    private final Request request = new Request.Builder().url("https://eboardresults.com").build();
+    private final QueryPlan plan = new QueryPlan(
+            "https://eboardresults.com", BoardType.DHAKA, "2023", ExamType.SSC, ResultType.INDIVIDUAL, null, null, null);
+
+    @Benchmark
+    public Call individualResultCall() {
+        return new ResultRequestFactory(
+                "1234", "PHPSESSID=abc; path=/", "123456", "1234567890", BoardType.DHAKA, "2023",
+                ExamType.SSC, ResultType.INDIVIDUAL, null, null, null)
+                .createCall(client, request);
+    }
+
+    @Benchmark
+    public Call queryPlanCall() {
+        return plan.newFactory("1234", "PHPSESSID=abc; path=/", "123456", "1234567890")
+                .createCall(client, request);
+    }
+
+    @Benchmark
+    public HttpUrl queryPlanUrl() {
+        return plan.newUrl("123456", "1234567890", "1234");
+    }
+
+    @Benchmark
+    public Call captchaCall() {
+        return new CaptchaFactory().createCall(client, request);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * ResponseParsingBenchmark measures response parsing: the captcha image and cookie, and result bodies
+ * from a single student up to institution sized payloads, both buffered as String and streamed.
+ */
+package com.eresult.sdk.benchmark;
+
+import com.eresult.sdk.data.Captcha;
+import com.eresult.sdk.data.query.CaptchaFactory;
+import com.eresult.sdk.data.query.ResultReader;
+import com.eresult.sdk.data.query.ResultRequestFactory;
+import com.eresult.sdk.data.ResultType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.ByteString;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseParsingBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final MediaType PNG = MediaType.get("image/png");
+
+    // 1 is an individual result, the others are institution and district sized results.
+    @Param({"1", "500", "5000"})
+    public int students;
+
+    private final Request request = new Request.Builder().url("https://eboardresults.com/v2/getres").build();
+    private ByteString payload;
+
+    @Setup
+    public void setUp() {
+        payload = ByteString.encodeUtf8(Payloads.result(students));
+    }
+
+    @Benchmark
+    public Captcha<byte[]> captcha() throws IOException {
+        // Responses can only be consumed once, so building one is part of every operation.
+        Response response = response(ByteString.of(Payloads.CAPTCHA_PNG), PNG)
+                .newBuilder()
+                .addHeader("Set-Cookie", "PHPSESSID=abc; path=/")
+                .build();
+        return new CaptchaFactory().parseResponse(response, CaptchaFactory.RESPONSE_TYPE);
+    }
+
+    @Benchmark
+    public String resultString() throws IOException {
+        return newResultFactory().parseResponse(response(payload, JSON), String.class);
+    }
+
+    @Benchmark
+    public void resultStringThenRecords(Blackhole blackhole) throws IOException {
+        // What callers of the String API had to do to get typed records.
+        String body = newResultFactory().parseResponse(response(payload, JSON), String.class);
+        ResultReader.of(body).readAll(blackhole::consume);
+    }
+
+    @Benchmark
+    public void resultStreamedRecords(Blackhole blackhole) throws IOException {
+        try (ResultReader reader = new ResultReader(response(payload, JSON).body().source())) {
+            reader.readAll(blackhole::consume);
+        }
+    }
+
+    private Response response(ByteString body, MediaType type) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(body, type))
+                .build();
+    }
+
+    private static ResultRequestFactory newResultFactory() {
+        return new ResultRequestFactory(
+                "1234", "cookie", null, null, null, null, null, ResultType.INSTITUTION, null, null, null);
+    }
+}
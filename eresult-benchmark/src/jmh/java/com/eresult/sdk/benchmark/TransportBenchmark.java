@@ -0,0 +1,130 @@
+/**
+ * TransportBenchmark measures LazyHttp.queryAsync on each Transport: the shared OkHttpClient and the JDK
+ * HttpClient against FakeEboardServer, and the InMemoryTransport answering with the same payloads without
+ * any socket. One operation is a batch of 32 concurrent captcha or institution result queries. The
+ * in-memory numbers are the cost of the SDK itself, request building and response parsing included.
+ */
+package com.eresult.sdk.benchmark;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.Captcha;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.data.query.CaptchaFactory;
+import com.eresult.sdk.data.query.QueryPlan;
+import com.eresult.sdk.data.query.http.InMemoryTransport;
+import com.eresult.sdk.data.query.http.LazyHttp;
+import com.eresult.sdk.transport.JdkHttpTransport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransportBenchmark {
+
+    private static final int CONCURRENCY = 32;
+
+    @Param({"okhttp", "jdk", "memory"})
+    public String transport;
+
+    private FakeEboardServer server;
+    private LazyHttp lazyHttp;
+    private QueryPlan plan;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new FakeEboardServer(500).start();
+        LazyHttp.Builder builder = new LazyHttp.Builder()
+                .baseUrl(server.baseUrl())
+                .maxRequests(64)
+                .maxRequestsPerHost(64)
+                .connectionPool(64, 5, TimeUnit.MINUTES);
+        if ("jdk".equals(transport)) {
+            builder.transport(new JdkHttpTransport());
+        } else if ("memory".equals(transport)) {
+            builder.transport(new InMemoryTransport(server.handler()));
+        }
+        lazyHttp = builder.build();
+        plan = new QueryPlan(lazyHttp.getBaseUrl(), BoardType.DHAKA, "2023", ExamType.SSC, ResultType.INSTITUTION,
+                "108000", null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public int captcha() throws InterruptedException {
+        Batch<Captcha<byte[]>> batch = new Batch<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            lazyHttp.queryAsync(new CaptchaFactory(), CaptchaFactory.RESPONSE_TYPE, batch);
+        }
+        return batch.await();
+    }
+
+    @Benchmark
+    public int institutionResult() throws InterruptedException {
+        Batch<String> batch = new Batch<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            lazyHttp.queryAsync(plan.newFactory("1234", "PHPSESSID=abc", null, null), String.class, batch);
+        }
+        return batch.await();
+    }
+
+    /**
+     * Callback counting down a latch once every query of a batch has completed.
+     */
+    private static class Batch<T> implements LazyHttp.Callback<T> {
+        private final CountDownLatch latch;
+        private final AtomicInteger failures = new AtomicInteger();
+
+        Batch(int size) {
+            this.latch = new CountDownLatch(size);
+        }
+
+        @Override
+        public void onResponse(Call call, T response) {
+            latch.countDown();
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            failures.incrementAndGet();
+            latch.countDown();
+        }
+
+        int await() throws InterruptedException {
+            if (!latch.await(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Batch did not complete");
+            }
+            if (failures.get() > 0) {
+                throw new IllegalStateException(failures.get() + " queries failed");
+            }
+            return failures.get();
+        }
+    }
+}
@@ -0,0 +1,409 @@
+/**
+ * FakeEboardServer class is a local stand-in for the eboardresults.com endpoints, built on MockWebServer.
+ * It serves /v2/captcha with a session cookie and /v2/getres with synthetic payloads, so the SDK can be
+ * measured without touching the live site.
+ * <p>
+ * Built with the Builder, it behaves like the website under load: answers are delayed by a latency
+ * distribution, a share of them fails with 503, 429 or a dropped connection, and result requests are
+ * rejected like a wrong captcha unless they carry a session cookie the server issued, that has not
+ * expired and, optionally, has not been used before.
+ */
+package com.eresult.sdk.benchmark;
+
+import com.eresult.sdk.data.query.http.InMemoryTransport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ServerSocketFactory;
+
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+import okio.ByteString;
+
+public class FakeEboardServer implements Closeable {
+
+    private static final MediaType PNG = MediaType.get("image/png");
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final String COOKIE = "PHPSESSID";
+    private static final ByteString CAPTCHA = ByteString.of(Payloads.CAPTCHA_PNG);
+
+    // Sessions are swept for expired ones whenever this many have been issued since the last sweep.
+    private static final int SWEEP_INTERVAL = 10_000;
+
+    private final MockWebServer server = new MockWebServer();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final AtomicInteger injectedErrors = new AtomicInteger();
+
+    // Issue time of the sessions still accepted, by cookie value.
+    private final Map<String, Long> issuedSessions = new ConcurrentHashMap<>();
+
+    // Pre-encoded payloads, served without copying the JSON again.
+    private final ByteString individual;
+    private final ByteString group;
+    private final ByteString rejection = ByteString.encodeUtf8(Payloads.rejected());
+
+    private final Latency captchaLatency;
+    private final Latency resultLatency;
+    private final double serverErrorRate;
+    private final double rateLimitRate;
+    private final double disconnectRate;
+    private final boolean requireSession;
+    private final boolean singleUseSessions;
+    private final long sessionTtlMillis;
+
+    /**
+     * Constructor for FakeEboardServer, answering right away, without errors and accepting any cookie.
+     *
+     * @param groupSize Number of students in institution, center and district results.
+     */
+    public FakeEboardServer(int groupSize) {
+        this(new Builder().groupSize(groupSize));
+    }
+
+    private FakeEboardServer(Builder builder) {
+        this.individual = ByteString.encodeUtf8(Payloads.result(1));
+        this.group = ByteString.encodeUtf8(Payloads.result(builder.groupSize));
+        this.captchaLatency = builder.captchaLatency;
+        this.resultLatency = builder.resultLatency;
+        this.serverErrorRate = builder.serverErrorRate;
+        this.rateLimitRate = builder.rateLimitRate;
+        this.disconnectRate = builder.disconnectRate;
+        this.requireSession = builder.requireSession;
+        this.singleUseSessions = builder.singleUseSessions;
+        this.sessionTtlMillis = builder.sessionTtlMillis;
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return FakeEboardServer.this.dispatch(request);
+            }
+        });
+    }
+
+    /**
+     * Starts the server on a free local port.
+     *
+     * @return This server.
+     * @throws IOException If the server can not be started.
+     */
+    public FakeEboardServer start() throws IOException {
+        server.start();
+        return this;
+    }
+
+    /**
+     * Returns the base URL to hand to LazyHttp or EResult instead of https://eboardresults.com.
+     *
+     * @return Base URL without trailing slash.
+     */
+    public String baseUrl() {
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    /**
+     * Returns the number of TCP connections accepted so far. With TLS, each of them is a handshake.
+     *
+     * @return Number of connections.
+     */
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Returns the number of requests served so far.
+     *
+     * @return Number of requests.
+     */
+    public int requestCount() {
+        return server.getRequestCount();
+    }
+
+    /**
+     * Returns the number of sessions issued with a captcha so far.
+     *
+     * @return Number of sessions.
+     */
+    public int sessionCount() {
+        return sessions.get();
+    }
+
+    /**
+     * Returns the number of result requests rejected for an unknown, expired or reused session.
+     *
+     * @return Number of rejected requests.
+     */
+    public int rejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Returns the number of requests failed on purpose with 503, 429 or a dropped connection.
+     *
+     * @return Number of injected errors.
+     */
+    public int injectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    /**
+     * Returns a handler answering like this server, for an InMemoryTransport. The server does not need to be
+     * started for it, and the requests it answers are not counted. Latencies are slept on the calling thread,
+     * and dropped connections fail the call with an IOException.
+     *
+     * @return Handler serving the same endpoints and payloads.
+     */
+    public InMemoryTransport.Handler handler() {
+        return request -> {
+            Reply reply = reply(request.url().encodedPath(), request.url().queryParameter("result_type"),
+                    request.header("Cookie"));
+            if (reply.delayMillis() > 0) {
+                try {
+                    Thread.sleep(reply.delayMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Canceled");
+                }
+            }
+            if (reply.disconnect()) {
+                throw new IOException("unexpected end of stream");
+            }
+            Response.Builder response = InMemoryTransport.newResponse(request).code(reply.code());
+            if (reply.setCookie() != null) response.header("Set-Cookie", reply.setCookie());
+            if (reply.retryAfter()) response.header("Retry-After", "1");
+            return response.body(ResponseBody.create(reply.body(), reply.contentType())).build();
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * ServerSocketFactory disabling Nagle's algorithm on accepted sockets. Otherwise responses written in
+     * several small chunks stall on delayed ACKs once connections are reused, hiding the client's own cost.
+     */
+    private static class NoDelayServerSocketFactory extends ServerSocketFactory {
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new ServerSocket() {
+                @Override
+                public Socket accept() throws IOException {
+                    Socket socket = super.accept();
+                    socket.setTcpNoDelay(true);
+                    return socket;
+                }
+            };
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private MockResponse dispatch(RecordedRequest request) {
+        // The first request on a connection has sequence number 0.
+        if (request.getSequenceNumber() == 0) {
+            connections.incrementAndGet();
+        }
+
+        Reply reply = reply(
+                request.getRequestUrl() != null ? request.getRequestUrl().encodedPath() : "",
+                request.getRequestUrl() != null ? request.getRequestUrl().queryParameter("result_type") : null,
+                request.getHeader("Cookie"));
+        if (reply.disconnect()) {
+            return new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START);
+        }
+        MockResponse response = new MockResponse()
+                .setResponseCode(reply.code())
+                .setHeadersDelay(reply.delayMillis(), TimeUnit.MILLISECONDS)
+                .addHeader("Content-Type", reply.contentType().toString())
+                .setBody(new Buffer().write(reply.body()));
+        if (reply.setCookie() != null) response.addHeader("Set-Cookie", reply.setCookie());
+        if (reply.retryAfter()) response.addHeader("Retry-After", "1");
+        return response;
+    }
+
+    // Decides how a request is answered, independent of the way the answer is delivered.
+    private Reply reply(String path, String resultType, String cookie) {
+        Random random = ThreadLocalRandom.current();
+        boolean captcha = path.endsWith("/v2/captcha");
+        if (!captcha && !path.endsWith("/v2/getres")) {
+            return new Reply(404, ByteString.EMPTY, JSON, null, 0, false, false);
+        }
+        long delay = (captcha ? captchaLatency : resultLatency).nextMillis(random);
+
+        double error = random.nextDouble();
+        if (error < disconnectRate) {
+            injectedErrors.incrementAndGet();
+            return new Reply(0, ByteString.EMPTY, JSON, null, delay, true, false);
+        }
+        if (error < disconnectRate + serverErrorRate) {
+            injectedErrors.incrementAndGet();
+            return new Reply(503, ByteString.EMPTY, JSON, null, delay, false, false);
+        }
+        if (error < disconnectRate + serverErrorRate + rateLimitRate) {
+            injectedErrors.incrementAndGet();
+            return new Reply(429, ByteString.EMPTY, JSON, null, delay, false, true);
+        }
+
+        if (captcha) {
+            return new Reply(200, CAPTCHA, PNG, COOKIE + "=" + issueSession() + "; path=/",
+                    delay, false, false);
+        }
+        if (requireSession && !acceptSession(cookie)) {
+            rejected.incrementAndGet();
+            return new Reply(200, rejection, JSON, null, delay, false, false);
+        }
+        return new Reply(200, "1".equals(resultType) ? individual : group, JSON, null, delay, false, false);
+    }
+
+    private String issueSession() {
+        int id = sessions.incrementAndGet();
+        String value = "s" + id;
+        if (requireSession) {
+            long now = System.currentTimeMillis();
+            issuedSessions.put(value, now);
+            if (id % SWEEP_INTERVAL == 0) {
+                issuedSessions.values().removeIf(issuedAt -> now - issuedAt > sessionTtlMillis);
+            }
+        }
+        return value;
+    }
+
+    private boolean acceptSession(String cookie) {
+        if (cookie == null || !cookie.startsWith(COOKIE + "=")) return false;
+        int end = cookie.indexOf(';');
+        String value = cookie.substring(COOKIE.length() + 1, end < 0 ? cookie.length() : end);
+        Long issuedAt = singleUseSessions ? issuedSessions.remove(value) : issuedSessions.get(value);
+        return issuedAt != null && System.currentTimeMillis() - issuedAt <= sessionTtlMillis;
+    }
+
+    /**
+     * Answer to a request, turned into a MockResponse or an in-memory Response.
+     */
+    private record Reply(int code, ByteString body, MediaType contentType, String setCookie, long delayMillis,
+                         boolean disconnect, boolean retryAfter) {
+    }
+
+    /**
+     * Builder class for a FakeEboardServer behaving like the website under load.
+     */
+    public static class Builder {
+        private int groupSize = 500;
+        private Latency captchaLatency = Latency.NONE;
+        private Latency resultLatency = Latency.NONE;
+        private double serverErrorRate;
+        private double rateLimitRate;
+        private double disconnectRate;
+        private boolean requireSession;
+        private boolean singleUseSessions;
+        private long sessionTtlMillis = Long.MAX_VALUE;
+
+        /**
+         * Sets the number of students in institution, center and district results. Defaults to 500.
+         *
+         * @param groupSize Number of students.
+         * @return Builder instance.
+         */
+        public Builder groupSize(int groupSize) {
+            if (groupSize < 1) {
+                throw new IllegalArgumentException("Group size must be at least 1!");
+            }
+            this.groupSize = groupSize;
+            return this;
+        }
+
+        /**
+         * Sets how long the captcha and the result endpoints take to answer. Defaults to no delay.
+         *
+         * @param captchaLatency Latency of /v2/captcha.
+         * @param resultLatency  Latency of /v2/getres.
+         * @return Builder instance.
+         */
+        public Builder latency(Latency captchaLatency, Latency resultLatency) {
+            this.captchaLatency = captchaLatency;
+            this.resultLatency = resultLatency;
+            return this;
+        }
+
+        /**
+         * Sets the shares of requests failing on purpose, each between 0 and 1. Defaults to none.
+         *
+         * @param serverErrorRate Share answered with 503 Service Unavailable.
+         * @param rateLimitRate   Share answered with 429 Too Many Requests.
+         * @param disconnectRate  Share whose connection is dropped before answering.
+         * @return Builder instance.
+         */
+        public Builder errorRates(double serverErrorRate, double rateLimitRate, double disconnectRate) {
+            if (serverErrorRate < 0 || rateLimitRate < 0 || disconnectRate < 0
+                    || serverErrorRate + rateLimitRate + disconnectRate > 1) {
+                throw new IllegalArgumentException("Error rates must be positive and add up to at most 1!");
+            }
+            this.serverErrorRate = serverErrorRate;
+            this.rateLimitRate = rateLimitRate;
+            this.disconnectRate = disconnectRate;
+            return this;
+        }
+
+        /**
+         * Makes result requests require a session cookie issued with a captcha, like the website does.
+         * Requests without one are rejected like a wrong captcha. By default any cookie is accepted.
+         *
+         * @param ttl       How long a session is accepted after it was issued.
+         * @param unit      Time unit of the ttl.
+         * @param singleUse Whether a session is only accepted for one result request, stricter than the
+         *                  website, which accepts a session until it expires.
+         * @return Builder instance.
+         */
+        public Builder sessions(long ttl, TimeUnit unit, boolean singleUse) {
+            if (ttl <= 0) {
+                throw new IllegalArgumentException("Session ttl must be positive!");
+            }
+            this.requireSession = true;
+            this.sessionTtlMillis = unit.toMillis(ttl);
+            this.singleUseSessions = singleUse;
+            return this;
+        }
+
+        /**
+         * Builds the server, which still needs to be started.
+         *
+         * @return FakeEboardServer instance.
+         */
+        public FakeEboardServer build() {
+            return new FakeEboardServer(this);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Latency interface describes how long FakeEboardServer takes to answer a request. Response times of the
+ * live website are skewed with a long tail, which the log-normal distribution reproduces: most answers
+ * come close to the median, a few take many times longer.
+ */
+package com.eresult.sdk.benchmark;
+
+import java.util.Random;
+
+public interface Latency {
+
+    // No delay at all.
+    Latency NONE = random -> 0;
+
+    /**
+     * Draws the delay of the next answer.
+     *
+     * @param random Source of randomness, owned by the calling thread.
+     * @return Delay in milliseconds.
+     */
+    long nextMillis(Random random);
+
+    /**
+     * Returns a latency always taking the given time.
+     *
+     * @param millis Delay in milliseconds.
+     * @return Latency instance.
+     */
+    static Latency fixed(long millis) {
+        return random -> millis;
+    }
+
+    /**
+     * Returns a latency drawn uniformly between the given bounds.
+     *
+     * @param minMillis Shortest delay in milliseconds.
+     * @param maxMillis Longest delay in milliseconds.
+     * @return Latency instance.
+     */
+    static Latency uniform(long minMillis, long maxMillis) {
+        if (maxMillis < minMillis) {
+            throw new IllegalArgumentException("Max latency must not be below min latency!");
+        }
+        return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis + 1));
+    }
+
+    /**
+     * Returns a log-normally distributed latency. A sigma of 0.5 puts the 99th percentile at about 3.2
+     * times the median, a sigma of 1 at about 10 times.
+     *
+     * @param medianMillis Median delay in milliseconds.
+     * @param sigma        Standard deviation of the logarithm of the delay.
+     * @return Latency instance.
+     */
+    static Latency logNormal(double medianMillis, double sigma) {
+        if (medianMillis <= 0 || sigma < 0) {
+            throw new IllegalArgumentException("Median must be positive and sigma not negative!");
+        }
+        double mu = Math.log(medianMillis);
+        return random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+    }
+}
@@ -0,0 +1,272 @@
+/**
+ * LoadGenerator class drives an EResult with lookups at a fixed target rate, each fetching a captcha in
+ * its own session and then the result, through the same asynchronous code paths an application uses.
+ * <p>
+ * The load is open: lookups are started on schedule whether or not earlier ones have completed, as users
+ * arriving at the website would, and the latency of a lookup is measured from the time it was scheduled.
+ * A client falling behind therefore shows up in the percentiles instead of silently lowering the rate.
+ * Lookups beyond the in-flight cap are skipped and counted.
+ * <p>
+ * Threads and heap are measured for the whole JVM, which includes a FakeEboardServer running in the same
+ * process with its connection threads and recorded requests. Client threads are sampled apart by leaving
+ * out the threads named by MockWebServer.
+ * <p>
+ * EResult coalesces identical result queries in flight. Lookups are spread round-robin over the given
+ * instances, so pass instances for different students to measure distinct lookups, or a single one to
+ * measure a crowd opening the same result.
+ */
+package com.eresult.sdk.benchmark;
+
+import com.eresult.sdk.CaptchaDecoder;
+import com.eresult.sdk.EResult;
+import com.eresult.sdk.data.query.ResultReader;
+import com.eresult.sdk.data.query.http.FailureException;
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.eresult.sdk.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+public class LoadGenerator {
+
+    // Interval of the heap and thread samples taken while the load runs.
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    // Name prefix of the threads of MockWebServer, which FakeEboardServer runs on.
+    private static final String SERVER_THREAD_PREFIX = "MockWebServer";
+
+    private final EResult[] eResults;
+    private final double rate;
+    private final long durationNanos;
+    private final int maxInFlight;
+    private final String captcha;
+    private final long drainTimeoutNanos;
+
+    private LoadGenerator(Builder builder) {
+        this.eResults = builder.eResults;
+        this.rate = builder.rate;
+        this.durationNanos = builder.durationNanos;
+        this.maxInFlight = builder.maxInFlight;
+        this.captcha = builder.captcha;
+        this.drainTimeoutNanos = builder.drainTimeoutNanos;
+    }
+
+    /**
+     * Runs the load for the configured duration, then waits for the lookups in flight to complete.
+     *
+     * @return Report of the run.
+     * @throws InterruptedException If the calling thread is interrupted.
+     */
+    public LoadReport run() throws InterruptedException {
+        Run run = new Run();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        threads.resetPeakThreadCount();
+        long threadsBefore = threads.getThreadCount();
+        long startedThreadsBefore = threads.getTotalStartedThreadCount();
+        long peakHeap = memory.getHeapMemoryUsage().getUsed();
+        int peakClientThreads = clientThreads(threads);
+
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        long nextSample = start;
+        for (long i = 0; ; i++) {
+            long scheduled = start + (long) (i * intervalNanos);
+            if (scheduled >= end) break;
+            long now;
+            while ((now = System.nanoTime()) < scheduled) {
+                LockSupport.parkNanos(scheduled - now);
+                if (Thread.interrupted()) throw new InterruptedException();
+            }
+            if (now >= nextSample) {
+                peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+                peakClientThreads = Math.max(peakClientThreads, clientThreads(threads));
+                nextSample = now + SAMPLE_INTERVAL_NANOS;
+            }
+            if (run.inFlight.get() >= maxInFlight) {
+                run.skipped.incrementAndGet();
+                continue;
+            }
+            run.start(eResults[(int) (i % eResults.length)], scheduled);
+        }
+        long loadEnd = System.nanoTime();
+
+        long drainDeadline = loadEnd + drainTimeoutNanos;
+        while (run.inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+            peakClientThreads = Math.max(peakClientThreads, clientThreads(threads));
+            Thread.sleep(10);
+        }
+
+        long[] failures = new long[FailureReason.values().length];
+        for (int i = 0; i < failures.length; i++) {
+            failures[i] = run.failures.get(i);
+        }
+        return new LoadReport(rate, loadEnd - start, System.nanoTime() - start, run.started.get(),
+                run.succeeded.get(), failures, run.skipped.get(), run.inFlight.get(), run.latencies,
+                threadsBefore, threads.getPeakThreadCount(),
+                threads.getTotalStartedThreadCount() - startedThreadsBefore, peakClientThreads, peakHeap);
+    }
+
+    // Returns the number of live threads that do not belong to the fake server.
+    private static int clientThreads(ThreadMXBean threads) {
+        int count = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && !info.getThreadName().startsWith(SERVER_THREAD_PREFIX)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Counters of one run, updated from the network threads.
+     */
+    private final class Run {
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicLong started = new AtomicLong();
+        final AtomicLong succeeded = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final AtomicLongArray failures = new AtomicLongArray(FailureReason.values().length);
+
+        // Starts a lookup scheduled at the given System.nanoTime().
+        void start(EResult eResult, long scheduled) {
+            inFlight.incrementAndGet();
+            started.incrementAndGet();
+            eResult.captchaSessionAsync(CaptchaDecoder.BYTES)
+                    .thenCompose(captcha -> eResult.resultAsync(captcha.getSession(), LoadGenerator.this.captcha))
+                    .whenComplete((body, failure) -> {
+                        latencies.record(System.nanoTime() - scheduled);
+                        FailureReason reason = failure != null ? FailureReason.of(unwrap(failure)) : rejection(body);
+                        if (reason == null) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failures.incrementAndGet(reason.ordinal());
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+    }
+
+    // Returns the reason a result body holds no student, or null if it holds one.
+    private static FailureReason rejection(String body) {
+        try {
+            return ResultReader.of(body).next() != null ? null : FailureReason.REJECTED;
+        } catch (IOException e) {
+            return FailureException.of(e).getReason();
+        }
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     * Builder class for a LoadGenerator.
+     */
+    public static class Builder {
+        private final EResult[] eResults;
+        private double rate = 100;
+        private long durationNanos = TimeUnit.SECONDS.toNanos(30);
+        private int maxInFlight = 10_000;
+        private String captcha = "1234";
+        private long drainTimeoutNanos = TimeUnit.SECONDS.toNanos(30);
+
+        /**
+         * Constructor for the Builder.
+         *
+         * @param eResults EResult instances looked up with in turn, configured for the result type under test.
+         */
+        public Builder(EResult... eResults) {
+            if (eResults.length == 0) {
+                throw new IllegalArgumentException("At least one EResult is needed!");
+            }
+            this.eResults = eResults.clone();
+        }
+
+        /**
+         * Sets the number of lookups started per second. Defaults to 100.
+         *
+         * @param lookupsPerSecond Target rate.
+         * @return Builder instance.
+         */
+        public Builder rate(double lookupsPerSecond) {
+            if (lookupsPerSecond <= 0) {
+                throw new IllegalArgumentException("Rate must be positive!");
+            }
+            this.rate = lookupsPerSecond;
+            return this;
+        }
+
+        /**
+         * Sets how long lookups are started. Defaults to 30 seconds.
+         *
+         * @param duration Duration of the load.
+         * @param unit     Time unit of the duration.
+         * @return Builder instance.
+         */
+        public Builder duration(long duration, TimeUnit unit) {
+            if (duration <= 0) {
+                throw new IllegalArgumentException("Duration must be positive!");
+            }
+            this.durationNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets the number of lookups in flight above which scheduled lookups are skipped. Defaults to 10,000.
+         *
+         * @param maxInFlight Maximum number of lookups in flight.
+         * @return Builder instance.
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("Max in flight must be at least 1!");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Sets the captcha answer sent with every result request. Defaults to "1234", which FakeEboardServer
+         * accepts.
+         *
+         * @param captcha Captcha answer.
+         * @return Builder instance.
+         */
+        public Builder captcha(String captcha) {
+            this.captcha = captcha;
+            return this;
+        }
+
+        /**
+         * Sets how long the lookups still in flight are waited for once the load has ended. Defaults to 30
+         * seconds, lookups still in flight afterwards are reported as such.
+         *
+         * @param timeout Drain timeout.
+         * @param unit    Time unit of the timeout.
+         * @return Builder instance.
+         */
+        public Builder drainTimeout(long timeout, TimeUnit unit) {
+            this.drainTimeoutNanos = unit.toNanos(timeout);
+            return this;
+        }
+
+        /**
+         * Builds the load generator.
+         *
+         * @return LoadGenerator instance.
+         */
+        public LoadGenerator build() {
+            return new LoadGenerator(this);
+        }
+    }
+}
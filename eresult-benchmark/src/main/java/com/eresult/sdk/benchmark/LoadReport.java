@@ -0,0 +1,157 @@
+/**
+ * LoadReport class holds the outcome of a LoadGenerator run: the achieved throughput, the latency
+ * percentiles of the lookups, the failures by reason, and the threads and heap used. Thread and heap
+ * figures are process totals, including a fake server running in the same JVM, except for the sampled
+ * peak of client threads.
+ */
+package com.eresult.sdk.benchmark;
+
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.eresult.sdk.metrics.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public final class LoadReport {
+    private final double targetRate;
+    private final long loadNanos;
+    private final long totalNanos;
+    private final long started;
+    private final long succeeded;
+    private final Map<FailureReason, Long> failures = new EnumMap<>(FailureReason.class);
+    private final long skipped;
+    private final long unfinished;
+    private final LatencyHistogram latencies;
+    private final long threadsBefore;
+    private final long peakThreads;
+    private final long startedThreads;
+    private final long peakClientThreads;
+    private final long peakHeapBytes;
+
+    LoadReport(double targetRate, long loadNanos, long totalNanos, long started, long succeeded, long[] failures,
+               long skipped, long unfinished, LatencyHistogram latencies, long threadsBefore, long peakThreads,
+               long startedThreads, long peakClientThreads, long peakHeapBytes) {
+        this.targetRate = targetRate;
+        this.loadNanos = loadNanos;
+        this.totalNanos = totalNanos;
+        this.started = started;
+        this.succeeded = succeeded;
+        for (FailureReason reason : FailureReason.values()) {
+            if (failures[reason.ordinal()] > 0) {
+                this.failures.put(reason, failures[reason.ordinal()]);
+            }
+        }
+        this.skipped = skipped;
+        this.unfinished = unfinished;
+        this.latencies = latencies;
+        this.threadsBefore = threadsBefore;
+        this.peakThreads = peakThreads;
+        this.startedThreads = startedThreads;
+        this.peakClientThreads = peakClientThreads;
+        this.peakHeapBytes = peakHeapBytes;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    /**
+     * Returns the lookups completed successfully per second, over the time from the first lookup until
+     * the last one completed.
+     *
+     * @return Achieved throughput.
+     */
+    public double getThroughput() {
+        return succeeded * (double) TimeUnit.SECONDS.toNanos(1) / totalNanos;
+    }
+
+    public long getStarted() {
+        return started;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * Returns the failed lookups by reason. Results without any student count as REJECTED.
+     *
+     * @return Failures by reason, only holding reasons that occurred.
+     */
+    public Map<FailureReason, Long> getFailures() {
+        return failures;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * Returns the latencies of the completed lookups, measured from the time they were scheduled.
+     *
+     * @return Latency histogram in nanoseconds.
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    public long getPeakThreads() {
+        return peakThreads;
+    }
+
+    public long getStartedThreads() {
+        return startedThreads;
+    }
+
+    /**
+     * Returns the highest number of live threads outside the fake server, sampled while the load ran.
+     *
+     * @return Peak client threads.
+     */
+    public long getPeakClientThreads() {
+        return peakClientThreads;
+    }
+
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "Target rate      %.1f lookups/s for %.1f s%n",
+                targetRate, loadNanos / 1e9));
+        report.append(String.format(Locale.ROOT, "Throughput       %.1f lookups/s%n", getThroughput()));
+        report.append(String.format(Locale.ROOT, "Lookups          %d started, %d succeeded, %d skipped, %d unfinished%n",
+                started, succeeded, skipped, unfinished));
+        report.append(String.format(Locale.ROOT, "Latency (ms)     p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMax())));
+        report.append("Failures        ");
+        if (failures.isEmpty()) {
+            report.append(" none");
+        }
+        for (Map.Entry<FailureReason, Long> failure : failures.entrySet()) {
+            report.append(' ').append(failure.getKey()).append(' ').append(failure.getValue());
+        }
+        report.append(System.lineSeparator());
+        report.append(String.format(Locale.ROOT, "Threads          %d before, %d peak, %d started (process)%n",
+                threadsBefore, peakThreads, startedThreads));
+        report.append(String.format(Locale.ROOT, "Client threads   %d peak (sampled, fake server excluded)%n",
+                peakClientThreads));
+        report.append(String.format(Locale.ROOT, "Peak heap        %.1f MB (process, fake server included)%n",
+                peakHeapBytes / (1024.0 * 1024.0)));
+        return report.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
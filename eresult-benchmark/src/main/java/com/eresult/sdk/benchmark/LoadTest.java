@@ -0,0 +1,107 @@
+/**
+ * LoadTest runs the LoadGenerator against a FakeEboardServer behaving like the website under load and
+ * prints the report, to size a deployment offline:
+ * <pre>
+ * ./gradlew :eresult-benchmark:loadTest -PloadTest.args="rate=500 duration=60 type=institution"
+ * </pre>
+ * Arguments are key=value pairs, all optional:
+ * <ul>
+ * <li>rate: lookups started per second, 200 by default.</li>
+ * <li>duration: seconds of load, 30 by default.</li>
+ * <li>type: individual or institution, individual by default.</li>
+ * <li>students: distinct students or institutions looked up in turn, 1000 by default.</li>
+ * <li>group: students per institution result, 500 by default.</li>
+ * <li>captchaLatency, resultLatency: median answer time of the endpoints in milliseconds, 40 and 150
+ * by default, log-normally distributed with the given sigma, 0.6 by default.</li>
+ * <li>serverErrors, rateLimits, disconnects: shares of requests failing with 503, 429 or a dropped
+ * connection, 0.01, 0.005 and 0.001 by default.</li>
+ * <li>sessionTtl: seconds a captcha session is accepted, 120 by default.</li>
+ * <li>transport: okhttp, jdk or memory, okhttp by default.</li>
+ * <li>maxRequests: limit of concurrent requests of the shared client, 256 by default.</li>
+ * </ul>
+ */
+package com.eresult.sdk.benchmark;
+
+import com.eresult.sdk.EResult;
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.data.query.http.InMemoryTransport;
+import com.eresult.sdk.data.query.http.Transport;
+import com.eresult.sdk.transport.JdkHttpTransport;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "30"));
+        boolean institution = "institution".equals(options.getOrDefault("type", "individual"));
+        int students = Integer.parseInt(options.getOrDefault("students", "1000"));
+        double sigma = Double.parseDouble(options.getOrDefault("sigma", "0.6"));
+
+        FakeEboardServer server = new FakeEboardServer.Builder()
+                .groupSize(Integer.parseInt(options.getOrDefault("group", "500")))
+                .latency(Latency.logNormal(Double.parseDouble(options.getOrDefault("captchaLatency", "40")), sigma),
+                        Latency.logNormal(Double.parseDouble(options.getOrDefault("resultLatency", "150")), sigma))
+                .errorRates(Double.parseDouble(options.getOrDefault("serverErrors", "0.01")),
+                        Double.parseDouble(options.getOrDefault("rateLimits", "0.005")),
+                        Double.parseDouble(options.getOrDefault("disconnects", "0.001")))
+                .sessions(Long.parseLong(options.getOrDefault("sessionTtl", "120")), TimeUnit.SECONDS, false)
+                .build()
+                .start();
+
+        String transportName = options.getOrDefault("transport", "okhttp");
+        Transport transport = "jdk".equals(transportName) ? new JdkHttpTransport()
+                : "memory".equals(transportName) ? new InMemoryTransport(server.handler()) : null;
+        int maxRequests = Integer.parseInt(options.getOrDefault("maxRequests", "256"));
+
+        EResult[] eResults = new EResult[students];
+        for (int i = 0; i < students; i++) {
+            EResult.Builder builder = new EResult.Builder()
+                    .setBaseUrl(server.baseUrl())
+                    .setYear("2023")
+                    .setExamType(ExamType.SSC)
+                    .setBoardType(BoardType.DHAKA)
+                    .setMaxRequests(maxRequests)
+                    .setMaxRequestsPerHost(maxRequests)
+                    .setConnectionPool(maxRequests, 5, TimeUnit.MINUTES)
+                    .setTransport(transport);
+            if (institution) {
+                builder.setResultType(ResultType.INSTITUTION).setEiinCode(String.valueOf(100000 + i));
+            } else {
+                builder.setResultType(ResultType.INDIVIDUAL)
+                        .setStudentRollNumber(String.valueOf(100000 + i))
+                        .setRegistrationId(String.valueOf(1000000000L + i));
+            }
+            eResults[i] = builder.build();
+        }
+
+        System.out.printf("Running %s lookups at %.1f/s for %d s on %s%n",
+                institution ? "institution" : "individual", rate, duration, transportName);
+        LoadReport report = new LoadGenerator.Builder(eResults)
+                .rate(rate)
+                .duration(duration, TimeUnit.SECONDS)
+                .build()
+                .run();
+        System.out.print(report);
+        System.out.printf("Server           %d requests, %d connections, %d injected errors, %d rejected sessions%n",
+                server.requestCount(), server.connectionCount(), server.injectedErrorCount(), server.rejectedCount());
+        server.close();
+    }
+}
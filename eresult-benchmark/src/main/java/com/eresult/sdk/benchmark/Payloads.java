@@ -0,0 +1,91 @@
+/**
+ * Payloads class generates synthetic /v2/getres responses, from a single student up to institution or
+ * district sized results. Generation is seeded, so every run benchmarks the same bytes.
+ */
+package com.eresult.sdk.benchmark;
+
+import java.util.Random;
+
+public final class Payloads {
+
+    // Smallest valid PNG (1x1 pixel), served as captcha image.
+    public static final byte[] CAPTCHA_PNG = {
+            (byte) 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A, 0x00, 0x00, 0x00, 0x0D, 0x49, 0x48, 0x44, 0x52,
+            0x00, 0x00, 0x00, 0x01, 0x00, 0x00, 0x00, 0x01, 0x08, 0x06, 0x00, 0x00, 0x00, 0x1F, 0x15, (byte) 0xC4,
+            (byte) 0x89, 0x00, 0x00, 0x00, 0x0D, 0x49, 0x44, 0x41, 0x54, 0x78, (byte) 0x9C, 0x63, 0x00, 0x01, 0x00, 0x00,
+            0x05, 0x00, 0x01, 0x0D, 0x0A, 0x2D, (byte) 0xB4, 0x00, 0x00, 0x00, 0x00, 0x49, 0x45, 0x4E, 0x44, (byte) 0xAE,
+            0x42, 0x60, (byte) 0x82
+    };
+
+    private static final String[] GRADES = {"A+", "A", "A-", "B", "C", "D", "F"};
+    private static final String[] POINTS = {"5.00", "4.00", "3.50", "3.00", "2.00", "1.00", "0.00"};
+    private static final String[] GROUPS = {"SCIENCE", "HUMANITIES", "BUSINESS STUDIES"};
+    private static final int[] SUBJECTS = {101, 102, 107, 108, 109, 136, 137, 138, 150, 154};
+
+    private Payloads() {
+    }
+
+    /**
+     * Generates a result response holding the given number of students.
+     *
+     * @param students Number of students, 1 for an individual result.
+     * @return JSON payload.
+     */
+    public static String result(int students) {
+        return result(students, 100000);
+    }
+
+    /**
+     * Generates a result response holding the given number of students, numbered from the given roll.
+     * Responses with different first rolls hold different students, e.g. the institutions of a district.
+     *
+     * @param students  Number of students, 1 for an individual result.
+     * @param firstRoll Roll number of the first student.
+     * @return JSON payload.
+     */
+    public static String result(int students, int firstRoll) {
+        Random random = new Random(firstRoll == 100000 ? students : 31L * students + firstRoll);
+        StringBuilder json = new StringBuilder(students * 420 + 64);
+        json.append("{\"status\":0,\"msg\":\"\",\"res\":");
+        if (students != 1) json.append('[');
+        for (int i = 0; i < students; i++) {
+            if (i > 0) json.append(',');
+            appendStudent(json, random, firstRoll + i);
+        }
+        if (students != 1) json.append(']');
+        return json.append('}').toString();
+    }
+
+    /**
+     * Returns the payload of a rejected request, e.g. a wrong captcha.
+     *
+     * @return JSON payload.
+     */
+    public static String rejected() {
+        return "{\"status\":1,\"msg\":\"Invalid captcha!\"}";
+    }
+
+    private static void appendStudent(StringBuilder json, Random random, int roll) {
+        int worst = 0;
+        StringBuilder details = new StringBuilder();
+        for (int i = 0; i < SUBJECTS.length; i++) {
+            int grade = Math.min(random.nextInt(8), GRADES.length - 1);
+            worst = Math.max(worst, grade);
+            if (i > 0) details.append(',');
+            details.append(SUBJECTS[i]).append(':').append(GRADES[grade]);
+        }
+
+        json.append("{\"roll_no\":\"").append(roll)
+                .append("\",\"reg_no\":\"").append(1000000000L + roll)
+                .append("\",\"name\":\"STUDENT ").append(roll)
+                .append("\",\"fname\":\"FATHER ").append(roll)
+                .append("\",\"mname\":\"MOTHER ").append(roll)
+                .append("\",\"dob\":\"01-01-2007\",\"sex\":\"").append(random.nextBoolean() ? "MALE" : "FEMALE")
+                .append("\",\"stud_group\":\"").append(GROUPS[random.nextInt(GROUPS.length)])
+                .append("\",\"inst_name\":\"SAMPLE HIGH SCHOOL\",\"eiin\":\"108").append(roll % 1000)
+                .append("\",\"gpa\":\"").append(POINTS[worst])
+                .append("\",\"result\":\"").append(worst == GRADES.length - 1 ? "FAILED" : "PASSED")
+                .append("\",\"display_details\":\"").append(details)
+                .append("\"}");
+    }
+}
@@ -0,0 +1,28 @@
+plugins {
+    id("java-library")
+    id("maven-publish")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    api("com.squareup.okhttp3:okhttp:4.12.0")
+    implementation("com.squareup.moshi:moshi:1.15.0")
+    implementation("androidx.annotation:annotation:1.7.1")
+    testImplementation("junit:junit:4.13.2")
+}
+
+publishing {
+    publications {
+        register<MavenPublication>("release") {
+            groupId = "com.github.lazy-pr0grammer"
+            artifactId = "eresult-core"
+            version = "1.0"
+
+            from(components["java"])
+        }
+    }
+}
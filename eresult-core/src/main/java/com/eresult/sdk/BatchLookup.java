@@ -0,0 +1,542 @@
+/**
+ * BatchLookup class looks up the individual results of many students of one exam, year and board.
+ * All lookups share one captcha and session cookie for as long as the website accepts it, and run with a
+ * bounded number of concurrent requests. When the website rejects the session, the remaining lookups
+ * pause and a new captcha is requested from the operator through the CaptchaSolver.
+ * <p>
+ * A BatchLookup runs once, results are streamed to the Listener as each lookup completes.
+ */
+package com.eresult.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.Captcha;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.data.Session;
+import com.eresult.sdk.data.query.CaptchaFactory;
+import com.eresult.sdk.data.query.QueryPlan;
+import com.eresult.sdk.data.query.ResultReader;
+import com.eresult.sdk.data.query.ResultRequestFactory;
+import com.eresult.sdk.data.query.http.ConcurrencyLimiter;
+import com.eresult.sdk.data.query.http.LazyHttp;
+import com.eresult.sdk.data.query.http.Resilience;
+import com.eresult.sdk.data.query.http.Transport;
+import com.eresult.sdk.metrics.Metrics;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import okhttp3.Call;
+
+public class BatchLookup {
+
+    private final LazyHttp lazyHttp;
+    private final String year;
+    private final ExamType examType;
+    private final BoardType boardType;
+    private final int concurrency;
+    private final CaptchaSolver captchaSolver;
+    private final Executor callbackExecutor;
+    private final QueryPlan queryPlan;
+
+    // State of the run, guarded by the lock.
+    private final Object lock = new Object();
+    private final ArrayDeque<Student> pending = new ArrayDeque<>();
+    private final Set<Call> calls = new HashSet<>();
+    private final Set<Call> completedCalls = new HashSet<>();
+    private Listener listener;
+    private boolean started;
+    private boolean finished;
+    private boolean awaitingCaptcha;
+    // Set once the remaining students were failed, no new captcha is asked for afterwards.
+    private boolean aborted;
+    private int inFlight;
+    private int generation;
+    private Session session;
+    private String captcha;
+
+    /**
+     * Private constructor for BatchLookup.
+     *
+     * @param builder Builder instance holding the lookup parameters.
+     */
+    private BatchLookup(@NonNull Builder builder) {
+        this.lazyHttp = builder.httpBuilder.build();
+        this.year = builder.year;
+        this.examType = builder.examType;
+        this.boardType = builder.boardType;
+        this.concurrency = builder.concurrency;
+        this.captchaSolver = builder.captchaSolver;
+        this.callbackExecutor = builder.callbackExecutor;
+        this.queryPlan = new QueryPlan(
+                lazyHttp.getBaseUrl(), boardType, year, examType, ResultType.INDIVIDUAL, null, null, null);
+    }
+
+    /**
+     * Starts looking up the given students. The first captcha is requested from the CaptchaSolver right away.
+     *
+     * @param students Roll and registration numbers to look up.
+     * @param listener Listener receiving every result, failure and the completion.
+     * @throws IllegalStateException If the lookup has already been started.
+     */
+    public void start(@NonNull List<Student> students, @NonNull Listener listener) {
+        synchronized (lock) {
+            if (started) {
+                throw new IllegalStateException("A BatchLookup can only be started once!");
+            }
+            started = true;
+            this.listener = listener;
+            pending.addAll(students);
+            if (pending.isEmpty()) {
+                finished = true;
+                callbackExecutor.execute(listener::onComplete);
+                return;
+            }
+            awaitingCaptcha = true;
+        }
+        requestCaptcha();
+    }
+
+    /**
+     * Cancels the remaining lookups. Lookups in flight are cancelled and not reported, the listener is
+     * completed right away.
+     */
+    public void cancel() {
+        Set<Call> running;
+        synchronized (lock) {
+            if (finished) return;
+            finished = true;
+            pending.clear();
+            running = new HashSet<>(calls);
+            calls.clear();
+        }
+        for (Call call : running) {
+            call.cancel();
+        }
+        callbackExecutor.execute(listener::onComplete);
+    }
+
+    /**
+     * Returns the number of students that have not been reported yet.
+     *
+     * @return Number of pending and in-flight lookups.
+     */
+    public int getRemaining() {
+        synchronized (lock) {
+            return pending.size() + inFlight;
+        }
+    }
+
+    // Fetches a captcha and hands it to the operator.
+    private void requestCaptcha() {
+        lazyHttp.queryAsync(new CaptchaFactory(), CaptchaFactory.RESPONSE_TYPE, new LazyHttp.Callback<Captcha<byte[]>>() {
+            @Override
+            public void onResponse(Call call, Captcha<byte[]> response) {
+                callbackExecutor.execute(() -> captchaSolver.solve(response.getImage(), new CaptchaAnswer() {
+                    @Override
+                    public void submit(@NonNull String answer) {
+                        onSession(response.getSession(), answer);
+                    }
+
+                    @Override
+                    public void abort() {
+                        abortRemaining("Captcha aborted by the operator");
+                    }
+                }));
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                abortRemaining(e.getMessage());
+            }
+        });
+    }
+
+    // Starts a new session and resumes the lookups.
+    private void onSession(Session newSession, String answer) {
+        synchronized (lock) {
+            if (finished || !awaitingCaptcha) return;
+            awaitingCaptcha = false;
+            generation++;
+            session = newSession;
+            captcha = answer;
+        }
+        dispatch();
+    }
+
+    // Starts lookups until the concurrency limit is reached.
+    private void dispatch() {
+        while (true) {
+            Student student;
+            Session lookupSession;
+            String sessionCaptcha;
+            int sessionGeneration;
+            synchronized (lock) {
+                if (finished || awaitingCaptcha || inFlight >= concurrency || pending.isEmpty()) return;
+                student = pending.poll();
+                inFlight++;
+                lookupSession = session;
+                sessionCaptcha = captcha;
+                sessionGeneration = generation;
+            }
+            lookup(student, lookupSession, sessionCaptcha, sessionGeneration);
+        }
+    }
+
+    // Looks up a single student within the given session.
+    private void lookup(Student student, Session lookupSession, String sessionCaptcha, int sessionGeneration) {
+        ResultRequestFactory factory = queryPlan.newFactory(
+                sessionCaptcha, lookupSession.getCookie(), student.roll, student.registration);
+        Call call = lazyHttp.queryAsync(factory, String.class, new LazyHttp.Callback<String>() {
+            @Override
+            public void onResponse(Call call, String response) {
+                onLookupResponse(call, student, sessionGeneration, response);
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                complete(call, student, null, e.getMessage());
+            }
+        });
+        synchronized (lock) {
+            if (finished) {
+                call.cancel();
+            } else if (!completedCalls.remove(call)) {
+                calls.add(call);
+            }
+        }
+    }
+
+    // Stops tracking a call, remembering it if it completed before it was tracked. Must hold the lock.
+    private void untrack(Call call) {
+        if (!calls.remove(call) && !finished) {
+            completedCalls.add(call);
+        }
+    }
+
+    // Reports a result, or puts the student back and asks for a new captcha if the session was rejected.
+    // A rejection of an earlier session only puts the student back, to be looked up in the current one.
+    // Once the remaining students were aborted, a rejected student fails instead.
+    private void onLookupResponse(Call call, Student student, int sessionGeneration, String response) {
+        ResultReader reader = ResultReader.of(response);
+        try {
+            if (reader.next() != null) {
+                complete(call, student, response, null);
+                return;
+            }
+        } catch (IOException e) {
+            complete(call, student, null, e.getMessage());
+            return;
+        }
+
+        String message = reader.getMessage();
+        if (!isSessionRejected(message)) {
+            complete(call, student, null, message != null && !message.isEmpty() ? message : "No result found");
+            return;
+        }
+
+        boolean newCaptcha = false;
+        boolean failStudent;
+        synchronized (lock) {
+            failStudent = aborted;
+            if (!failStudent) {
+                untrack(call);
+                if (finished) return;
+                inFlight--;
+                pending.addFirst(student);
+                if (sessionGeneration == generation && !awaitingCaptcha) {
+                    awaitingCaptcha = true;
+                    newCaptcha = true;
+                }
+            }
+        }
+        if (newCaptcha) {
+            requestCaptcha();
+        } else if (failStudent) {
+            complete(call, student, null, message);
+        } else {
+            dispatch();
+        }
+    }
+
+    // Reports the outcome of a lookup and starts the next one.
+    private void complete(Call call, Student student, String response, String failure) {
+        boolean done;
+        synchronized (lock) {
+            untrack(call);
+            if (finished) return;
+            inFlight--;
+            done = inFlight == 0 && pending.isEmpty();
+            if (done) finished = true;
+        }
+        Listener listener = this.listener;
+        callbackExecutor.execute(() -> {
+            if (failure == null) {
+                listener.onResult(student, response);
+            } else {
+                listener.onFailure(student, failure);
+            }
+            if (done) listener.onComplete();
+        });
+        if (!done) dispatch();
+    }
+
+    // Fails every student that has not been looked up yet.
+    private void abortRemaining(String message) {
+        ArrayDeque<Student> failed;
+        boolean done;
+        synchronized (lock) {
+            if (finished) return;
+            failed = new ArrayDeque<>(pending);
+            pending.clear();
+            awaitingCaptcha = false;
+            aborted = true;
+            done = inFlight == 0;
+            if (done) finished = true;
+        }
+        Listener listener = this.listener;
+        callbackExecutor.execute(() -> {
+            for (Student student : failed) {
+                listener.onFailure(student, message);
+            }
+            if (done) listener.onComplete();
+        });
+    }
+
+    /**
+     * Returns whether the website rejected the session or captcha rather than the student.
+     *
+     * @param message Message of the rejected response.
+     * @return True if a new captcha is needed.
+     */
+    static boolean isSessionRejected(String message) {
+        if (message == null) return false;
+        String lower = message.toLowerCase(Locale.ROOT);
+        return lower.contains("captcha") || lower.contains("session") || lower.contains("expired");
+    }
+
+    /**
+     * Student class holds the roll and registration number of one individual lookup.
+     */
+    public static class Student {
+        public final String roll;
+        public final String registration;
+
+        /**
+         * Constructor for Student.
+         *
+         * @param roll         Roll number of the student.
+         * @param registration Registration number of the student.
+         */
+        public Student(@NonNull String roll, @NonNull String registration) {
+            this.roll = roll;
+            this.registration = registration;
+        }
+
+        @Override
+        public String toString() {
+            return roll + "/" + registration;
+        }
+    }
+
+    /**
+     * CaptchaSolver interface asks the human operator to solve a captcha. It is called on the callback
+     * executor, the answer may be submitted later from any thread.
+     */
+    public interface CaptchaSolver {
+        void solve(byte[] image, CaptchaAnswer answer);
+    }
+
+    /**
+     * CaptchaAnswer interface receives the operator's answer to a captcha.
+     */
+    public interface CaptchaAnswer {
+        void submit(@NonNull String captcha);
+
+        void abort();
+    }
+
+    /**
+     * Listener interface receiving the results of a BatchLookup as each lookup completes.
+     */
+    public interface Listener {
+        void onResult(Student student, String result);
+
+        void onFailure(Student student, String message);
+
+        void onComplete();
+    }
+
+    /**
+     * Builder class for creating a BatchLookup instance with specified parameters.
+     */
+    public static class Builder {
+        private final LazyHttp.Builder httpBuilder = new LazyHttp.Builder().baseUrl(EResult.BASE_URL);
+        private String year;
+        private ExamType examType;
+        private BoardType boardType;
+        private int concurrency = 4;
+        private CaptchaSolver captchaSolver;
+        private Executor callbackExecutor = CallbackExecutors.getDefault();
+
+        /**
+         * Sets the academic year of the results.
+         *
+         * @param year The academic year to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setYear(@NonNull String year) {
+            this.year = year;
+            return this;
+        }
+
+        /**
+         * Sets the exam type of the results.
+         *
+         * @param examType The exam type to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setExamType(@NonNull ExamType examType) {
+            this.examType = examType;
+            return this;
+        }
+
+        /**
+         * Sets the board type of the results.
+         *
+         * @param boardType The board type to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setBoardType(@NonNull BoardType boardType) {
+            this.boardType = boardType;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of lookups running at the same time. The lookups run on the shared
+         * OkHttpClient, whose dispatcher sends at most 5 requests per host at once, further lookups wait in
+         * its queue.
+         *
+         * @param concurrency The maximum number of concurrent lookups.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setConcurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("Concurrency must be at least 1!");
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Sets the solver asking the operator for captchas.
+         *
+         * @param captchaSolver The captcha solver to use.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setCaptchaSolver(@NonNull CaptchaSolver captchaSolver) {
+            this.captchaSolver = captchaSolver;
+            return this;
+        }
+
+        /**
+         * Sets the executor the solver and listener are called on.
+         *
+         * @param callbackExecutor The executor to deliver callbacks on.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setCallbackExecutor(@NonNull Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Sets the base URL of the website. Defaults to https://eboardresults.com.
+         *
+         * @param baseUrl The base URL to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setBaseUrl(@NonNull String baseUrl) {
+            httpBuilder.baseUrl(baseUrl);
+            return this;
+        }
+
+        /**
+         * Sets the transport running the requests instead of the shared OkHttpClient.
+         *
+         * @param transport The transport, or null for the shared OkHttpClient.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setTransport(Transport transport) {
+            httpBuilder.transport(transport);
+            return this;
+        }
+
+        /**
+         * Sets the metrics receiving the phase timings and counters of every request, e.g. a HistogramMetrics
+         * or a bridge into a monitoring system.
+         *
+         * @param metrics The metrics to report to.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setMetrics(@NonNull Metrics metrics) {
+            httpBuilder.metrics(metrics);
+            return this;
+        }
+
+        /**
+         * Sets how failing requests are retried and when requests to a failing website are paused.
+         * Defaults to {@link Resilience#getDefault()}, whose retry budget is shared by all instances.
+         *
+         * @param resilience The resilience configuration, or null to neither retry nor pause requests.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setResilience(Resilience resilience) {
+            httpBuilder.resilience(resilience);
+            return this;
+        }
+
+        /**
+         * Sets the limiter adapting the number of requests in flight to the website's capacity. Share one
+         * limiter between all instances, and raise the max requests per host to its highest limit.
+         *
+         * @param limiter The concurrency limiter to use.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setConcurrencyLimiter(@NonNull ConcurrencyLimiter limiter) {
+            httpBuilder.concurrencyLimiter(limiter);
+            return this;
+        }
+
+        /**
+         * Builds and returns a BatchLookup instance with the specified parameters.
+         *
+         * @return BatchLookup instance.
+         * @throws NullPointerException If the year, exam type, board type or captcha solver is not set.
+         */
+        public BatchLookup build() {
+            if (year == null || examType == null || boardType == null || captchaSolver == null) {
+                throw new NullPointerException("Year, exam type, board type and captcha solver need to be set for a batch lookup!");
+            }
+            return new BatchLookup(this);
+        }
+    }
+}
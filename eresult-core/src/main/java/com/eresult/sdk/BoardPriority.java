@@ -0,0 +1,90 @@
+/**
+ * BoardPriority class learns which boards the students looked up with a BoardSearch belong to, so the
+ * boards that matched most often are queried first. Boards that matched equally often keep the order
+ * they were given in.
+ * <p>
+ * The counts can be saved and restored, e.g. in the app's preferences, to keep the order across launches.
+ * All methods are thread-safe.
+ */
+package com.eresult.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.BoardType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class BoardPriority {
+    private final AtomicLongArray hits = new AtomicLongArray(BoardType.values().length);
+
+    /**
+     * Returns the process-wide priority used by BoardSearch by default.
+     *
+     * @return Default BoardPriority instance.
+     */
+    @NonNull
+    public static BoardPriority getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Records a student found on the given board.
+     *
+     * @param boardType Board the student was found on.
+     */
+    public void recordHit(@NonNull BoardType boardType) {
+        hits.incrementAndGet(boardType.ordinal());
+    }
+
+    /**
+     * Returns the number of students found on the given board.
+     *
+     * @param boardType Board to look up.
+     * @return Number of hits.
+     */
+    public long getHits(@NonNull BoardType boardType) {
+        return hits.get(boardType.ordinal());
+    }
+
+    /**
+     * Restores the number of students found on the given board, e.g. saved by an earlier launch.
+     *
+     * @param boardType Board to restore.
+     * @param count     Number of hits.
+     */
+    public void setHits(@NonNull BoardType boardType, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The hit count must not be negative!");
+        }
+        hits.set(boardType.ordinal(), count);
+    }
+
+    /**
+     * Orders the given boards by the number of students found on them, most first.
+     *
+     * @param boards Boards to order, in the order of equally ranked boards.
+     * @return New list of the boards in the order to query them.
+     */
+    @NonNull
+    public List<BoardType> order(@NonNull List<BoardType> boards) {
+        // Snapshot the counts, so concurrent hits can not break the comparator.
+        long[] snapshot = new long[hits.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = hits.get(i);
+        }
+        List<BoardType> ordered = new ArrayList<>(boards);
+        // Collections.sort is stable, boards with equal counts keep their order.
+        Collections.sort(ordered, (a, b) -> Long.compare(snapshot[b.ordinal()], snapshot[a.ordinal()]));
+        return ordered;
+    }
+
+    /**
+     * Holder of the default instance, created on first use.
+     */
+    private static class DefaultHolder {
+        static final BoardPriority INSTANCE = new BoardPriority();
+    }
+}
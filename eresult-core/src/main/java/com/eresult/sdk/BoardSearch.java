@@ -0,0 +1,545 @@
+/**
+ * BoardSearch class finds the individual result of a student whose board is unknown. The query is sent to
+ * the candidate boards in parallel, with a bounded number of requests in flight, in the order of the
+ * BoardPriority: the boards students were found on most often are queried first. The first board holding
+ * the student wins, and the queries still in flight are cancelled right away.
+ * <p>
+ * Like a BatchLookup, all boards are queried within one captcha session, so the user answers a single
+ * captcha: it is fetched and handed to the CaptchaSolver before the first board is queried. When the website
+ * rejects the session, the queries pause, the rejected boards are queued again and the CaptchaSolver is
+ * asked for a new captcha. See Session for how the website treats sessions.
+ */
+package com.eresult.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.Captcha;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.data.Session;
+import com.eresult.sdk.data.query.CaptchaFactory;
+import com.eresult.sdk.data.query.QueryPlan;
+import com.eresult.sdk.data.query.ResultReader;
+import com.eresult.sdk.data.query.ResultRequestFactory;
+import com.eresult.sdk.data.query.http.ConcurrencyLimiter;
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.eresult.sdk.data.query.http.LazyHttp;
+import com.eresult.sdk.data.query.http.Resilience;
+import com.eresult.sdk.data.query.http.Transport;
+import com.eresult.sdk.metrics.Metrics;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+
+public class BoardSearch {
+
+    private final LazyHttp lazyHttp;
+    private final List<BoardType> boards;
+    private final Map<BoardType, QueryPlan> queryPlans = new EnumMap<>(BoardType.class);
+    private final int concurrency;
+    private final BoardPriority priority;
+    private final BatchLookup.CaptchaSolver captchaSolver;
+    private final Executor callbackExecutor;
+
+    /**
+     * Private constructor for BoardSearch.
+     *
+     * @param builder Builder instance holding the search parameters.
+     */
+    private BoardSearch(@NonNull Builder builder) {
+        this.lazyHttp = builder.httpBuilder.build();
+        this.boards = builder.boards;
+        this.concurrency = builder.concurrency;
+        this.priority = builder.priority;
+        this.captchaSolver = builder.captchaSolver;
+        this.callbackExecutor = builder.callbackExecutor;
+        for (BoardType boardType : boards) {
+            queryPlans.put(boardType, new QueryPlan(lazyHttp.getBaseUrl(), boardType, builder.year,
+                    builder.examType, ResultType.INDIVIDUAL, null, null, null));
+        }
+    }
+
+    /**
+     * Searches the candidate boards for the result of a student. The callback receives the first match, or
+     * fails with REJECTED if the CaptchaSolver aborted a captcha or no board holds the student. If no board
+     * holds the student but some of them could not be queried, it fails with the reason of the last such
+     * failure. If no captcha could be fetched, it fails with the reason of that failure.
+     *
+     * @param roll         Roll number of the student.
+     * @param registration Registration number of the student.
+     * @param callback     Callback receiving the match or the failure.
+     * @return Search handle, to cancel the search.
+     */
+    @NonNull
+    public Search search(@NonNull String roll, @NonNull String registration,
+                         @NonNull EResult.ResultCallback<Match> callback) {
+        Run run = new Run(roll, registration, callback);
+        run.requestCaptcha();
+        return run;
+    }
+
+    /**
+     * Returns the boards searched, in the order equally ranked boards are queried.
+     *
+     * @return Candidate boards.
+     */
+    @NonNull
+    public List<BoardType> getBoards() {
+        return boards;
+    }
+
+    /**
+     * Run class holds the state of one search.
+     */
+    private class Run implements Search {
+        private final String roll;
+        private final String registration;
+        private final EResult.ResultCallback<Match> callback;
+
+        // State of the search, guarded by the run.
+        private final ArrayDeque<BoardType> pending;
+        private final Set<Call> calls = new HashSet<>();
+        private final Set<Call> completedCalls = new HashSet<>();
+        private int inFlight;
+        private boolean finished;
+        private boolean awaitingCaptcha = true;
+        private int generation;
+        private Session session;
+        private String captcha;
+        private IOException lastFailure;
+
+        Run(String roll, String registration, EResult.ResultCallback<Match> callback) {
+            this.roll = roll;
+            this.registration = registration;
+            this.callback = callback;
+            this.pending = new ArrayDeque<>(priority.order(boards));
+        }
+
+        @Override
+        public void cancel() {
+            finish(null);
+        }
+
+        // Ends the search and cancels the queries in flight, except the given completed one. Returns false
+        // if the search had already ended.
+        private boolean finish(Call completed) {
+            Set<Call> running;
+            synchronized (this) {
+                if (completed != null) untrack(completed);
+                if (finished) return false;
+                finished = true;
+                pending.clear();
+                running = new HashSet<>(calls);
+                calls.clear();
+            }
+            for (Call call : running) {
+                call.cancel();
+            }
+            return true;
+        }
+
+        // Fetches a captcha and hands it to the CaptchaSolver.
+        void requestCaptcha() {
+            Call call = lazyHttp.queryAsync(new CaptchaFactory(), CaptchaFactory.RESPONSE_TYPE, new LazyHttp.Callback<Captcha<byte[]>>() {
+                @Override
+                public void onResponse(Call call, Captcha<byte[]> response) {
+                    synchronized (Run.this) {
+                        untrack(call);
+                        if (finished) return;
+                    }
+                    AtomicBoolean answered = new AtomicBoolean();
+                    callbackExecutor.execute(() -> captchaSolver.solve(response.getImage(), new BatchLookup.CaptchaAnswer() {
+                        @Override
+                        public void submit(@NonNull String answer) {
+                            if (answered.compareAndSet(false, true)) {
+                                onSession(response.getSession(), answer);
+                            }
+                        }
+
+                        @Override
+                        public void abort() {
+                            if (answered.compareAndSet(false, true)) {
+                                fail(null, FailureReason.REJECTED, "Captcha aborted by the operator");
+                            }
+                        }
+                    }));
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    // Without a session no board can be queried.
+                    fail(call, FailureReason.of(e), e.getMessage());
+                }
+            });
+            track(call);
+        }
+
+        // Starts a new session and resumes the queries.
+        private void onSession(Session newSession, String answer) {
+            synchronized (this) {
+                if (finished || !awaitingCaptcha) return;
+                awaitingCaptcha = false;
+                generation++;
+                session = newSession;
+                captcha = answer;
+            }
+            dispatch();
+        }
+
+        // Starts on the next boards until the concurrency limit is reached.
+        private void dispatch() {
+            while (true) {
+                BoardType boardType;
+                Session querySession;
+                String sessionCaptcha;
+                int sessionGeneration;
+                synchronized (this) {
+                    if (finished || awaitingCaptcha || inFlight >= concurrency || pending.isEmpty()) return;
+                    boardType = pending.poll();
+                    inFlight++;
+                    querySession = session;
+                    sessionCaptcha = captcha;
+                    sessionGeneration = generation;
+                }
+                query(boardType, querySession, sessionCaptcha, sessionGeneration);
+            }
+        }
+
+        // Queries the board within the current session.
+        private void query(BoardType boardType, Session querySession, String sessionCaptcha, int sessionGeneration) {
+            ResultRequestFactory factory = queryPlans.get(boardType)
+                    .newFactory(sessionCaptcha, querySession.getCookie(), roll, registration);
+            Call call = lazyHttp.queryAsync(factory, String.class, new LazyHttp.Callback<String>() {
+                @Override
+                public void onResponse(Call call, String response) {
+                    onBoardResponse(call, boardType, sessionGeneration, response);
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    onBoardFailure(call, e);
+                }
+            });
+            track(call);
+        }
+
+        // Tracks a call to cancel it with the search, unless it already completed.
+        private void track(Call call) {
+            synchronized (this) {
+                if (finished) {
+                    call.cancel();
+                } else if (!completedCalls.remove(call)) {
+                    calls.add(call);
+                }
+            }
+        }
+
+        // Stops tracking a call, remembering it if it completed before it was tracked. Must hold the lock.
+        private void untrack(Call call) {
+            if (!calls.remove(call) && !finished) {
+                completedCalls.add(call);
+            }
+        }
+
+        private void onBoardResponse(Call call, BoardType boardType, int sessionGeneration, String response) {
+            ResultReader reader = ResultReader.of(response);
+            boolean found;
+            try {
+                found = reader.next() != null;
+            } catch (IOException e) {
+                onBoardFailure(call, e);
+                return;
+            }
+            if (found) {
+                if (!finish(call)) return;
+                priority.recordHit(boardType);
+                Match match = new Match(boardType, response);
+                callbackExecutor.execute(() -> callback.onResponse(match));
+                return;
+            }
+
+            String message = reader.getMessage();
+            if (BatchLookup.isSessionRejected(message)) {
+                // Query the board again in a new session. A rejection of an earlier session only queues the
+                // board again, to be queried in the current one.
+                boolean newCaptcha = false;
+                synchronized (this) {
+                    untrack(call);
+                    if (finished) return;
+                    inFlight--;
+                    pending.addFirst(boardType);
+                    if (sessionGeneration == generation && !awaitingCaptcha) {
+                        awaitingCaptcha = true;
+                        newCaptcha = true;
+                    }
+                }
+                if (newCaptcha) {
+                    requestCaptcha();
+                } else {
+                    dispatch();
+                }
+                return;
+            }
+            completeBoard(call);
+        }
+
+        private void onBoardFailure(Call call, IOException e) {
+            synchronized (this) {
+                lastFailure = e;
+            }
+            completeBoard(call);
+        }
+
+        // Moves on to the next board, or fails the search once every board has been queried.
+        private void completeBoard(Call call) {
+            boolean done;
+            IOException failure;
+            synchronized (this) {
+                untrack(call);
+                if (finished) return;
+                inFlight--;
+                done = inFlight == 0 && pending.isEmpty();
+                if (done) finished = true;
+                failure = lastFailure;
+            }
+            if (!done) {
+                dispatch();
+            } else if (failure != null) {
+                callbackExecutor.execute(() -> callback.onError(FailureReason.of(failure), failure.getMessage()));
+            } else {
+                callbackExecutor.execute(() -> callback.onError(FailureReason.REJECTED, "No result found on any board"));
+            }
+        }
+
+        // Ends the search with the given failure, unless it already ended.
+        private void fail(Call call, FailureReason reason, String message) {
+            if (finish(call)) {
+                callbackExecutor.execute(() -> callback.onError(reason, message));
+            }
+        }
+    }
+
+    /**
+     * Search interface lets the caller cancel a running search. A cancelled search is not reported.
+     */
+    public interface Search {
+        void cancel();
+    }
+
+    /**
+     * Match class holds the result of a student together with the board it was found on.
+     */
+    public static final class Match {
+        private final BoardType boardType;
+        private final String result;
+
+        Match(BoardType boardType, String result) {
+            this.boardType = boardType;
+            this.result = result;
+        }
+
+        @NonNull
+        public BoardType getBoardType() {
+            return boardType;
+        }
+
+        @NonNull
+        public String getResult() {
+            return result;
+        }
+    }
+
+    /**
+     * Builder class for creating a BoardSearch instance with specified parameters.
+     */
+    public static class Builder {
+        private final LazyHttp.Builder httpBuilder = new LazyHttp.Builder().baseUrl(EResult.BASE_URL);
+        private String year;
+        private ExamType examType;
+        private List<BoardType> boards = Arrays.asList(BoardType.values());
+        private int concurrency = 4;
+        private BoardPriority priority = BoardPriority.getDefault();
+        private BatchLookup.CaptchaSolver captchaSolver;
+        private Executor callbackExecutor = CallbackExecutors.getDefault();
+
+        /**
+         * Sets the academic year of the results.
+         *
+         * @param year The academic year to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setYear(@NonNull String year) {
+            this.year = year;
+            return this;
+        }
+
+        /**
+         * Sets the exam type of the results.
+         *
+         * @param examType The exam type to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setExamType(@NonNull ExamType examType) {
+            this.examType = examType;
+            return this;
+        }
+
+        /**
+         * Sets the candidate boards, in the order they are queried while the BoardPriority ranks them
+         * equally, e.g. the user's division first. Defaults to all boards.
+         *
+         * @param boards The boards to search.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setBoards(@NonNull BoardType... boards) {
+            if (boards.length == 0) {
+                throw new IllegalArgumentException("At least one board needs to be searched!");
+            }
+            this.boards = Arrays.asList(boards.clone());
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of boards queried at the same time. Defaults to 4. The queries run on the
+         * shared OkHttpClient, whose dispatcher sends at most 5 requests per host at once, further queries
+         * wait in its queue.
+         *
+         * @param concurrency The maximum number of concurrent queries.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setConcurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("Concurrency must be at least 1!");
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Sets the solver asking the user for the captcha of the session the boards are queried in, and for a
+         * new one whenever the website rejects that session.
+         *
+         * @param captchaSolver The captcha solver to use.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setCaptchaSolver(@NonNull BatchLookup.CaptchaSolver captchaSolver) {
+            this.captchaSolver = captchaSolver;
+            return this;
+        }
+
+        /**
+         * Sets the priority ordering the boards and learning from every match. Defaults to
+         * {@link BoardPriority#getDefault()}, shared by all searches of the process.
+         *
+         * @param priority The board priority to use.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setPriority(@NonNull BoardPriority priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Sets the executor the solver and callbacks are called on.
+         *
+         * @param callbackExecutor The executor to deliver callbacks on.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setCallbackExecutor(@NonNull Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Sets the base URL of the website. Defaults to https://eboardresults.com.
+         *
+         * @param baseUrl The base URL to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setBaseUrl(@NonNull String baseUrl) {
+            httpBuilder.baseUrl(baseUrl);
+            return this;
+        }
+
+        /**
+         * Sets the transport running the requests instead of the shared OkHttpClient.
+         *
+         * @param transport The transport, or null for the shared OkHttpClient.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setTransport(Transport transport) {
+            httpBuilder.transport(transport);
+            return this;
+        }
+
+        /**
+         * Sets the metrics receiving the phase timings and counters of every request.
+         *
+         * @param metrics The metrics to report to.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setMetrics(@NonNull Metrics metrics) {
+            httpBuilder.metrics(metrics);
+            return this;
+        }
+
+        /**
+         * Sets how failing requests are retried and when requests to a failing website are paused.
+         * Defaults to {@link Resilience#getDefault()}, whose retry budget is shared by all instances.
+         *
+         * @param resilience The resilience configuration, or null to neither retry nor pause requests.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setResilience(Resilience resilience) {
+            httpBuilder.resilience(resilience);
+            return this;
+        }
+
+        /**
+         * Sets the limiter adapting the number of requests in flight to the website's capacity.
+         *
+         * @param limiter The concurrency limiter to use.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setConcurrencyLimiter(@NonNull ConcurrencyLimiter limiter) {
+            httpBuilder.concurrencyLimiter(limiter);
+            return this;
+        }
+
+        /**
+         * Builds and returns a BoardSearch instance with the specified parameters.
+         *
+         * @return BoardSearch instance.
+         * @throws NullPointerException If the year, exam type or captcha solver is not set.
+         */
+        public BoardSearch build() {
+            if (year == null || examType == null || captchaSolver == null) {
+                throw new NullPointerException("Year, exam type and captcha solver need to be set for a board search!");
+            }
+            return new BoardSearch(this);
+        }
+    }
+}
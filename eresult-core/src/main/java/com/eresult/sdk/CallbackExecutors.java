@@ -0,0 +1,74 @@
+/**
+ * CallbackExecutors class provides the executors EResult delivers its callbacks on.
+ * <p>
+ * The default executor is looked up once through {@link ServiceLoader}, so platform adapters can plug in
+ * their own, e.g. the Android adapter delivers on the main thread. Without a provider on the classpath,
+ * callbacks are delivered directly on the network thread.
+ */
+package com.eresult.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+import java.util.concurrent.Executor;
+
+public final class CallbackExecutors {
+
+    private CallbackExecutors() {
+    }
+
+    /**
+     * Returns an executor running callbacks right away on the calling thread, skipping any thread hop.
+     *
+     * @return Direct executor.
+     */
+    @NonNull
+    public static Executor direct() {
+        return DirectExecutor.INSTANCE;
+    }
+
+    /**
+     * Returns the executor of the platform adapter, or the direct executor if there is none.
+     *
+     * @return Default callback executor.
+     */
+    @NonNull
+    public static Executor getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Provider interface implemented by platform adapters, registered in
+     * META-INF/services/com.eresult.sdk.CallbackExecutors$Provider.
+     */
+    public interface Provider {
+        @NonNull
+        Executor getExecutor();
+    }
+
+    /**
+     * Executor class running tasks on the calling thread.
+     */
+    private enum DirectExecutor implements Executor {
+        INSTANCE;
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+    }
+
+    /**
+     * Holder of the default executor, loaded on first use.
+     */
+    private static class DefaultHolder {
+        static final Executor INSTANCE = load();
+
+        private static Executor load() {
+            Iterator<Provider> providers =
+                    ServiceLoader.load(Provider.class, Provider.class.getClassLoader()).iterator();
+            return providers.hasNext() ? providers.next().getExecutor() : DirectExecutor.INSTANCE;
+        }
+    }
+}
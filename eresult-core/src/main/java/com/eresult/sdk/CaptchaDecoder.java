@@ -0,0 +1,26 @@
+/**
+ * CaptchaDecoder interface turns the encoded captcha image into whatever the platform renders, e.g. an
+ * Android Bitmap. It is called on a background thread before the result is delivered.
+ */
+package com.eresult.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+public interface CaptchaDecoder<T> {
+
+    /**
+     * Decoder returning the encoded image unchanged.
+     */
+    CaptchaDecoder<byte[]> BYTES = data -> data;
+
+    /**
+     * Decodes the captcha image.
+     *
+     * @param data Encoded image as received from the website.
+     * @return Decoded image.
+     * @throws IOException If the data can not be decoded.
+     */
+    T decode(@NonNull byte[] data) throws IOException;
+}
@@ -0,0 +1,403 @@
+/**
+ * CaptchaPool class keeps a number of captchas, each with the session it was issued in, fetched ahead of
+ * demand, so the captcha screen appears without waiting for the website. Set it on the EResult.Builder and
+ * every captcha request of that EResult is served from the pool while it holds one, falling back to the
+ * network otherwise.
+ * <p>
+ * A captcha is handed out once, to the one user answering it. Captchas older than the max age are evicted,
+ * which has to leave the user time to answer before the website expires the session. Taken and evicted
+ * captchas are replaced in the background, with at most the given number of requests in flight, and
+ * failed refills are retried with a growing delay.
+ */
+package com.eresult.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.Captcha;
+import com.eresult.sdk.data.query.CaptchaFactory;
+import com.eresult.sdk.data.query.http.LazyHttp;
+import com.eresult.sdk.data.query.http.Transport;
+import com.eresult.sdk.metrics.Metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+
+public class CaptchaPool implements Closeable {
+
+    // Delay of the first retry after a failed refill, doubled up to the max age on every further failure.
+    private static final long MIN_RETRY_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private final LazyHttp lazyHttp;
+    private final int size;
+    private final long maxAgeMillis;
+    private final int maxRefills;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    // Captchas ready to be handed out, oldest first. All other fields are guarded by the pool too.
+    private final ArrayDeque<Captcha<byte[]>> captchas = new ArrayDeque<>();
+    private final List<Call> refills = new ArrayList<>();
+    private int refilling;
+    private boolean started;
+    private boolean closed;
+    private long retryMillis;
+    private ScheduledFuture<?> retry;
+    private ScheduledFuture<?> sweep;
+
+    /**
+     * Private constructor for CaptchaPool.
+     *
+     * @param builder Builder instance holding the pool configuration.
+     */
+    private CaptchaPool(@NonNull Builder builder) {
+        this.lazyHttp = builder.httpBuilder.build();
+        this.size = builder.size;
+        this.maxAgeMillis = builder.maxAgeMillis;
+        this.maxRefills = builder.maxRefills;
+    }
+
+    /**
+     * Starts filling the pool in the background, e.g. when the app starts or the lookup screen is opened.
+     * Calling it again has no effect.
+     *
+     * @return This pool, for method chaining.
+     */
+    @NonNull
+    public CaptchaPool start() {
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("The captcha pool is closed!");
+            started = true;
+        }
+        refill();
+        return this;
+    }
+
+    /**
+     * Takes the oldest captcha of the pool that has not reached the max age, and starts fetching its
+     * replacement. Counts a hit if one was available and a miss otherwise.
+     *
+     * @return Captcha image as a byte array with its session, or null if the pool is empty.
+     */
+    public Captcha<byte[]> poll() {
+        Captcha<byte[]> captcha;
+        synchronized (this) {
+            evictExpired();
+            captcha = captchas.pollFirst();
+        }
+        (captcha != null ? hits : misses).incrementAndGet();
+        refill();
+        return captcha;
+    }
+
+    /**
+     * Returns the base URL of the website the captchas are fetched from. Their sessions are only valid
+     * for results requested from the same website.
+     *
+     * @return Base URL, e.g. "https://eboardresults.com/".
+     */
+    @NonNull
+    public String getBaseUrl() {
+        return lazyHttp.getBaseUrl();
+    }
+
+    /**
+     * Returns the number of captchas ready to be handed out, including any that have reached the max age
+     * but have not been evicted yet.
+     *
+     * @return Number of pooled captchas.
+     */
+    public synchronized int size() {
+        return captchas.size();
+    }
+
+    /**
+     * Returns the number of captchas handed out from the pool.
+     *
+     * @return Number of hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of times the pool was empty when a captcha was taken, so it had to be fetched.
+     *
+     * @return Number of misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of captchas dropped for reaching the max age before they were taken. A high
+     * count compared to the hits means the pool is larger than needed.
+     *
+     * @return Number of evictions.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the number of refills that failed.
+     *
+     * @return Number of failed refills.
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Stops refilling the pool, cancels the refills in flight and drops the pooled captchas.
+     */
+    @Override
+    public void close() {
+        List<Call> cancelled;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            captchas.clear();
+            if (retry != null) retry.cancel(false);
+            if (sweep != null) sweep.cancel(false);
+            cancelled = new ArrayList<>(refills);
+            refills.clear();
+        }
+        for (Call call : cancelled) {
+            call.cancel();
+        }
+    }
+
+    // Starts the refills needed to fill the pool, within the limit of refills in flight.
+    private void refill() {
+        int count;
+        synchronized (this) {
+            if (!started || closed || retry != null) return;
+            count = Math.min(size - captchas.size() - refilling, maxRefills - refilling);
+            if (count <= 0) return;
+            refilling += count;
+        }
+        for (int i = 0; i < count; i++) {
+            Refill refill = new Refill();
+            Call call = lazyHttp.queryAsync(new CaptchaFactory(), CaptchaFactory.RESPONSE_TYPE, refill);
+            synchronized (this) {
+                // The refill may already have completed, or the pool been closed meanwhile.
+                if (closed) {
+                    call.cancel();
+                } else if (!refill.done) {
+                    refill.call = call;
+                    refills.add(call);
+                }
+            }
+        }
+    }
+
+    // Drops the captchas that have reached the max age, oldest first. Called while holding the lock.
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        while (!captchas.isEmpty() && now - captchas.peekFirst().getSession().getIssuedAt() >= maxAgeMillis) {
+            captchas.pollFirst();
+            evictions.incrementAndGet();
+        }
+    }
+
+    // Schedules the eviction of the oldest captcha, so its replacement is fetched before it is asked for.
+    // Called while holding the lock.
+    private void scheduleSweep() {
+        if (sweep != null || closed || captchas.isEmpty()) return;
+        long delay = captchas.peekFirst().getSession().getIssuedAt() + maxAgeMillis - System.currentTimeMillis();
+        sweep = Scheduler.INSTANCE.schedule(this::sweep, Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+
+    private void sweep() {
+        synchronized (this) {
+            sweep = null;
+            if (closed) return;
+            evictExpired();
+            scheduleSweep();
+        }
+        refill();
+    }
+
+    private void retry() {
+        synchronized (this) {
+            retry = null;
+        }
+        refill();
+    }
+
+    /**
+     * Refill class receives one captcha fetched into the pool.
+     */
+    private class Refill implements LazyHttp.Callback<Captcha<byte[]>> {
+        // Guarded by the pool.
+        Call call;
+        boolean done;
+
+        @Override
+        public void onResponse(Call call, Captcha<byte[]> captcha) {
+            synchronized (CaptchaPool.this) {
+                complete();
+                if (closed) return;
+                retryMillis = 0;
+                if (captcha.getSession().getAgeMillis() >= maxAgeMillis) {
+                    evictions.incrementAndGet();
+                } else {
+                    captchas.addLast(captcha);
+                    scheduleSweep();
+                }
+            }
+            refill();
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            failures.incrementAndGet();
+            synchronized (CaptchaPool.this) {
+                complete();
+                if (closed || retry != null) return;
+                retryMillis = retryMillis == 0 ? MIN_RETRY_MILLIS : Math.min(maxAgeMillis, retryMillis * 2);
+                retry = Scheduler.INSTANCE.schedule(CaptchaPool.this::retry, retryMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        // Called while holding the lock of the pool.
+        private void complete() {
+            done = true;
+            refilling--;
+            if (call != null) refills.remove(call);
+        }
+    }
+
+    /**
+     * Holder of the scheduler evicting aged captchas and retrying failed refills, a single daemon thread.
+     */
+    private static class Scheduler {
+        static final ScheduledThreadPoolExecutor INSTANCE = newScheduler();
+
+        private static ScheduledThreadPoolExecutor newScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "EResult captcha pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
+    /**
+     * Builder class for creating a CaptchaPool instance with specified parameters.
+     */
+    public static class Builder {
+        private final LazyHttp.Builder httpBuilder = new LazyHttp.Builder().baseUrl(EResult.BASE_URL);
+        private int size = 2;
+        private long maxAgeMillis = TimeUnit.MINUTES.toMillis(1);
+        private int maxRefills = 2;
+
+        /**
+         * Sets the number of captchas kept ready. Defaults to 2, enough for a user requesting a new captcha
+         * after failing to read the first.
+         *
+         * @param size The number of pooled captchas.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setSize(int size) {
+            if (size < 1) {
+                throw new IllegalArgumentException("The pool size must be at least 1!");
+            }
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * Sets the age at which a pooled captcha is evicted. It has to stay below the time the website keeps
+         * a session, minus the time a user needs to answer. Defaults to 1 minute.
+         *
+         * @param maxAge The max age of a pooled captcha.
+         * @param unit   The time unit of the max age.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setMaxAge(long maxAge, @NonNull TimeUnit unit) {
+            if (maxAge <= 0) {
+                throw new IllegalArgumentException("The max age must be positive!");
+            }
+            this.maxAgeMillis = unit.toMillis(maxAge);
+            return this;
+        }
+
+        /**
+         * Sets the number of captcha requests the pool sends at once while refilling. Defaults to 2.
+         *
+         * @param maxRefills The maximum number of refills in flight.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setMaxRefills(int maxRefills) {
+            if (maxRefills < 1) {
+                throw new IllegalArgumentException("The max refills must be at least 1!");
+            }
+            this.maxRefills = maxRefills;
+            return this;
+        }
+
+        /**
+         * Sets the base URL of the website. It has to be the base URL of the EResult the pool is set on,
+         * since a session is only valid on the website that issued it.
+         *
+         * @param baseUrl The base URL to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setBaseUrl(@NonNull String baseUrl) {
+            httpBuilder.baseUrl(baseUrl);
+            return this;
+        }
+
+        /**
+         * Sets the metrics receiving the phase timings and counters of every refill.
+         *
+         * @param metrics The metrics to report to.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setMetrics(@NonNull Metrics metrics) {
+            httpBuilder.metrics(metrics);
+            return this;
+        }
+
+        /**
+         * Sets the transport running the refills instead of the shared OkHttpClient.
+         *
+         * @param transport The transport, or null for the shared OkHttpClient.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setTransport(Transport transport) {
+            httpBuilder.transport(transport);
+            return this;
+        }
+
+        /**
+         * Builds and returns a CaptchaPool instance with the specified parameters. The pool starts filling
+         * once {@link CaptchaPool#start()} is called.
+         *
+         * @return CaptchaPool instance.
+         */
+        public CaptchaPool build() {
+            return new CaptchaPool(this);
+        }
+    }
+}
@@ -0,0 +1,1207 @@
+/**
+ * EResult class is part of the eboardresults.com SDK, which allows users to request exam results
+ * and captcha images from the eboardresults.com website.
+ * <p>
+ * Created by Anindya Das on 1/17/24 6:30 AM.
+ */
+package com.eresult.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.Captcha;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultRecord;
+import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.data.Session;
+import com.eresult.sdk.data.cache.ResultCache;
+import com.eresult.sdk.data.directory.CodeDirectory;
+import com.eresult.sdk.data.directory.CodeEntry;
+import com.eresult.sdk.data.directory.CodeType;
+import com.eresult.sdk.data.query.CaptchaFactory;
+import com.eresult.sdk.data.query.QueryPlan;
+import com.eresult.sdk.data.query.ResultReader;
+import com.eresult.sdk.data.query.ResultRecordFactory;
+import com.eresult.sdk.data.query.ResultRequestFactory;
+import com.eresult.sdk.data.query.ResultStreamFactory;
+import com.eresult.sdk.data.query.http.CachingDns;
+import com.eresult.sdk.data.query.http.CallFuture;
+import com.eresult.sdk.data.query.http.ConcurrencyLimiter;
+import com.eresult.sdk.data.query.http.FailureException;
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.eresult.sdk.data.query.http.LazyHttp;
+import com.eresult.sdk.data.query.http.PrewarmResult;
+import com.eresult.sdk.data.query.http.Resilience;
+import com.eresult.sdk.data.query.http.SingleFlight;
+import com.eresult.sdk.data.query.http.Transport;
+import com.eresult.sdk.metrics.FlightRecorder;
+import com.eresult.sdk.metrics.Metrics;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+
+/**
+ * EResult class is responsible for handling result requests and captcha retrieval.
+ * It utilizes LazyHttp for making asynchronous HTTP requests.
+ * <p>
+ * The Session returned with every captcha is passed into the result request answering it, so one instance
+ * can serve any number of concurrent lookups. The methods without a Session use the session of the last
+ * captcha requested through {@link #requestCaptcha(CaptchaDecoder, ResultCallback)} or
+ * {@link #captchaAsync(CaptchaDecoder)}, and are only suited for one lookup at a time.
+ * <p>
+ * With a CaptchaPool set, every captcha method is served from the pool while it holds a captcha, without
+ * waiting for the website.
+ */
+public class EResult {
+    // Base URL of the eboardresults.com website.
+    static final String BASE_URL = "https://eboardresults.com";
+
+    // Result queries in flight, shared by all instances. Only responses holding a result are shared,
+    // a query joining one whose captcha was rejected sends its own request.
+    private static final SingleFlight<String> RESULTS_IN_FLIGHT = new SingleFlight<>(EResult::isCacheable);
+
+    private final LazyHttp lazyHttp;
+    private final ResultType resultType;
+    private final Executor callbackExecutor;
+    private final ResultCache resultCache;
+    private final String year;
+    private final String eiinCode;
+    private final ExamType examType;
+    private final String centerCode;
+    private final BoardType boardType;
+    private final String districtCode;
+    private final String registrationId;
+    private final String studentRollNumber;
+    private final QueryPlan queryPlan;
+    private final CaptchaPool captchaPool;
+    // Session of the last captcha requested without handing out its Session.
+    private volatile Session lastSession;
+
+    // Private constructor for creating a fully initialized EResult instance.
+
+    /**
+     * Constructs an instance of EResult with the specified parameters.
+     *
+     * @param year              The academic year for the result.
+     * @param resultType        The type of result (e.g., CENTER, DISTRICT, INSTITUTION, INDIVIDUAL).
+     * @param registrationId    The registration ID for the result.
+     * @param studentRollNumber The roll number of the student for individual results.
+     * @param boardType         The type of educational board (e.g., Dhaka, Chittagong, etc.).
+     * @param examType          The type of examination (e.g., SSC, HSC).
+     * @param eiinCode          The Educational Institution Identification Number (EIIN) code for institution results.
+     * @param centerCode        The examination center code for center results.
+     * @param districtCode      The district code for district results.
+     * @param lazyHttp          The LazyHttp instance used for requests.
+     * @param resultCache       The cache for result responses, or null.
+     * @param captchaPool       The pool serving captchas ahead of the network, or null.
+     * @param callbackExecutor  The executor callbacks are delivered on.
+     */
+    private EResult(
+            String year,
+            ResultType resultType,
+            String registrationId,
+            String studentRollNumber,
+            BoardType boardType,
+            ExamType examType, String eiinCode, String centerCode, String districtCode, LazyHttp lazyHttp,
+            ResultCache resultCache, CaptchaPool captchaPool, Executor callbackExecutor) {
+        this.year = year;
+        this.eiinCode = eiinCode;
+        this.examType = examType;
+        this.boardType = boardType;
+        this.resultType = resultType;
+        this.centerCode = centerCode;
+        this.districtCode = districtCode;
+        this.registrationId = registrationId;
+        this.studentRollNumber = studentRollNumber;
+        this.lazyHttp = lazyHttp;
+        this.resultCache = resultCache;
+        this.captchaPool = captchaPool;
+        this.callbackExecutor = callbackExecutor;
+        this.queryPlan = new QueryPlan(
+                lazyHttp.getBaseUrl(), boardType, year, examType, resultType, eiinCode, districtCode, centerCode);
+    }
+
+    /**
+     * Throws a NullPointerException if any of the provided objects is null.
+     *
+     * @param objects The objects to check for null values.
+     * @throws NullPointerException If any of the provided objects is null.
+     */
+    private static void throwNullPointerException(Object... objects) {
+        for (Object obj : objects) {
+            if (obj == null) {
+                throw new NullPointerException("All parameters need to be set for an individual request!");
+            }
+        }
+    }
+
+
+    /**
+     * Requests a captcha image asynchronously and decodes it with the given decoder, e.g. the
+     * CaptchaBitmapDecoder of the Android adapter. Decoding happens on the network thread, or a background
+     * thread for pooled captchas, only the decoded image is handed to the callback executor.
+     *
+     * @param decoder  Decoder turning the encoded image into the type rendered by the caller.
+     * @param callback Callback to handle the response or failure.
+     * @param <T>      Type of the decoded image.
+     */
+    public <T> void requestCaptcha(CaptchaDecoder<T> decoder, ResultCallback<T> callback) {
+        loadCaptcha(decoder, 0, rememberSession(deliverTo(callback)));
+    }
+
+    /**
+     * Requests a captcha image asynchronously together with the Session it was issued in. The session is
+     * passed into the result request answering the captcha, so concurrent lookups never share a cookie.
+     *
+     * @param decoder  Decoder turning the encoded image into the type rendered by the caller.
+     * @param callback Callback to handle the captcha or failure.
+     * @param <T>      Type of the decoded image.
+     */
+    public <T> void requestCaptchaSession(CaptchaDecoder<T> decoder, ResultCallback<Captcha<T>> callback) {
+        loadCaptcha(decoder, 0, deliverTo(callback));
+    }
+
+    /**
+     * Requests the encoded captcha image asynchronously, for callers rendering it themselves.
+     *
+     * @param callback Callback to handle the response or failure.
+     */
+    public void requestCaptchaBytes(ResultCallback<byte[]> callback) {
+        requestCaptcha(CaptchaDecoder.BYTES, callback);
+    }
+
+    /**
+     * Requests a captcha image and returns a future of the decoded image. Cancelling the returned future
+     * cancels the underlying request. On Android, CompletableFuture requires API level 24.
+     *
+     * @param decoder Decoder turning the encoded image into the type rendered by the caller.
+     * @param <T>     Type of the decoded image.
+     * @return Future completed on the callback executor.
+     */
+    public <T> CallFuture<T> captchaAsync(CaptchaDecoder<T> decoder) {
+        return captchaAsync(decoder, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Requests a captcha image with a deadline and returns a future of the decoded image. Once the deadline
+     * has passed, the request is cancelled and the future fails with an InterruptedIOException.
+     *
+     * @param decoder Decoder turning the encoded image into the type rendered by the caller.
+     * @param timeout Deadline of the request, zero for none.
+     * @param unit    Time unit of the deadline.
+     * @param <T>     Type of the decoded image.
+     * @return Future completed on the callback executor.
+     */
+    public <T> CallFuture<T> captchaAsync(CaptchaDecoder<T> decoder, long timeout, TimeUnit unit) {
+        CallFuture<T> future = new CallFuture<>();
+        Call call = loadCaptcha(decoder, unit.toMillis(timeout), rememberSession(deliverTo(future)));
+        if (call != null) future.attach(call);
+        return future;
+    }
+
+    /**
+     * Requests a captcha image and returns a future of the captcha together with the Session it was issued in.
+     *
+     * @param decoder Decoder turning the encoded image into the type rendered by the caller.
+     * @param <T>     Type of the decoded image.
+     * @return Future completed on the callback executor.
+     */
+    public <T> CallFuture<Captcha<T>> captchaSessionAsync(CaptchaDecoder<T> decoder) {
+        return captchaSessionAsync(decoder, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Requests a captcha image with a deadline and returns a future of the captcha together with the
+     * Session it was issued in.
+     *
+     * @param decoder Decoder turning the encoded image into the type rendered by the caller.
+     * @param timeout Deadline of the request, zero for none.
+     * @param unit    Time unit of the deadline.
+     * @param <T>     Type of the decoded image.
+     * @return Future completed on the callback executor.
+     */
+    public <T> CallFuture<Captcha<T>> captchaSessionAsync(CaptchaDecoder<T> decoder, long timeout, TimeUnit unit) {
+        CallFuture<Captcha<T>> future = new CallFuture<>();
+        Call call = loadCaptcha(decoder, unit.toMillis(timeout), deliverTo(future));
+        if (call != null) future.attach(call);
+        return future;
+    }
+
+    // Takes a captcha from the pool or requests it, and decodes it keeping the session it was issued in.
+    // Returns null if the captcha was taken from the pool.
+    private <T> Call loadCaptcha(
+            CaptchaDecoder<T> decoder, long timeoutMillis, LazyHttp.Callback<Captcha<T>> delivery) {
+        Captcha<byte[]> pooled = captchaPool != null ? captchaPool.poll() : null;
+        if (pooled != null) {
+            DecodeExecutor.INSTANCE.execute(() -> {
+                T image;
+                try {
+                    image = decoder.decode(pooled.getImage());
+                } catch (IOException e) {
+                    delivery.onFailure(null, e);
+                    return;
+                } catch (RuntimeException e) {
+                    delivery.onFailure(null, new FailureException(
+                            FailureReason.INVALID_RESPONSE, "Could not decode the captcha", e));
+                    return;
+                }
+                delivery.onResponse(null, new Captcha<>(image, pooled.getSession()));
+            });
+            return null;
+        }
+        return lazyHttp.queryAsync(
+                new CaptchaFactory(),
+                CaptchaFactory.RESPONSE_TYPE,
+                timeoutMillis,
+                TimeUnit.MILLISECONDS,
+                new LazyHttp.Callback<Captcha<byte[]>>() {
+                    @Override
+                    public void onResponse(Call call, Captcha<byte[]> response) {
+                        T image;
+                        try {
+                            image = decoder.decode(response.getImage());
+                        } catch (IOException e) {
+                            delivery.onFailure(call, e);
+                            return;
+                        } catch (RuntimeException e) {
+                            delivery.onFailure(call, new FailureException(
+                                    FailureReason.INVALID_RESPONSE, "Could not decode the captcha", e));
+                            return;
+                        }
+                        delivery.onResponse(call, new Captcha<>(image, response.getSession()));
+                    }
+
+                    @Override
+                    public void onFailure(Call call, IOException e) {
+                        delivery.onFailure(call, e);
+                    }
+                });
+    }
+
+    // Stores the session of a captcha for the result methods without a Session, delivering only the image.
+    private <T> LazyHttp.Callback<Captcha<T>> rememberSession(LazyHttp.Callback<T> delivery) {
+        return new LazyHttp.Callback<Captcha<T>>() {
+            @Override
+            public void onResponse(Call call, Captcha<T> captcha) {
+                lastSession = captcha.getSession();
+                delivery.onResponse(call, captcha.getImage());
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                delivery.onFailure(call, e);
+            }
+        };
+    }
+
+    /**
+     * Requests exam results asynchronously using the provided captcha, within the session of the last
+     * captcha requested.
+     * If a result cache is set and holds the result, it is delivered without any network request.
+     *
+     * @param captcha  Captcha code for result retrieval.
+     * @param callback Callback to handle the response or failure.
+     */
+    public void requestResult(String captcha, ResultCallback<String> callback) {
+        requestResult(lastSession, captcha, callback);
+    }
+
+    /**
+     * Requests exam results asynchronously using the provided captcha within the given session.
+     * If a result cache is set and holds the result, it is delivered without any network request.
+     * If an identical query is in flight, e.g. the same institution queried by another user, the request
+     * joins it and receives its result.
+     *
+     * @param session  Session the captcha was issued in.
+     * @param captcha  Captcha code for result retrieval.
+     * @param callback Callback to handle the response or failure.
+     */
+    public void requestResult(Session session, String captcha, ResultCallback<String> callback) {
+        loadResult(newResultRequestFactory(session, captcha), 0, null, deliverTo(callback));
+    }
+
+    /**
+     * Requests exam results using the provided captcha and returns a future of the response. Cancelling
+     * the returned future cancels the underlying request, unless it joined an identical query in flight.
+     * On Android, CompletableFuture requires API level 24.
+     *
+     * @param captcha Captcha code for result retrieval.
+     * @return Future completed on the callback executor.
+     */
+    public CallFuture<String> resultAsync(String captcha) {
+        return resultAsync(lastSession, captcha, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Requests exam results using the provided captcha within the given session and returns a future of
+     * the response.
+     *
+     * @param session Session the captcha was issued in.
+     * @param captcha Captcha code for result retrieval.
+     * @return Future completed on the callback executor.
+     */
+    public CallFuture<String> resultAsync(Session session, String captcha) {
+        return resultAsync(session, captcha, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Requests exam results with a deadline and returns a future of the response. Once the deadline has
+     * passed, the request is cancelled and the future fails with an InterruptedIOException.
+     *
+     * @param captcha Captcha code for result retrieval.
+     * @param timeout Deadline of the request, zero for none.
+     * @param unit    Time unit of the deadline.
+     * @return Future completed on the callback executor.
+     */
+    public CallFuture<String> resultAsync(String captcha, long timeout, TimeUnit unit) {
+        return resultAsync(lastSession, captcha, timeout, unit);
+    }
+
+    /**
+     * Requests exam results with a deadline using the provided captcha within the given session and
+     * returns a future of the response.
+     *
+     * @param session Session the captcha was issued in.
+     * @param captcha Captcha code for result retrieval.
+     * @param timeout Deadline of the request, zero for none.
+     * @param unit    Time unit of the deadline.
+     * @return Future completed on the callback executor.
+     */
+    public CallFuture<String> resultAsync(Session session, String captcha, long timeout, TimeUnit unit) {
+        CallFuture<String> future = new CallFuture<>();
+        loadResult(newResultRequestFactory(session, captcha), unit.toMillis(timeout), future, deliverTo(future));
+        return future;
+    }
+
+    /**
+     * Requests a captcha on the calling thread and returns it together with the Session it was issued in.
+     * The SDK holds no monitor while the call blocks, OkHttp itself may still wait inside synchronized
+     * blocks and pin the carrier of a virtual thread.
+     *
+     * @return Captcha image as a byte array with its session.
+     * @throws FailureException If the request fails, with the reason of the failure.
+     */
+    @NonNull
+    public Captcha<byte[]> fetchCaptcha() throws FailureException {
+        return fetchCaptcha(0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Requests a captcha on the calling thread with a deadline.
+     *
+     * @param timeout Deadline of the request, zero for none.
+     * @param unit    Time unit of the deadline.
+     * @return Captcha image as a byte array with its session.
+     * @throws FailureException If the request fails, with the reason of the failure.
+     */
+    @NonNull
+    public Captcha<byte[]> fetchCaptcha(long timeout, @NonNull TimeUnit unit) throws FailureException {
+        Captcha<byte[]> pooled = captchaPool != null ? captchaPool.poll() : null;
+        if (pooled != null) return pooled;
+        return lazyHttp.execute(new CaptchaFactory(), CaptchaFactory.RESPONSE_TYPE, timeout, unit);
+    }
+
+    /**
+     * Requests the result on the calling thread, answering a captcha of {@link #fetchCaptcha()} within its
+     * session. Results are served from and stored in the ResultCache if one is set. Unlike the asynchronous
+     * methods, identical queries in flight are not coalesced.
+     *
+     * @param session Session the captcha was issued in.
+     * @param captcha Answer to the captcha.
+     * @return Result response as sent by the website.
+     * @throws FailureException If the request fails, with the reason of the failure.
+     */
+    @NonNull
+    public String fetchResult(@NonNull Session session, @NonNull String captcha) throws FailureException {
+        return fetchResult(session, captcha, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Requests the result on the calling thread with a deadline.
+     *
+     * @param session Session the captcha was issued in.
+     * @param captcha Answer to the captcha.
+     * @param timeout Deadline of the request, zero for none.
+     * @param unit    Time unit of the deadline.
+     * @return Result response as sent by the website.
+     * @throws FailureException If the request fails, with the reason of the failure.
+     */
+    @NonNull
+    public String fetchResult(@NonNull Session session, @NonNull String captcha, long timeout, @NonNull TimeUnit unit)
+            throws FailureException {
+        ResultRequestFactory factory = newResultRequestFactory(session, captcha);
+        if (resultCache != null) {
+            String cached = resultCache.get(factory.getQueryKey());
+            if (cached != null) return cached;
+        }
+        String response = lazyHttp.execute(factory, String.class, timeout, unit);
+        if (resultCache != null && isCacheable(response)) {
+            resultCache.put(factory.getQueryKey(), response);
+        }
+        return response;
+    }
+
+    // Serves the result from the cache if possible, otherwise from the network.
+    private void loadResult(
+            ResultRequestFactory factory, long timeoutMillis, CallFuture<?> future, LazyHttp.Callback<String> delivery) {
+        if (resultCache == null) {
+            Call call = queryResult(factory, timeoutMillis, future, delivery);
+            if (future != null && call != null) future.attach(call);
+            return;
+        }
+
+        CacheExecutor.INSTANCE.execute(() -> {
+            if (future != null && future.isCancelled()) return;
+            String cached = resultCache.get(factory.getQueryKey());
+            if (cached != null) {
+                delivery.onResponse(null, cached);
+            } else {
+                Call call = queryResult(factory, timeoutMillis, future, delivery);
+                if (future != null && call != null) future.attach(call);
+            }
+        });
+    }
+
+    // Requests the result from the network, joining an identical query in flight, and stores valid results
+    // in the cache. Returns null if the query joined another one, calls it starts later are attached to the
+    // future.
+    private Call queryResult(
+            ResultRequestFactory factory, long timeoutMillis, CallFuture<?> future, LazyHttp.Callback<String> delivery) {
+        return RESULTS_IN_FLIGHT.execute(
+                lazyHttp.getBaseUrl() + '|' + factory.getQueryKey(),
+                timeoutMillis,
+                (remainingMillis, callback) -> lazyHttp.queryAsync(
+                        factory,
+                        String.class,
+                        remainingMillis,
+                        TimeUnit.MILLISECONDS,
+                        new LazyHttp.Callback<String>() {
+                            @Override
+                            public void onResponse(Call call, String response) {
+                                if (resultCache != null && isCacheable(response)) {
+                                    resultCache.put(factory.getQueryKey(), response);
+                                }
+                                callback.onResponse(call, response);
+                            }
+
+                            @Override
+                            public void onFailure(Call call, IOException e) {
+                                callback.onFailure(call, e);
+                            }
+                        }),
+                delivery,
+                future);
+    }
+
+    // Delivers network results to a ResultCallback on the callback executor.
+    private <T> LazyHttp.Callback<T> deliverTo(ResultCallback<T> callback) {
+        return new LazyHttp.Callback<T>() {
+            @Override
+            public void onResponse(Call call, T response) {
+                callbackExecutor.execute(() -> callback.onResponse(response));
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                callbackExecutor.execute(() -> callback.onError(FailureReason.of(e), e.getMessage()));
+            }
+        };
+    }
+
+    // Completes a future with network results on the callback executor.
+    private <T> LazyHttp.Callback<T> deliverTo(CallFuture<T> future) {
+        return new LazyHttp.Callback<T>() {
+            @Override
+            public void onResponse(Call call, T response) {
+                callbackExecutor.execute(() -> future.complete(response));
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                callbackExecutor.execute(() -> future.completeExceptionally(e));
+            }
+        };
+    }
+
+    /**
+     * Requests exam results asynchronously and decodes them while they are downloaded.
+     * Every student of the response is delivered to {@link RecordCallback#onRecord(ResultRecord)} as
+     * soon as it has been read, so large institution, center or district results are never held in
+     * memory as a whole.
+     * <p>
+     * Results found in the result cache are decoded from the cache. Streamed responses are not
+     * written to the cache, since that would mean buffering them.
+     *
+     * @param captcha  Captcha code for result retrieval.
+     * @param callback Callback receiving the records, the completion or the failure.
+     */
+    public void requestResultRecords(String captcha, RecordCallback callback) {
+        requestResultRecords(lastSession, captcha, callback);
+    }
+
+    /**
+     * Requests exam results asynchronously within the given session and decodes them while they are
+     * downloaded, see {@link #requestResultRecords(String, RecordCallback)}.
+     *
+     * @param session  Session the captcha was issued in.
+     * @param captcha  Captcha code for result retrieval.
+     * @param callback Callback receiving the records, the completion or the failure.
+     */
+    public void requestResultRecords(Session session, String captcha, RecordCallback callback) {
+        ResultRequestFactory factory = newResultRequestFactory(session, captcha);
+        ResultReader.Listener listener = record -> callbackExecutor.execute(() -> callback.onRecord(record));
+        if (resultCache == null) {
+            queryResultRecords(factory, listener, callback);
+            return;
+        }
+
+        CacheExecutor.INSTANCE.execute(() -> {
+            String cached = resultCache.get(factory.getQueryKey());
+            if (cached == null) {
+                queryResultRecords(factory, listener, callback);
+                return;
+            }
+            try {
+                int count = ResultReader.of(cached).readAll(listener);
+                callbackExecutor.execute(() -> callback.onComplete(count));
+            } catch (IOException e) {
+                callbackExecutor.execute(() -> callback.onError(FailureReason.of(e), e.getMessage()));
+            }
+        });
+    }
+
+    // Requests the result from the network and streams its records to the listener.
+    private void queryResultRecords(
+            ResultRequestFactory factory, ResultReader.Listener listener, RecordCallback callback) {
+        lazyHttp.queryAsync(
+                new ResultRecordFactory(factory, listener),
+                Integer.class,
+                new LazyHttp.Callback<Integer>() {
+                    @Override
+                    public void onResponse(Call call, Integer count) {
+                        callbackExecutor.execute(() -> callback.onComplete(count));
+                    }
+
+                    @Override
+                    public void onFailure(Call call, IOException e) {
+                        callbackExecutor.execute(() -> callback.onError(FailureReason.of(e), e.getMessage()));
+                    }
+                });
+    }
+
+    /**
+     * Requests exam results within the given session and returns a future of a ResultReader on the open
+     * response, so the records are pulled at the caller's pace: the body is only read from the socket as
+     * far as {@link ResultReader#next()} is called. The caller has to close the reader. Cancelling the
+     * future cancels the request, to abort a reader already handed over cancel its call, see
+     * {@link CallFuture#getCall()}.
+     * <p>
+     * Results found in the result cache are read from the cache, the future then has no call. The future
+     * is completed on the network thread, not on the callback executor. On Android, CompletableFuture
+     * requires API level 24.
+     *
+     * @param session Session the captcha was issued in.
+     * @param captcha Captcha code for result retrieval.
+     * @return Future of the reader.
+     */
+    public CallFuture<ResultReader> resultReaderAsync(Session session, String captcha) {
+        ResultRequestFactory factory = newResultRequestFactory(session, captcha);
+        CallFuture<ResultReader> future = new CallFuture<>();
+        if (resultCache == null) {
+            queryResultReader(factory, future);
+            return future;
+        }
+
+        CacheExecutor.INSTANCE.execute(() -> {
+            String cached = resultCache.get(factory.getQueryKey());
+            if (cached == null) {
+                queryResultReader(factory, future);
+            } else {
+                future.complete(ResultReader.of(cached));
+            }
+        });
+        return future;
+    }
+
+    // Requests the result from the network and completes the future with a reader on the open response.
+    private void queryResultReader(ResultRequestFactory factory, CallFuture<ResultReader> future) {
+        future.attach(lazyHttp.queryAsync(
+                new ResultStreamFactory(factory),
+                ResultReader.class,
+                new LazyHttp.Callback<ResultReader>() {
+                    @Override
+                    public void onResponse(Call call, ResultReader reader) {
+                        if (!future.complete(reader)) {
+                            // Cancelled while the response arrived, nobody is going to read it.
+                            try {
+                                reader.close();
+                            } catch (IOException ignored) {
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call call, IOException e) {
+                        future.completeExceptionally(e);
+                    }
+                }));
+    }
+
+    /**
+     * Prepares the shared HTTP client ahead of a wave of lookups, e.g. a few minutes before results are
+     * published: eboardresults.com is resolved into the DNS cache and up to the given number of connections
+     * is opened and left idle in the shared pool, so the first captcha and result requests start on warm
+     * connections. Over HTTP/2 a single connection is opened, since requests share it. The result tells
+     * how many connections were warmed and whether the website is reachable.
+     *
+     * @param connections Number of connections to open, zero to only resolve the host name. Capped by the
+     *                    connection pool size and the max requests per host.
+     * @param callback    Callback receiving the outcome or the failure.
+     */
+    public void prewarm(int connections, ResultCallback<PrewarmResult> callback) {
+        lazyHttp.prewarm(connections, deliverTo(callback));
+    }
+
+    /**
+     * Prepares the shared HTTP client like {@link #prewarm(int, ResultCallback)} and returns a future of the
+     * outcome. On Android, CompletableFuture requires API level 24.
+     *
+     * @param connections Number of connections to open, zero to only resolve the host name.
+     * @return Future completed on the callback executor.
+     */
+    public CompletableFuture<PrewarmResult> prewarmAsync(int connections) {
+        CallFuture<PrewarmResult> future = new CallFuture<>();
+        lazyHttp.prewarm(connections, deliverTo(future));
+        return future;
+    }
+
+    /**
+     * Returns the result cache of this instance.
+     *
+     * @return ResultCache instance, or null if results are not cached.
+     */
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Returns the query plan compiled from this instance's configuration. Every result request of this
+     * instance executes it, and it can be reused to query other students with the same parameters.
+     *
+     * @return QueryPlan instance.
+     */
+    public QueryPlan getQueryPlan() {
+        return queryPlan;
+    }
+
+    // Creates the factory for a result request answering the given captcha within its session.
+    private ResultRequestFactory newResultRequestFactory(Session session, String captcha) {
+        if (session == null) {
+            throw new NullPointerException("A captcha needs to be requested before the result!");
+        }
+        return queryPlan.newFactory(captcha, session.getCookie(), studentRollNumber, registrationId);
+    }
+
+    /**
+     * Returns whether a response holds at least one result, so rejected requests are never cached.
+     *
+     * @param response Response body.
+     * @return True if the response can be cached.
+     */
+    private static boolean isCacheable(String response) {
+        try {
+            return ResultReader.of(response).next() != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Callback interface for handling asynchronous responses or failures.
+     *
+     * @param <T> Type of the response data.
+     */
+    public interface ResultCallback<T> {
+        void onResponse(T result);
+
+        void onFailure(String result);
+
+        /**
+         * Called instead of onFailure with the reason of the failure. Delegates to onFailure by default.
+         *
+         * @param reason  Reason of the failure.
+         * @param message Message describing the failure.
+         */
+        default void onError(FailureReason reason, String message) {
+            onFailure(message);
+        }
+    }
+
+    /**
+     * Callback interface for receiving decoded result records one by one.
+     */
+    public interface RecordCallback {
+        void onRecord(ResultRecord record);
+
+        void onComplete(int count);
+
+        void onFailure(String result);
+
+        /**
+         * Called instead of onFailure with the reason of the failure. Delegates to onFailure by default.
+         *
+         * @param reason  Reason of the failure.
+         * @param message Message describing the failure.
+         */
+        default void onError(FailureReason reason, String message) {
+            onFailure(message);
+        }
+    }
+
+    /**
+     * Builder class for creating an EResult instance with specified parameters.
+     */
+    public static class Builder {
+        private String year;
+        private String eiinCode;
+        private ResultType type;
+        private ExamType examType;
+        private String centerCode;
+        private String districtCode;
+        private BoardType boardType;
+        private String registrationId;
+        private String studentRollNumber;
+        private final LazyHttp.Builder httpBuilder = new LazyHttp.Builder().baseUrl(BASE_URL);
+        private ResultCache resultCache;
+        private CaptchaPool captchaPool;
+        private CodeDirectory codeDirectory;
+        private Executor callbackExecutor = CallbackExecutors.getDefault();
+
+        // Setter methods for Builder parameters.
+
+        /**
+         * Sets the academic year for the result.
+         *
+         * @param year The academic year to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setYear(@NonNull String year) {
+            this.year = year;
+            return this;
+        }
+
+        /**
+         * Sets the Educational Institution Identification Number (EIIN) code.
+         *
+         * @param eiinCode The EIIN code to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setEiinCode(@NonNull String eiinCode) {
+            this.eiinCode = eiinCode;
+            return this;
+        }
+
+        /**
+         * Sets the examination center code.
+         *
+         * @param centerCode The center code to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setCenterCode(@NonNull String centerCode) {
+            this.centerCode = centerCode;
+            return this;
+        }
+
+        /**
+         * Sets the district code for the result.
+         *
+         * @param districtCode The district code to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setDistrictCode(@NonNull String districtCode) {
+            this.districtCode = districtCode;
+            return this;
+        }
+
+        /**
+         * Sets the result type for the result.
+         *
+         * @param type The result type to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setResultType(@NonNull ResultType type) {
+            this.type = type;
+            return this;
+        }
+
+        /**
+         * Sets the exam type for the result.
+         *
+         * @param examType The exam type to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setExamType(@NonNull ExamType examType) {
+            this.examType = examType;
+            return this;
+        }
+
+        /**
+         * Sets the board type for the result.
+         *
+         * @param boardType The board type to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setBoardType(@NonNull BoardType boardType) {
+            this.boardType = boardType;
+            return this;
+        }
+
+
+        /**
+         * Sets the registration ID for the result.
+         *
+         * @param registrationId The registration ID to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setRegistrationId(@NonNull String registrationId) {
+            this.registrationId = registrationId;
+            return this;
+        }
+
+        /**
+         * Sets the student roll number for the result.
+         *
+         * @param studentRollNumber The student roll number to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setStudentRollNumber(@NonNull String studentRollNumber) {
+            this.studentRollNumber = studentRollNumber;
+            return this;
+        }
+
+        /**
+         * Sets the executor callbacks are delivered on. Defaults to the executor of the platform adapter,
+         * the main thread on Android, or {@link CallbackExecutors#direct()} on a plain JVM.
+         *
+         * @param callbackExecutor The executor to deliver callbacks on.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setCallbackExecutor(@NonNull Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Sets the cache used to serve repeated result requests locally, e.g. a TieredResultCache.
+         *
+         * @param resultCache The result cache to use.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setResultCache(@NonNull ResultCache resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
+        /**
+         * Sets the directory the district, center and EIIN codes are validated against when the instance
+         * is built, e.g. from {@link com.eresult.sdk.data.directory.CodeDirectories#get(BoardType)}, so a
+         * wrong code fails right away instead of after a captcha and result round trip.
+         *
+         * @param codeDirectory The code directory of the board.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setCodeDirectory(@NonNull CodeDirectory codeDirectory) {
+            this.codeDirectory = codeDirectory;
+            return this;
+        }
+
+        /**
+         * Sets the pool serving captchas fetched ahead of demand. It can be shared by instances with the same
+         * base URL, and has to be started to fill. Building fails if the pool fetches from another base URL,
+         * since its sessions would not be valid on this one.
+         *
+         * @param captchaPool The captcha pool to use.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setCaptchaPool(@NonNull CaptchaPool captchaPool) {
+            this.captchaPool = captchaPool;
+            return this;
+        }
+
+        /**
+         * Sets the base URL of the website. Defaults to https://eboardresults.com, set it to query a local
+         * stand-in server, e.g. in load tests.
+         *
+         * @param baseUrl The base URL to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setBaseUrl(@NonNull String baseUrl) {
+            httpBuilder.baseUrl(baseUrl);
+            return this;
+        }
+
+        /**
+         * Sets the size and keep-alive of the shared connection pool.
+         *
+         * @param maxIdleConnections Maximum number of idle connections kept in the pool.
+         * @param keepAliveDuration  How long an idle connection is kept before it is evicted.
+         * @param unit               Time unit of the keep-alive duration.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setConnectionPool(int maxIdleConnections, long keepAliveDuration, @NonNull TimeUnit unit) {
+            httpBuilder.connectionPool(maxIdleConnections, keepAliveDuration, unit);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent requests of the shared dispatcher.
+         *
+         * @param maxRequests The maximum number of concurrent requests.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setMaxRequests(int maxRequests) {
+            httpBuilder.maxRequests(maxRequests);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent requests per host of the shared dispatcher.
+         *
+         * @param maxRequestsPerHost The maximum number of concurrent requests per host.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setMaxRequestsPerHost(int maxRequestsPerHost) {
+            httpBuilder.maxRequestsPerHost(maxRequestsPerHost);
+            return this;
+        }
+
+        /**
+         * Sets the connect, read and write timeouts of the requests.
+         *
+         * @param connectTimeout The connect timeout.
+         * @param readTimeout    The read timeout.
+         * @param writeTimeout   The write timeout.
+         * @param unit           The time unit of the timeouts.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setTimeouts(long connectTimeout, long readTimeout, long writeTimeout, @NonNull TimeUnit unit) {
+            httpBuilder.connectTimeout(connectTimeout, unit).readTimeout(readTimeout, unit).writeTimeout(writeTimeout, unit);
+            return this;
+        }
+
+        /**
+         * Sets the timeout of a complete request, including connecting and reading the response.
+         *
+         * @param callTimeout The call timeout, zero for none.
+         * @param unit        The time unit of the timeout.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setCallTimeout(long callTimeout, @NonNull TimeUnit unit) {
+            httpBuilder.callTimeout(callTimeout, unit);
+            return this;
+        }
+
+        /**
+         * Sets the metrics receiving the phase timings and counters of every request, e.g. a HistogramMetrics
+         * or a bridge into a monitoring system.
+         *
+         * @param metrics The metrics to report to.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setMetrics(@NonNull Metrics metrics) {
+            httpBuilder.metrics(metrics);
+            return this;
+        }
+
+        /**
+         * Sets the recorder keeping the last exchanges with the website, to dump when a lookup was slow or
+         * failed. Defaults to {@link FlightRecorder#getDefault()}, shared by all instances.
+         *
+         * @param recorder The flight recorder, or null to record nothing.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setFlightRecorder(FlightRecorder recorder) {
+            httpBuilder.flightRecorder(recorder);
+            return this;
+        }
+
+        /**
+         * Sets how failing requests are retried and when requests to a failing website are paused.
+         * Defaults to {@link Resilience#getDefault()}, whose retry budget is shared by all instances.
+         *
+         * @param resilience The resilience configuration, or null to neither retry nor pause requests.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setResilience(Resilience resilience) {
+            httpBuilder.resilience(resilience);
+            return this;
+        }
+
+        /**
+         * Sets the limiter adapting the number of requests in flight to the website's capacity. Share one
+         * limiter between all instances, and raise the max requests per host to its highest limit.
+         *
+         * @param limiter The concurrency limiter to use.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setConcurrencyLimiter(@NonNull ConcurrencyLimiter limiter) {
+            httpBuilder.concurrencyLimiter(limiter);
+            return this;
+        }
+
+        /**
+         * Sets the cache of host name lookups, e.g. a CachingDns with a longer time to live. Defaults to
+         * {@link CachingDns#getDefault()}, keeping addresses for 5 minutes.
+         *
+         * @param dnsCache The DNS cache, or null to resolve every new connection with the system resolver.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setDnsCache(CachingDns dnsCache) {
+            httpBuilder.dnsCache(dnsCache);
+            return this;
+        }
+
+        /**
+         * Sets the transport running the requests instead of the shared OkHttpClient, e.g. the JDK HttpClient
+         * transport of the eresult-jvm module or an InMemoryTransport in tests. The connection pool, timeout,
+         * metrics, flight recorder, resilience and DNS cache settings only apply to the shared OkHttpClient.
+         *
+         * @param transport The transport, or null for the shared OkHttpClient.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setTransport(Transport transport) {
+            httpBuilder.transport(transport);
+            return this;
+        }
+
+        /**
+         * Builds and returns an EResult instance with the specified parameters.
+         *
+         * @return Fully initialized EResult instance.
+         * @throws NullPointerException or NullPointerException if any required parameter is null or Illegal.
+         * @throws IllegalArgumentException If a code is missing from the code directory, or the captcha pool
+         *                                  fetches from another base URL.
+         */
+        public EResult build() throws IllegalAccessException {
+            if (type == null)
+                throw new IllegalAccessException("You can not access results without setting its type!");
+
+            if (type == ResultType.BOARD)
+                throw new IllegalAccessException("Board based results is not available yet!");
+
+            if (type == ResultType.CENTER) {
+                throwNullPointerException(year, centerCode, districtCode, examType, boardType);
+            }
+
+            if (type == ResultType.DISTRICT) {
+                throwNullPointerException(year, districtCode, examType, boardType);
+            }
+
+            if (type == ResultType.INSTITUTION) {
+                throwNullPointerException(year, examType, boardType, eiinCode);
+            }
+
+            if (type == ResultType.INDIVIDUAL) {
+                throwNullPointerException(year, studentRollNumber, registrationId, examType, boardType);
+            }
+
+            if (codeDirectory != null) {
+                validateCodes();
+            }
+
+            LazyHttp lazyHttp = httpBuilder.build();
+            if (captchaPool != null && !captchaPool.getBaseUrl().equals(lazyHttp.getBaseUrl())) {
+                throw new IllegalArgumentException("The captcha pool fetches from " + captchaPool.getBaseUrl()
+                        + ", not " + lazyHttp.getBaseUrl() + "!");
+            }
+
+            return new EResult(year, type, registrationId, studentRollNumber, boardType, examType, eiinCode, centerCode, districtCode, lazyHttp,
+                    resultCache, captchaPool, callbackExecutor);
+        }
+
+        // Checks the codes of the result type against the code directory of the board.
+        private void validateCodes() {
+            if (codeDirectory.getBoardType() != boardType) {
+                throw new IllegalArgumentException("The code directory belongs to the "
+                        + codeDirectory.getBoardType() + " board, not " + boardType + "!");
+            }
+            if (type == ResultType.DISTRICT || type == ResultType.CENTER) {
+                validateCode(CodeType.DISTRICT, districtCode);
+            }
+            if (type == ResultType.CENTER) {
+                CodeEntry center = validateCode(CodeType.CENTER, centerCode);
+                if (center.getParentCode() != null && !center.getParentCode().equals(districtCode)) {
+                    throw new IllegalArgumentException("The center " + centerCode + " belongs to the district "
+                            + center.getParentCode() + ", not " + districtCode + "!");
+                }
+            }
+            if (type == ResultType.INSTITUTION) {
+                validateCode(CodeType.INSTITUTION, eiinCode);
+            }
+        }
+
+        private CodeEntry validateCode(CodeType codeType, String code) {
+            CodeEntry entry = codeDirectory.find(codeType, code);
+            if (entry == null) {
+                throw new IllegalArgumentException("Unknown " + codeType.name().toLowerCase(Locale.ROOT)
+                        + " code " + code + " on the " + boardType + " board!");
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Holder of the executor running cache lookups, which may read from disk.
+     */
+    private static class CacheExecutor {
+        static final ExecutorService INSTANCE = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EResult cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Holder of the executor decoding pooled captchas, apart from the cache so a slow disk read can not
+     * delay the first paint of a captcha.
+     */
+    private static class DecodeExecutor {
+        static final ExecutorService INSTANCE = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EResult captcha decode");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
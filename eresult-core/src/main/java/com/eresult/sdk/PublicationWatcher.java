@@ -0,0 +1,452 @@
+/**
+ * PublicationWatcher class notifies listeners once the results of an exam, year and board are published,
+ * so users do not have to keep requesting captchas and results to find out. A page of the website is
+ * probed with conditional requests: while it is unchanged the server answers 304 without a body, and the
+ * probes back off from the min to the max poll interval. The page as first probed is the baseline, once
+ * it changes the Detector decides whether the results are live. Start watching before the publication,
+ * a page that already lists the results is not reported until it changes again.
+ * <p>
+ * All watchers of the same exam, year, board and page share a single probe, whatever the number of
+ * listeners, and the probe stops when the last listener is removed. The first watcher's Detector and
+ * poll intervals are used by the shared probe. Once published, later listeners are notified right away.
+ */
+package com.eresult.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.PublicationProbe;
+import com.eresult.sdk.data.query.PublicationProbeFactory;
+import com.eresult.sdk.data.query.http.LazyHttp;
+import com.eresult.sdk.metrics.Metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+
+public class PublicationWatcher {
+
+    // Probes shared by all watchers, keyed by base URL, page, exam, year and board.
+    private static final ConcurrentMap<String, Probe> PROBES = new ConcurrentHashMap<>();
+
+    private final String key;
+    private final LazyHttp lazyHttp;
+    private final String probePath;
+    private final Detector detector;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final Executor callbackExecutor;
+
+    /**
+     * Private constructor for PublicationWatcher.
+     *
+     * @param builder Builder instance holding the watched results.
+     */
+    private PublicationWatcher(@NonNull Builder builder) {
+        this.lazyHttp = builder.httpBuilder.build();
+        this.probePath = builder.probePath;
+        this.detector = builder.detector != null ? builder.detector : defaultDetector(builder.examType, builder.year);
+        this.minIntervalMillis = builder.minIntervalMillis;
+        this.maxIntervalMillis = builder.maxIntervalMillis;
+        this.callbackExecutor = builder.callbackExecutor;
+        this.key = lazyHttp.getBaseUrl() + '|' + probePath + '|' + builder.examType + '|' + builder.year + '|'
+                + builder.boardType;
+    }
+
+    /**
+     * Adds a listener notified once the results are published. The first listener of the watched results
+     * starts the shared probe.
+     *
+     * @param listener Listener to notify.
+     * @return Subscription removing the listener.
+     */
+    @NonNull
+    public Subscription watch(@NonNull Listener listener) {
+        while (true) {
+            Probe probe = PROBES.get(key);
+            if (probe == null) {
+                Probe created = new Probe(this);
+                probe = PROBES.putIfAbsent(key, created);
+                if (probe == null) probe = created;
+            }
+            Subscription subscription = probe.subscribe(listener, callbackExecutor);
+            if (subscription != null) return subscription;
+            // The probe stopped after its last listener left, replace it.
+            PROBES.remove(key, probe);
+        }
+    }
+
+    /**
+     * Returns whether the results have been found published by a probe of this process.
+     *
+     * @return True once published.
+     */
+    public boolean isPublished() {
+        Probe probe = PROBES.get(key);
+        return probe != null && probe.isPublished();
+    }
+
+    // Looks for the exam name and the year on the probed page.
+    private static Detector defaultDetector(ExamType examType, String year) {
+        String exam = examType.name().toLowerCase(Locale.ROOT);
+        return body -> {
+            String lower = body.toLowerCase(Locale.ROOT);
+            return lower.contains(exam) && lower.contains(year);
+        };
+    }
+
+    /**
+     * Subscription interface removing a listener from the watcher.
+     */
+    public interface Subscription {
+        void cancel();
+    }
+
+    /**
+     * Listener interface notified once the results are published, on the callback executor.
+     */
+    public interface Listener {
+        void onPublished();
+    }
+
+    /**
+     * Detector interface deciding from the content of the probed page whether the results are published.
+     * It is only asked when the page changed from the one seen by the first probe.
+     */
+    public interface Detector {
+        boolean isPublished(@NonNull String body);
+    }
+
+    /**
+     * Probe class polls the page for all watchers of the same results. Its state is guarded by itself.
+     */
+    private static class Probe implements LazyHttp.Callback<PublicationProbe> {
+        private final String key;
+        private final LazyHttp lazyHttp;
+        private final String probePath;
+        private final Detector detector;
+        private final long minIntervalMillis;
+        private final long maxIntervalMillis;
+        private final Random random = new Random();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+
+        private boolean published;
+        private boolean closed;
+        private long intervalMillis;
+        private ScheduledFuture<?> next;
+        private Call call;
+        private String etag;
+        private String lastModified;
+        private boolean hasBody;
+        private int bodyHash;
+
+        Probe(PublicationWatcher watcher) {
+            this.key = watcher.key;
+            this.lazyHttp = watcher.lazyHttp;
+            this.probePath = watcher.probePath;
+            this.detector = watcher.detector;
+            this.minIntervalMillis = watcher.minIntervalMillis;
+            this.maxIntervalMillis = watcher.maxIntervalMillis;
+            this.intervalMillis = minIntervalMillis;
+        }
+
+        // Returns null if the probe has stopped and has to be replaced.
+        Subscription subscribe(Listener listener, Executor executor) {
+            Subscriber subscriber = new Subscriber(this, listener, executor);
+            synchronized (this) {
+                if (closed) return null;
+                if (!published) {
+                    subscribers.add(subscriber);
+                    if (subscribers.size() == 1 && next == null && call == null) schedule(0);
+                    return subscriber;
+                }
+            }
+            subscriber.notifyPublished();
+            return subscriber;
+        }
+
+        void unsubscribe(Subscriber subscriber) {
+            Call running;
+            synchronized (this) {
+                if (!subscribers.remove(subscriber) || !subscribers.isEmpty() || published) return;
+                closed = true;
+                if (next != null) next.cancel(false);
+                running = call;
+            }
+            PROBES.remove(key, this);
+            if (running != null) running.cancel();
+        }
+
+        synchronized boolean isPublished() {
+            return published;
+        }
+
+        // Sends the next probe, called on the scheduler.
+        private void probe() {
+            PublicationProbeFactory factory;
+            synchronized (this) {
+                next = null;
+                if (closed || published) return;
+                factory = new PublicationProbeFactory(probePath, etag, lastModified);
+            }
+            Call started = lazyHttp.queryAsync(factory, PublicationProbe.class, this);
+            synchronized (this) {
+                // The response may already have been handled, which clears the call and schedules the next probe.
+                if (next == null && !published) call = started;
+                if (closed) started.cancel();
+            }
+        }
+
+        @Override
+        public void onResponse(Call call, PublicationProbe probe) {
+            boolean modified = probe.isModified();
+            int hash = modified ? probe.getBody().hashCode() : 0;
+            boolean changed;
+            synchronized (this) {
+                // The first body is the baseline, it may mention the exam and year without any results.
+                changed = modified && hasBody && hash != bodyHash;
+            }
+            boolean live = changed && detector.isPublished(probe.getBody());
+            List<Subscriber> notified;
+            synchronized (this) {
+                this.call = null;
+                if (closed) return;
+                if (live) {
+                    published = true;
+                    notified = new ArrayList<>(subscribers);
+                    subscribers.clear();
+                } else {
+                    notified = null;
+                    if (changed) {
+                        // The page is being updated, the publication may follow shortly.
+                        intervalMillis = minIntervalMillis;
+                    } else {
+                        backOff();
+                    }
+                    if (modified) {
+                        hasBody = true;
+                        bodyHash = hash;
+                    }
+                    etag = probe.getEtag();
+                    lastModified = probe.getLastModified();
+                    schedule(jitter(intervalMillis));
+                }
+            }
+            if (notified != null) {
+                for (Subscriber subscriber : notified) {
+                    subscriber.notifyPublished();
+                }
+            }
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            synchronized (this) {
+                this.call = null;
+                if (closed) return;
+                backOff();
+                schedule(jitter(intervalMillis));
+            }
+        }
+
+        private void backOff() {
+            intervalMillis = Math.min(maxIntervalMillis, intervalMillis * 2);
+        }
+
+        // Spreads the probes of many devices, between half and the whole interval.
+        private long jitter(long interval) {
+            long half = interval / 2;
+            return half + (long) (random.nextDouble() * (interval - half));
+        }
+
+        private void schedule(long delayMillis) {
+            next = Scheduler.INSTANCE.schedule(this::probe, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Subscriber class delivers the publication to one listener.
+     */
+    private static class Subscriber implements Subscription {
+        private final Probe probe;
+        private final Listener listener;
+        private final Executor executor;
+
+        Subscriber(Probe probe, Listener listener, Executor executor) {
+            this.probe = probe;
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        void notifyPublished() {
+            executor.execute(listener::onPublished);
+        }
+
+        @Override
+        public void cancel() {
+            probe.unsubscribe(this);
+        }
+    }
+
+    /**
+     * Holder of the scheduler timing the probes, a single daemon thread.
+     */
+    private static class Scheduler {
+        static final ScheduledThreadPoolExecutor INSTANCE = newScheduler();
+
+        private static ScheduledThreadPoolExecutor newScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "EResult publication watcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
+    /**
+     * Builder class for creating a PublicationWatcher instance with specified parameters.
+     */
+    public static class Builder {
+        // Probes back off instead of retrying, so requests are never retried.
+        private final LazyHttp.Builder httpBuilder = new LazyHttp.Builder().baseUrl(EResult.BASE_URL).resilience(null);
+        private String year;
+        private ExamType examType;
+        private BoardType boardType;
+        private String probePath = "/";
+        private Detector detector;
+        private long minIntervalMillis = TimeUnit.SECONDS.toMillis(30);
+        private long maxIntervalMillis = TimeUnit.MINUTES.toMillis(10);
+        private Executor callbackExecutor = CallbackExecutors.getDefault();
+
+        /**
+         * Sets the academic year of the results.
+         *
+         * @param year The academic year to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setYear(@NonNull String year) {
+            this.year = year;
+            return this;
+        }
+
+        /**
+         * Sets the exam type of the results.
+         *
+         * @param examType The exam type to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setExamType(@NonNull ExamType examType) {
+            this.examType = examType;
+            return this;
+        }
+
+        /**
+         * Sets the board type of the results.
+         *
+         * @param boardType The board type to set.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setBoardType(@NonNull BoardType boardType) {
+            this.boardType = boardType;
+            return this;
+        }
+
+        /**
+         * Sets the path of the probed page. Defaults to the home page.
+         *
+         * @param probePath The path of the page, e.g. "/".
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setProbePath(@NonNull String probePath) {
+            this.probePath = probePath;
+            return this;
+        }
+
+        /**
+         * Sets the detector deciding whether the results are published from the content of the page.
+         * Defaults to finding both the exam name and the year on the page.
+         *
+         * @param detector The detector to use.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setDetector(@NonNull Detector detector) {
+            this.detector = detector;
+            return this;
+        }
+
+        /**
+         * Sets the interval between probes. It starts at the min and doubles up to the max while the page is
+         * unchanged or the website fails, and each probe is sent between half and the whole interval later.
+         * Defaults to 30 seconds up to 10 minutes.
+         *
+         * @param min  Interval of the first probes and after the page changed.
+         * @param max  Longest interval.
+         * @param unit Time unit of the intervals.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setPollInterval(long min, long max, @NonNull TimeUnit unit) {
+            if (min <= 0 || max < min) {
+                throw new IllegalArgumentException("The poll interval must be positive and min must not exceed max!");
+            }
+            this.minIntervalMillis = unit.toMillis(min);
+            this.maxIntervalMillis = unit.toMillis(max);
+            return this;
+        }
+
+        /**
+         * Sets the executor the listeners are notified on.
+         *
+         * @param callbackExecutor The executor to deliver callbacks on.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setCallbackExecutor(@NonNull Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Sets the metrics receiving the phase timings and counters of every probe.
+         *
+         * @param metrics The metrics to report to.
+         * @return The Builder instance for method chaining.
+         */
+        @NonNull
+        public Builder setMetrics(@NonNull Metrics metrics) {
+            httpBuilder.metrics(metrics);
+            return this;
+        }
+
+        /**
+         * Builds and returns a PublicationWatcher instance with the specified parameters.
+         *
+         * @return PublicationWatcher instance.
+         * @throws NullPointerException If the year, exam type or board type is not set.
+         */
+        public PublicationWatcher build() {
+            if (year == null || examType == null || boardType == null) {
+                throw new NullPointerException("Year, exam type and board type need to be set to watch a publication!");
+            }
+            return new PublicationWatcher(this);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.eresult.sdk.data;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Captcha holds a captcha image together with the session it was issued in. The answer to the captcha
+ * has to be sent within that session.
+ *
+ * @param <T> Type of the image, e.g. byte[] or an Android Bitmap.
+ */
+public final class Captcha<T> {
+    private final T image;
+    private final Session session;
+
+    /**
+     * Constructor for Captcha.
+     *
+     * @param image   Captcha image.
+     * @param session Session the captcha was issued in.
+     */
+    public Captcha(@NonNull T image, @NonNull Session session) {
+        this.image = image;
+        this.session = session;
+    }
+
+    @NonNull
+    public T getImage() {
+        return image;
+    }
+
+    @NonNull
+    public Session getSession() {
+        return session;
+    }
+}
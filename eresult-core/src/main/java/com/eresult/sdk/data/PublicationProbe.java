@@ -0,0 +1,63 @@
+package com.eresult.sdk.data;
+
+import androidx.annotation.NonNull;
+
+/**
+ * PublicationProbe holds the answer to a conditional request of the page watched for a publication:
+ * either the page was not modified since the last probe, or its new content with the validators to
+ * send with the next probe.
+ */
+public final class PublicationProbe {
+    private final boolean modified;
+    private final String etag;
+    private final String lastModified;
+    private final String body;
+
+    /**
+     * Constructor for PublicationProbe.
+     *
+     * @param modified     Whether the page changed since the validators sent with the probe.
+     * @param etag         ETag of the page, or null if the server sends none.
+     * @param lastModified Last-Modified date of the page, or null if the server sends none.
+     * @param body         Content of the page, or null if it was not modified.
+     */
+    public PublicationProbe(boolean modified, String etag, String lastModified, String body) {
+        this.modified = modified;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.body = body;
+    }
+
+    /**
+     * Returns a probe answered with 304 Not Modified, which keeps the validators it was sent with.
+     *
+     * @param etag         ETag sent with the probe.
+     * @param lastModified Last-Modified date sent with the probe.
+     * @return Unmodified probe.
+     */
+    @NonNull
+    public static PublicationProbe notModified(String etag, String lastModified) {
+        return new PublicationProbe(false, etag, lastModified, null);
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return "PublicationProbe{modified=" + modified + ", etag=" + etag + ", lastModified=" + lastModified + "}";
+    }
+}
@@ -0,0 +1,251 @@
+package com.eresult.sdk.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ResultRecord represents the result of a single student as returned by the eboardresults.com website.
+ * Records are created by the streaming result parser, one per student of the response.
+ */
+public class ResultRecord {
+    private final String roll;
+    private final String registration;
+    private final String name;
+    private final String fatherName;
+    private final String motherName;
+    private final String dateOfBirth;
+    private final String gender;
+    private final String group;
+    private final String institution;
+    private final String eiin;
+    private final String board;
+    private final String gpa;
+    private final String result;
+    private final List<SubjectGrade> subjects;
+    private final Map<String, String> extras;
+
+    // Private constructor, records are created through the Builder.
+    private ResultRecord(Builder builder) {
+        this.roll = builder.roll;
+        this.registration = builder.registration;
+        this.name = builder.name;
+        this.fatherName = builder.fatherName;
+        this.motherName = builder.motherName;
+        this.dateOfBirth = builder.dateOfBirth;
+        this.gender = builder.gender;
+        this.group = builder.group;
+        this.institution = builder.institution;
+        this.eiin = builder.eiin;
+        this.board = builder.board;
+        this.gpa = builder.gpa;
+        this.result = builder.result;
+        this.subjects = Collections.unmodifiableList(new ArrayList<>(builder.subjects));
+        this.extras = Collections.unmodifiableMap(new LinkedHashMap<>(builder.extras));
+    }
+
+    public String getRoll() {
+        return roll;
+    }
+
+    public String getRegistration() {
+        return registration;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFatherName() {
+        return fatherName;
+    }
+
+    public String getMotherName() {
+        return motherName;
+    }
+
+    public String getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public String getInstitution() {
+        return institution;
+    }
+
+    public String getEiin() {
+        return eiin;
+    }
+
+    public String getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the GPA exactly as it was sent by the website.
+     *
+     * @return GPA text, or null if the record has none.
+     */
+    public String getGpa() {
+        return gpa;
+    }
+
+    /**
+     * Returns the GPA as a number.
+     *
+     * @return GPA value, or {@link Double#NaN} if the record has no numeric GPA.
+     */
+    public double getGpaValue() {
+        if (gpa == null) return Double.NaN;
+        try {
+            return Double.parseDouble(gpa.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public List<SubjectGrade> getSubjects() {
+        return subjects;
+    }
+
+    /**
+     * Returns the fields of the record which have no dedicated getter, keyed by their JSON name.
+     *
+     * @return Unmodifiable map of the remaining fields.
+     */
+    public Map<String, String> getExtras() {
+        return extras;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultRecord{roll=" + roll + ", name=" + name + ", gpa=" + gpa + ", subjects=" + subjects + "}";
+    }
+
+    /**
+     * Builder class for creating ResultRecord instances.
+     */
+    public static class Builder {
+        private final List<SubjectGrade> subjects = new ArrayList<>();
+        private final Map<String, String> extras = new LinkedHashMap<>();
+        private String roll;
+        private String registration;
+        private String name;
+        private String fatherName;
+        private String motherName;
+        private String dateOfBirth;
+        private String gender;
+        private String group;
+        private String institution;
+        private String eiin;
+        private String board;
+        private String gpa;
+        private String result;
+
+        public Builder setRoll(String roll) {
+            this.roll = roll;
+            return this;
+        }
+
+        public Builder setRegistration(String registration) {
+            this.registration = registration;
+            return this;
+        }
+
+        public Builder setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder setFatherName(String fatherName) {
+            this.fatherName = fatherName;
+            return this;
+        }
+
+        public Builder setMotherName(String motherName) {
+            this.motherName = motherName;
+            return this;
+        }
+
+        public Builder setDateOfBirth(String dateOfBirth) {
+            this.dateOfBirth = dateOfBirth;
+            return this;
+        }
+
+        public Builder setGender(String gender) {
+            this.gender = gender;
+            return this;
+        }
+
+        public Builder setGroup(String group) {
+            this.group = group;
+            return this;
+        }
+
+        public Builder setInstitution(String institution) {
+            this.institution = institution;
+            return this;
+        }
+
+        public Builder setEiin(String eiin) {
+            this.eiin = eiin;
+            return this;
+        }
+
+        public Builder setBoard(String board) {
+            this.board = board;
+            return this;
+        }
+
+        public Builder setGpa(String gpa) {
+            this.gpa = gpa;
+            return this;
+        }
+
+        public Builder setResult(String result) {
+            this.result = result;
+            return this;
+        }
+
+        public Builder addSubject(SubjectGrade subject) {
+            this.subjects.add(subject);
+            return this;
+        }
+
+        public Builder putExtra(String key, String value) {
+            this.extras.put(key, value);
+            return this;
+        }
+
+        /**
+         * Returns whether the builder holds anything that identifies a student.
+         *
+         * @return True if a roll, registration or name has been set.
+         */
+        public boolean isIdentified() {
+            return roll != null || registration != null || name != null;
+        }
+
+        /**
+         * Builds and returns the ResultRecord.
+         *
+         * @return Immutable ResultRecord instance.
+         */
+        public ResultRecord build() {
+            return new ResultRecord(this);
+        }
+    }
+}
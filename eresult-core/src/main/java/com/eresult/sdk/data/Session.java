@@ -0,0 +1,83 @@
+package com.eresult.sdk.data;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Session represents the session the website opened when it issued a captcha. A result request has to
+ * be sent within the session of the captcha it answers.
+ * <p>
+ * The website accepts any number of result requests within a session answering its captcha, until the
+ * session expires. A rejected session, e.g. answered with "Invalid captcha!", needs a new captcha. This
+ * way a BatchLookup or BoardSearch sends all of its requests within one session, while every captcha is
+ * still only shown to, and answered by, a single user.
+ * <p>
+ * Sessions are immutable, so any number of them can be used in parallel from any thread.
+ */
+public final class Session {
+    private final String cookie;    // Cookie sent with the requests of this session, e.g. "PHPSESSID=..."
+    private final long issuedAt;    // Time the captcha was issued, in milliseconds since the epoch
+
+    /**
+     * Constructor for Session.
+     *
+     * @param cookie   Cookie sent with the requests of this session.
+     * @param issuedAt Time the captcha was issued, in milliseconds since the epoch.
+     */
+    public Session(@NonNull String cookie, long issuedAt) {
+        if (cookie == null) throw new NullPointerException("cookie == null");
+        this.cookie = cookie;
+        this.issuedAt = issuedAt;
+    }
+
+    /**
+     * Creates a session from the Set-Cookie header of a captcha response, dropping the cookie attributes.
+     *
+     * @param setCookie Value of the Set-Cookie header.
+     * @param issuedAt  Time the captcha was issued, in milliseconds since the epoch.
+     * @return Session instance.
+     */
+    @NonNull
+    public static Session fromSetCookie(@NonNull String setCookie, long issuedAt) {
+        int end = setCookie.indexOf(';');
+        return new Session((end < 0 ? setCookie : setCookie.substring(0, end)).trim(), issuedAt);
+    }
+
+    @NonNull
+    public String getCookie() {
+        return cookie;
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * Returns how long ago the captcha of this session was issued.
+     *
+     * @return Age of the session in milliseconds.
+     */
+    public long getAgeMillis() {
+        return System.currentTimeMillis() - issuedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Session)) return false;
+        Session session = (Session) o;
+        return issuedAt == session.issuedAt && cookie.equals(session.cookie);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * cookie.hashCode() + (int) (issuedAt ^ (issuedAt >>> 32));
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        // The cookie value grants access to the session, so it is not printed.
+        int name = cookie.indexOf('=');
+        return "Session{" + (name < 0 ? "cookie" : cookie.substring(0, name)) + "=..., issuedAt=" + issuedAt + "}";
+    }
+}
@@ -0,0 +1,47 @@
+package com.eresult.sdk.data;
+
+/**
+ * SubjectGrade represents the grade a student got in a single subject of a result.
+ */
+public class SubjectGrade {
+    private final String code;      // Subject code, e.g. "101"
+    private final String name;      // Subject name, may be null when the payload only has codes
+    private final String grade;     // Letter grade, e.g. "A+"
+    private final String point;     // Grade point, may be null when the payload only has letter grades
+
+    /**
+     * Constructor for SubjectGrade.
+     *
+     * @param code  Subject code.
+     * @param name  Subject name.
+     * @param grade Letter grade.
+     * @param point Grade point.
+     */
+    public SubjectGrade(String code, String name, String grade, String point) {
+        this.code = code;
+        this.name = name;
+        this.grade = grade;
+        this.point = point;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getGrade() {
+        return grade;
+    }
+
+    public String getPoint() {
+        return point;
+    }
+
+    @Override
+    public String toString() {
+        return (name != null ? name : code) + ": " + grade;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * ResultCache interface stores result responses keyed by their query parameters. A published result
+ * never changes, so a cached response can be served again without captcha, network or server load.
+ */
+package com.eresult.sdk.data.cache;
+
+import androidx.annotation.NonNull;
+
+public interface ResultCache {
+
+    /**
+     * Returns the cached response for the key. May touch the disk, so it is never called on the main thread.
+     *
+     * @param key Query key, see {@link com.eresult.sdk.data.query.ResultRequestFactory#getQueryKey()}.
+     * @return Cached response body, or null if there is none or it has expired.
+     */
+    String get(@NonNull String key);
+
+    /**
+     * Stores a response for the key.
+     *
+     * @param key  Query key.
+     * @param body Response body.
+     */
+    void put(@NonNull String key, @NonNull String body);
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return Stats instance.
+     */
+    @NonNull
+    Stats stats();
+
+    /**
+     * Stats class is an immutable snapshot of the hit, miss and eviction counters of a cache.
+     */
+    class Stats {
+        public final long hitCount;
+        public final long missCount;
+        public final long evictionCount;
+
+        /**
+         * Constructor for Stats.
+         *
+         * @param hitCount      Number of lookups served from the cache.
+         * @param missCount     Number of lookups not found in the cache.
+         * @param evictionCount Number of entries removed because of size or age limits.
+         */
+        public Stats(long hitCount, long missCount, long evictionCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+        }
+
+        /**
+         * Returns the ratio of lookups served from the cache.
+         *
+         * @return Hit rate between 0 and 1, or 0 if there were no lookups.
+         */
+        public double hitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0 : (double) hitCount / total;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + "}";
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/**
+ * TieredResultCache class is a ResultCache with an in-memory LRU tier in front of an optional disk tier.
+ * Both tiers are bounded by size, and entries older than the time to live are dropped from both.
+ */
+package com.eresult.sdk.data.cache;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
+
+public class TieredResultCache implements ResultCache {
+
+    // Memory tier in access order, the eldest entry is the least recently used one.
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    // Locks instead of monitors, so virtual threads waiting for the disk do not pin their carrier threads.
+    private final ReentrantLock memoryLock = new ReentrantLock();
+    private final long maxMemoryBytes;
+    private long memoryBytes;
+
+    // Disk tier, null when the cache only lives in memory.
+    private final File directory;
+    private final long maxDiskBytes;
+    private final ReentrantLock diskLock = new ReentrantLock();
+    private long diskBytes = -1;
+
+    private final long ttlMillis;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Private constructor for TieredResultCache.
+     *
+     * @param builder Builder instance holding the cache limits.
+     */
+    private TieredResultCache(@NonNull Builder builder) {
+        this.maxMemoryBytes = builder.maxMemoryBytes;
+        this.directory = builder.directory;
+        this.maxDiskBytes = builder.maxDiskBytes;
+        this.ttlMillis = builder.ttlMillis;
+    }
+
+    @Override
+    public String get(@NonNull String key) {
+        long now = System.currentTimeMillis();
+        memoryLock.lock();
+        try {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    hitCount.incrementAndGet();
+                    return entry.body;
+                }
+                memory.remove(key);
+                memoryBytes -= entry.size;
+                evictionCount.incrementAndGet();
+            }
+        } finally {
+            memoryLock.unlock();
+        }
+
+        if (directory != null) {
+            File file = fileFor(key);
+            String body = readDisk(file, key, now);
+            if (body != null) {
+                hitCount.incrementAndGet();
+                putMemory(key, new Entry(body, file.lastModified() + ttlMillis));
+                return body;
+            }
+        }
+
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    @Override
+    public void put(@NonNull String key, @NonNull String body) {
+        putMemory(key, new Entry(body, System.currentTimeMillis() + ttlMillis));
+        if (directory != null) {
+            writeDisk(fileFor(key), key, body);
+        }
+    }
+
+    @NonNull
+    @Override
+    public Stats stats() {
+        return new Stats(hitCount.get(), missCount.get(), evictionCount.get());
+    }
+
+    /**
+     * Removes every entry from both tiers. Cleared entries are not counted as evictions.
+     */
+    public void clear() {
+        memoryLock.lock();
+        try {
+            memory.clear();
+            memoryBytes = 0;
+        } finally {
+            memoryLock.unlock();
+        }
+        if (directory != null) {
+            diskLock.lock();
+            try {
+                File[] files = directory.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        //noinspection ResultOfMethodCallIgnored
+                        file.delete();
+                    }
+                }
+                // Rescanned on the next write, which also recreates the directory.
+                diskBytes = -1;
+            } finally {
+                diskLock.unlock();
+            }
+        }
+    }
+
+    // Adds an entry to the memory tier and evicts the least recently used entries beyond the limit.
+    private void putMemory(String key, Entry entry) {
+        memoryLock.lock();
+        try {
+            Entry previous = memory.put(key, entry);
+            memoryBytes += entry.size - (previous != null ? previous.size : 0);
+
+            Iterator<Map.Entry<String, Entry>> iterator = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && iterator.hasNext()) {
+                Entry eldest = iterator.next().getValue();
+                iterator.remove();
+                memoryBytes -= eldest.size;
+                evictionCount.incrementAndGet();
+            }
+        } finally {
+            memoryLock.unlock();
+        }
+    }
+
+    // Reads an entry from the disk tier, dropping it if it has expired.
+    private String readDisk(File file, String key, long now) {
+        diskLock.lock();
+        try {
+            if (!file.exists()) return null;
+            if (file.lastModified() + ttlMillis <= now) {
+                deleteDisk(file);
+                evictionCount.incrementAndGet();
+                return null;
+            }
+
+            try (BufferedSource source = Okio.buffer(Okio.source(file))) {
+                // The first line holds the key, guarding against hash collisions.
+                if (!key.equals(source.readUtf8Line())) return null;
+                return source.readUtf8();
+            } catch (IOException e) {
+                deleteDisk(file);
+                return null;
+            }
+        } finally {
+            diskLock.unlock();
+        }
+    }
+
+    // Writes an entry to the disk tier and evicts the oldest files beyond the limit.
+    private void writeDisk(File file, String key, String body) {
+        diskLock.lock();
+        try {
+            ensureDiskSize();
+            File temp = new File(directory, file.getName() + ".tmp");
+            try (BufferedSink sink = Okio.buffer(Okio.sink(temp))) {
+                sink.writeUtf8(key).writeByte('\n').writeUtf8(body);
+            } catch (IOException e) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+                return;
+            }
+
+            if (file.exists()) deleteDisk(file);
+            if (!temp.renameTo(file)) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+                return;
+            }
+            diskBytes += file.length();
+            trimDisk();
+        } finally {
+            diskLock.unlock();
+        }
+    }
+
+    // Computes the size of the disk tier on first use.
+    private void ensureDiskSize() {
+        if (diskBytes >= 0) return;
+        //noinspection ResultOfMethodCallIgnored
+        directory.mkdirs();
+        long size = 0;
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                size += file.length();
+            }
+        }
+        diskBytes = size;
+    }
+
+    // Deletes the oldest files until the disk tier fits its limit.
+    private void trimDisk() {
+        if (diskBytes <= maxDiskBytes) return;
+        File[] files = directory.listFiles();
+        if (files == null) return;
+
+        long[] modified = new long[files.length];
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            modified[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(modified[a], modified[b]));
+
+        for (int i = 0; i < order.length && diskBytes > maxDiskBytes; i++) {
+            deleteDisk(files[order[i]]);
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private void deleteDisk(File file) {
+        long length = file.length();
+        if (file.delete() && diskBytes >= 0) {
+            diskBytes -= length;
+        }
+    }
+
+    private File fileFor(String key) {
+        return new File(directory, ByteString.encodeUtf8(key).sha256().hex());
+    }
+
+    /**
+     * Entry class of the memory tier.
+     */
+    private static class Entry {
+        final String body;
+        final long expiresAt;
+        final long size;
+
+        Entry(String body, long expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+            this.size = 2L * body.length();
+        }
+    }
+
+    /**
+     * Builder class for constructing TieredResultCache instances.
+     */
+    public static class Builder {
+        private long maxMemoryBytes = 4L * 1024 * 1024;
+        private File directory;
+        private long maxDiskBytes = 32L * 1024 * 1024;
+        private long ttlMillis = TimeUnit.DAYS.toMillis(1);
+
+        /**
+         * Sets the size limit of the memory tier.
+         *
+         * @param maxMemoryBytes Maximum memory used by cached bodies, in bytes.
+         * @return Builder instance.
+         */
+        public Builder setMaxMemoryBytes(long maxMemoryBytes) {
+            if (maxMemoryBytes < 0) {
+                throw new IllegalArgumentException("Memory size can not be negative!");
+            }
+            this.maxMemoryBytes = maxMemoryBytes;
+            return this;
+        }
+
+        /**
+         * Enables the disk tier in the given directory, e.g. a folder inside the application cache directory.
+         *
+         * @param directory    Directory used only by this cache.
+         * @param maxDiskBytes Maximum size of the directory, in bytes.
+         * @return Builder instance.
+         */
+        public Builder setDiskCache(@NonNull File directory, long maxDiskBytes) {
+            if (maxDiskBytes <= 0) {
+                throw new IllegalArgumentException("Disk size must be positive!");
+            }
+            this.directory = directory;
+            this.maxDiskBytes = maxDiskBytes;
+            return this;
+        }
+
+        /**
+         * Sets how long an entry stays valid after it has been stored.
+         *
+         * @param ttl  Time to live.
+         * @param unit Time unit of the time to live.
+         * @return Builder instance.
+         */
+        public Builder setTimeToLive(long ttl, @NonNull TimeUnit unit) {
+            if (ttl <= 0) {
+                throw new IllegalArgumentException("Time to live must be positive!");
+            }
+            this.ttlMillis = unit.toMillis(ttl);
+            return this;
+        }
+
+        /**
+         * Builds and returns a TieredResultCache instance with the specified limits.
+         *
+         * @return TieredResultCache instance.
+         */
+        public TieredResultCache build() {
+            return new TieredResultCache(this);
+        }
+    }
+}
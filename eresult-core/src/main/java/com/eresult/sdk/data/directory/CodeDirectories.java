@@ -0,0 +1,80 @@
+/**
+ * CodeDirectories class opens the CodeDirectory of each board from a folder on first use, e.g. the
+ * directories an app copies out of its assets or downloads. Nothing is read before a board's directory
+ * is asked for, and every directory is opened once and then shared.
+ * <p>
+ * The file of a board is named after it, e.g. "dhaka.ercd". A directory can be updated by writing the
+ * new version to a new file and calling {@link #reload(BoardType)}.
+ */
+package com.eresult.sdk.data.directory;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.BoardType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+public final class CodeDirectories {
+
+    // File extension of directory files.
+    public static final String EXTENSION = ".ercd";
+
+    private final File folder;
+    // Opened directories, guarded by the instance.
+    private final Map<BoardType, CodeDirectory> directories = new EnumMap<>(BoardType.class);
+
+    /**
+     * Constructor for CodeDirectories.
+     *
+     * @param folder Folder holding the directory files.
+     */
+    public CodeDirectories(@NonNull File folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Returns the file the directory of the given board is read from.
+     *
+     * @param boardType Board of the directory.
+     * @return Directory file, which may not exist.
+     */
+    @NonNull
+    public File getFile(@NonNull BoardType boardType) {
+        return new File(folder, boardType.name().toLowerCase(Locale.ROOT) + EXTENSION);
+    }
+
+    /**
+     * Returns the directory of the given board, opening it on first use.
+     *
+     * @param boardType Board of the directory.
+     * @return CodeDirectory instance, or null if the folder holds none for the board.
+     * @throws IOException If the file can not be read or holds the directory of another board.
+     */
+    public synchronized CodeDirectory get(@NonNull BoardType boardType) throws IOException {
+        CodeDirectory directory = directories.get(boardType);
+        if (directory == null) {
+            File file = getFile(boardType);
+            if (!file.isFile()) return null;
+            directory = CodeDirectory.open(file);
+            if (directory.getBoardType() != boardType) {
+                throw new IOException(file + " holds the directory of " + directory.getBoardType());
+            }
+            directories.put(boardType, directory);
+        }
+        return directory;
+    }
+
+    /**
+     * Drops the opened directory of the given board, so the next call to {@link #get(BoardType)} reads its
+     * file again. Directories already handed out stay valid.
+     *
+     * @param boardType Board of the directory.
+     */
+    public synchronized void reload(@NonNull BoardType boardType) {
+        directories.remove(boardType);
+    }
+}
@@ -0,0 +1,426 @@
+/**
+ * CodeDirectory class holds the district, center and institution codes of one board, so users can pick
+ * them by name and codes can be validated before a captcha and result round trip is spent on them.
+ * <p>
+ * The directory is read from a binary file mapped into memory, nothing is copied onto the heap until an
+ * entry is returned. Every section is sorted by code and indexed by normalized name, so exact lookups and
+ * prefix searches for autocomplete are binary searches over the mapped file. Files are created with the
+ * Writer and carry the version of their data.
+ * <p>
+ * File layout, big-endian, strings are an unsigned 16 bit length followed by UTF-8 bytes:
+ * <pre>
+ * header   magic "ERCD", format version, data version, offset of the board name,
+ *          then per CodeType: entry count, offset of the entries, offset of the name index
+ * entries  per entry: offsets of code, name, normalized name and district code (-1 if none), by code
+ * names    per entry: index of the entry, by normalized name then code
+ * strings  all strings, each written once
+ * </pre>
+ */
+package com.eresult.sdk.data.directory;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.BoardType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+public final class CodeDirectory {
+
+    // First bytes of every directory file, "ERCD".
+    private static final int MAGIC = 0x45524344;
+    // Version of the file layout this class reads and writes.
+    private static final int FORMAT_VERSION = 1;
+    private static final int SECTIONS_OFFSET = 16;
+    private static final int SECTION_BYTES = 12;
+    private static final int HEADER_BYTES = SECTIONS_OFFSET + SECTION_BYTES * CodeType.values().length;
+    private static final int ENTRY_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final int version;
+    private final BoardType boardType;
+
+    /**
+     * Private constructor for CodeDirectory, checking the header of the file.
+     *
+     * @param buffer Contents of the directory file.
+     * @throws IOException If the buffer holds no directory of a known format.
+     */
+    private CodeDirectory(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a code directory");
+        }
+        int format = buffer.getInt(4);
+        if (format != FORMAT_VERSION) {
+            throw new IOException("Unsupported code directory format " + format);
+        }
+        this.version = buffer.getInt(8);
+        for (CodeType type : CodeType.values()) {
+            long end = (long) section(type, 1) + (long) size(type) * ENTRY_BYTES;
+            long namesEnd = (long) section(type, 2) + (long) size(type) * 4;
+            if (size(type) < 0 || end > buffer.limit() || namesEnd > buffer.limit()) {
+                throw new IOException("Truncated code directory");
+            }
+        }
+        try {
+            this.boardType = BoardType.valueOf(string(buffer.getInt(12)));
+        } catch (RuntimeException e) {
+            throw new IOException("Code directory of an unknown board", e);
+        }
+    }
+
+    /**
+     * Opens a directory file by mapping it into memory. The file must not be modified while it is open,
+     * replace it with a new file instead.
+     *
+     * @param file Directory file created by the Writer.
+     * @return CodeDirectory instance.
+     * @throws IOException If the file can not be read or holds no directory of a known format.
+     */
+    @NonNull
+    public static CodeDirectory open(@NonNull File file) throws IOException {
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            FileChannel channel = input.getChannel();
+            // The mapping stays valid after the channel is closed.
+            return new CodeDirectory(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the board the codes belong to.
+     *
+     * @return Board of the directory.
+     */
+    @NonNull
+    public BoardType getBoardType() {
+        return boardType;
+    }
+
+    /**
+     * Returns the version of the data, as given to the Writer, e.g. the date of the lists it was created from.
+     *
+     * @return Data version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of codes of the given kind.
+     *
+     * @param type Kind of the codes.
+     * @return Number of codes.
+     */
+    public int size(@NonNull CodeType type) {
+        return section(type, 0);
+    }
+
+    /**
+     * Returns whether the directory holds the given code.
+     *
+     * @param type Kind of the code.
+     * @param code The code to validate.
+     * @return True if the code is known.
+     */
+    public boolean contains(@NonNull CodeType type, @NonNull String code) {
+        return indexOf(type, code) >= 0;
+    }
+
+    /**
+     * Returns the entry of the given code.
+     *
+     * @param type Kind of the code.
+     * @param code The code to look up.
+     * @return CodeEntry instance, or null if the code is unknown.
+     */
+    public CodeEntry find(@NonNull CodeType type, @NonNull String code) {
+        int index = indexOf(type, code);
+        return index >= 0 ? entry(type, index) : null;
+    }
+
+    /**
+     * Returns the entries whose code starts with the given prefix, in the order of their codes.
+     *
+     * @param type   Kind of the codes.
+     * @param prefix Beginning of the code typed by the user.
+     * @param limit  Maximum number of entries returned.
+     * @return Matching entries, empty if none.
+     */
+    @NonNull
+    public List<CodeEntry> searchCode(@NonNull CodeType type, @NonNull String prefix, int limit) {
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        int size = size(type);
+        List<CodeEntry> entries = new ArrayList<>();
+        for (int i = lowerBound(type, key, false); i < size && entries.size() < limit; i++) {
+            if (!startsWith(codeOffset(type, i), key)) break;
+            entries.add(entry(type, i));
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the entries whose name starts with the given prefix, ignoring case and repeated spaces, in
+     * the order of their names.
+     *
+     * @param type   Kind of the codes.
+     * @param prefix Beginning of the name typed by the user.
+     * @param limit  Maximum number of entries returned.
+     * @return Matching entries, empty if none.
+     */
+    @NonNull
+    public List<CodeEntry> searchName(@NonNull CodeType type, @NonNull String prefix, int limit) {
+        byte[] key = normalize(prefix).getBytes(StandardCharsets.UTF_8);
+        int size = size(type);
+        List<CodeEntry> entries = new ArrayList<>();
+        for (int i = lowerBound(type, key, true); i < size && entries.size() < limit; i++) {
+            int index = buffer.getInt(section(type, 2) + i * 4);
+            if (!startsWith(buffer.getInt(entryOffset(type, index) + 8), key)) break;
+            entries.add(entry(type, index));
+        }
+        return entries;
+    }
+
+    /**
+     * Normalizes a name for searching: lower case, trimmed, with runs of whitespace turned into one space.
+     *
+     * @param name Name to normalize.
+     * @return Normalized name.
+     */
+    @NonNull
+    static String normalize(@NonNull String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        boolean space = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) normalized.append(' ');
+                space = false;
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // Returns the index of the entry with the given code, or -1.
+    private int indexOf(CodeType type, String code) {
+        byte[] key = code.getBytes(StandardCharsets.UTF_8);
+        int index = lowerBound(type, key, false);
+        return index < size(type) && compare(codeOffset(type, index), key) == 0 ? index : -1;
+    }
+
+    // Returns the first position in the code or name order whose key is not below the given key.
+    private int lowerBound(CodeType type, byte[] key, boolean byName) {
+        int low = 0;
+        int high = size(type);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int offset = byName
+                    ? buffer.getInt(entryOffset(type, buffer.getInt(section(type, 2) + middle * 4)) + 8)
+                    : codeOffset(type, middle);
+            if (compare(offset, key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Compares the string at the given offset with the key, byte by byte as unsigned values.
+    private int compare(int offset, byte[] key) {
+        int length = buffer.getShort(offset) & 0xffff;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (buffer.get(offset + 2 + i) & 0xff) - (key[i] & 0xff);
+            if (difference != 0) return difference;
+        }
+        return length - key.length;
+    }
+
+    private boolean startsWith(int offset, byte[] prefix) {
+        int length = buffer.getShort(offset) & 0xffff;
+        if (length < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(offset + 2 + i) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    private CodeEntry entry(CodeType type, int index) {
+        int offset = entryOffset(type, index);
+        int parent = buffer.getInt(offset + 12);
+        return new CodeEntry(type, string(buffer.getInt(offset)), string(buffer.getInt(offset + 4)),
+                parent < 0 ? null : string(parent));
+    }
+
+    private String string(int offset) {
+        byte[] bytes = new byte[buffer.getShort(offset) & 0xffff];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(offset + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int codeOffset(CodeType type, int index) {
+        return buffer.getInt(entryOffset(type, index));
+    }
+
+    private int entryOffset(CodeType type, int index) {
+        return section(type, 1) + index * ENTRY_BYTES;
+    }
+
+    // Returns a field of the section of the given type: 0 the count, 1 the entries, 2 the name index.
+    private int section(CodeType type, int field) {
+        return buffer.getInt(SECTIONS_OFFSET + type.ordinal() * SECTION_BYTES + field * 4);
+    }
+
+    /**
+     * Writer class creates a directory file from the codes of one board, e.g. in the build of an app or
+     * a tool converting the lists published by the board.
+     */
+    public static class Writer {
+        private final BoardType boardType;
+        private final int version;
+        private final Map<CodeType, TreeMap<String, CodeEntry>> sections = new EnumMap<>(CodeType.class);
+
+        /**
+         * Constructor for Writer.
+         *
+         * @param boardType Board the codes belong to.
+         * @param version   Version of the data, e.g. 20240301 for lists of the 1st of March 2024.
+         */
+        public Writer(@NonNull BoardType boardType, int version) {
+            this.boardType = boardType;
+            this.version = version;
+            for (CodeType type : CodeType.values()) {
+                sections.put(type, new TreeMap<>());
+            }
+        }
+
+        /**
+         * Adds a code to the directory.
+         *
+         * @param entry Entry of the code.
+         * @return The Writer instance for method chaining.
+         * @throws IllegalArgumentException If the code has already been added.
+         */
+        @NonNull
+        public Writer add(@NonNull CodeEntry entry) {
+            if (sections.get(entry.getType()).put(entry.getCode(), entry) != null) {
+                throw new IllegalArgumentException("Duplicate " + entry.getType() + " code " + entry.getCode() + "!");
+            }
+            return this;
+        }
+
+        /**
+         * Writes the directory into the given file, replacing it once the whole directory is written.
+         *
+         * @param file File to write.
+         * @throws IOException If the file can not be written.
+         */
+        public void writeTo(@NonNull File file) throws IOException {
+            Map<String, Integer> strings = new HashMap<>();
+            List<byte[]> pool = new ArrayList<>();
+            int entriesOffset = HEADER_BYTES;
+            int stringsOffset = HEADER_BYTES;
+            for (TreeMap<String, CodeEntry> section : sections.values()) {
+                stringsOffset += section.size() * (ENTRY_BYTES + 4);
+            }
+            int[] poolEnd = {stringsOffset};
+            int boardOffset = intern(boardType.name(), strings, pool, poolEnd);
+
+            File temp = new File(file.getPath() + ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeInt(version);
+                output.writeInt(boardOffset);
+                int offset = entriesOffset;
+                for (CodeType type : CodeType.values()) {
+                    int size = sections.get(type).size();
+                    output.writeInt(size);
+                    output.writeInt(offset);
+                    output.writeInt(offset + size * ENTRY_BYTES);
+                    offset += size * (ENTRY_BYTES + 4);
+                }
+                for (CodeType type : CodeType.values()) {
+                    // The codes are sorted by their UTF-8 bytes, the order the reader searches in.
+                    List<CodeEntry> entries = new ArrayList<>(sections.get(type).values());
+                    Collections.sort(entries,
+                            (a, b) -> compareBytes(a.getCode().getBytes(StandardCharsets.UTF_8), b.getCode().getBytes(StandardCharsets.UTF_8)));
+                    List<Integer> names = new ArrayList<>(entries.size());
+                    List<byte[]> keys = new ArrayList<>(entries.size());
+                    for (int i = 0; i < entries.size(); i++) {
+                        CodeEntry entry = entries.get(i);
+                        String key = normalize(entry.getName());
+                        output.writeInt(intern(entry.getCode(), strings, pool, poolEnd));
+                        output.writeInt(intern(entry.getName(), strings, pool, poolEnd));
+                        output.writeInt(intern(key, strings, pool, poolEnd));
+                        output.writeInt(entry.getParentCode() == null ? -1
+                                : intern(entry.getParentCode(), strings, pool, poolEnd));
+                        names.add(i);
+                        keys.add(key.getBytes(StandardCharsets.UTF_8));
+                    }
+                    // Entries with the same name stay in the order of their codes, the sort being stable.
+                    Collections.sort(names, (a, b) -> compareBytes(keys.get(a), keys.get(b)));
+                    for (int index : names) {
+                        output.writeInt(index);
+                    }
+                }
+                for (byte[] bytes : pool) {
+                    output.writeShort(bytes.length);
+                    output.write(bytes);
+                }
+            }
+            if (!temp.renameTo(file)) {
+                // Windows does not replace an existing file on rename.
+                if (!file.delete() || !temp.renameTo(file)) {
+                    temp.delete();
+                    throw new IOException("Failed to replace " + file);
+                }
+            }
+        }
+
+        // Adds a string to the pool once, returning its offset in the file.
+        private static int intern(String string, Map<String, Integer> strings, List<byte[]> pool, int[] poolEnd) {
+            Integer offset = strings.get(string);
+            if (offset != null) return offset;
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xffff) {
+                throw new IllegalArgumentException("String too long for a code directory: " + string);
+            }
+            offset = poolEnd[0];
+            strings.put(string, offset);
+            pool.add(bytes);
+            poolEnd[0] += 2 + bytes.length;
+            return offset;
+        }
+
+        private static int compareBytes(byte[] a, byte[] b) {
+            int common = Math.min(a.length, b.length);
+            for (int i = 0; i < common; i++) {
+                int difference = (a[i] & 0xff) - (b[i] & 0xff);
+                if (difference != 0) return difference;
+            }
+            return a.length - b.length;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * CodeEntry class holds one code of a CodeDirectory with the name shown to users and the code of the
+ * district it belongs to.
+ */
+package com.eresult.sdk.data.directory;
+
+import androidx.annotation.NonNull;
+
+public final class CodeEntry {
+    private final CodeType type;
+    private final String code;
+    private final String name;
+    private final String parentCode;
+
+    /**
+     * Constructor for CodeEntry.
+     *
+     * @param type       Kind of the code.
+     * @param code       The code, e.g. an EIIN.
+     * @param name       Name shown to users, e.g. the name of the institution.
+     * @param parentCode District code of a center or institution, or null.
+     */
+    public CodeEntry(@NonNull CodeType type, @NonNull String code, @NonNull String name, String parentCode) {
+        if (code == null || name == null) throw new NullPointerException("code == null || name == null");
+        this.type = type;
+        this.code = code;
+        this.name = name;
+        this.parentCode = parentCode;
+    }
+
+    @NonNull
+    public CodeType getType() {
+        return type;
+    }
+
+    @NonNull
+    public String getCode() {
+        return code;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the code of the district a center or institution belongs to.
+     *
+     * @return District code, or null if unknown or for a district.
+     */
+    public String getParentCode() {
+        return parentCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CodeEntry)) return false;
+        CodeEntry entry = (CodeEntry) o;
+        return type == entry.type && code.equals(entry.code) && name.equals(entry.name)
+                && (parentCode == null ? entry.parentCode == null : parentCode.equals(entry.parentCode));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 31 * type.hashCode() + code.hashCode();
+        result = 31 * result + name.hashCode();
+        return 31 * result + (parentCode != null ? parentCode.hashCode() : 0);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return type + " " + code + " " + name;
+    }
+}
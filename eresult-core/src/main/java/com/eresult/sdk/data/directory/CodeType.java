@@ -0,0 +1,10 @@
+/**
+ * CodeType enum represents the kinds of codes a CodeDirectory holds, one section each.
+ */
+package com.eresult.sdk.data.directory;
+
+public enum CodeType {
+    DISTRICT,       // District code, as passed to setDistrictCode
+    CENTER,         // Examination center code, whose parent is its district
+    INSTITUTION     // EIIN of an institution, whose parent is its district
+}
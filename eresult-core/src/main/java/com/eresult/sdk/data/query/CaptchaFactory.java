@@ -0,0 +1,126 @@
+/**
+ * CaptchaFactory class is responsible for creating HTTP requests to retrieve captcha images
+ * from the eboardresults.com website. It implements the LazyHttp.CallFactory interface to generate
+ * and enqueue HTTP calls asynchronously. Every captcha is returned together with the Session it was
+ * issued in, so the factory holds no state of its own.
+ * <p>
+ * Created by Anindya Das on 1/17/24 11:45 PM.
+ */
+package com.eresult.sdk.data.query;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.Captcha;
+import com.eresult.sdk.data.Session;
+import com.eresult.sdk.data.query.http.FailureException;
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.eresult.sdk.data.query.http.LazyHttp;
+import com.eresult.sdk.metrics.RequestTags;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class CaptchaFactory implements LazyHttp.CallFactory<Captcha<byte[]>> {
+
+    // Response type of the factory, since a generic class literal can not be written.
+    public static final Class<Captcha<byte[]>> RESPONSE_TYPE = responseType();
+
+    // Tags the metrics of captcha requests are recorded under.
+    private static final RequestTags TAGS = RequestTags.of("/v2/captcha");
+
+    // Subpath for captcha image retrieval.
+    private final String subPath;
+
+    /**
+     * Constructor for CaptchaFactory.
+     */
+    public CaptchaFactory() {
+        this.subPath = "/v2/captcha";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Captcha<byte[]>> responseType() {
+        return (Class<Captcha<byte[]>>) (Class<?>) Captcha.class;
+    }
+
+    /**
+     * Creates an HTTP call on the provided transport.
+     *
+     * @param transport Call factory creating the call, typically the Transport of the LazyHttp.
+     * @param request   Request instance for the HTTP call.
+     * @return Call instance for the HTTP request.
+     */
+    @Override
+    public Call createCall(@NonNull Call.Factory transport, @NonNull Request request) {
+        return transport.newCall(
+                request.newBuilder()
+                        .tag(RequestTags.class, TAGS)
+                        .url(request.url().newBuilder().addPathSegments(subPath)
+                                .addQueryParameter("t", String.valueOf(System.currentTimeMillis()))
+                                .build().toString())
+                        .build());
+    }
+
+    /**
+     * Enqueues the HTTP call for asynchronous execution and sets up callbacks for success or failure.
+     *
+     * @param call         Call instance representing the HTTP request.
+     * @param callback     Callback to handle the response or failure.
+     * @param responseType Class type of the expected response.
+     */
+    @Override
+    public void enqueueCall(
+            @NonNull Call call,
+            @NonNull LazyHttp.Callback<Captcha<byte[]>> callback,
+            @NonNull Class<Captcha<byte[]>> responseType) {
+        call.enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                callback.onFailure(call, e);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                Captcha<byte[]> captcha;
+                try {
+                    captcha = parseResponse(response, responseType);
+                } catch (IOException e) {
+                    callback.onFailure(call, e);
+                    return;
+                } finally {
+                    response.close();
+                }
+                callback.onResponse(call, captcha);
+            }
+        });
+    }
+
+    /**
+     * Parses the HTTP response into the captcha image and the session it was issued in.
+     *
+     * @param response     Response instance received from the HTTP call.
+     * @param responseType Class type of the expected response.
+     * @return Captcha image as a byte array with its session.
+     * @throws IOException If the response holds no captcha or no session cookie.
+     */
+    @Override
+    public Captcha<byte[]> parseResponse(
+            @NonNull Response response, @NonNull Class<Captcha<byte[]>> responseType) throws IOException {
+        if (!response.isSuccessful() || response.body() == null) {
+            throw new FailureException(FailureReason.INVALID_RESPONSE,
+                    "Captcha request failed: " + response.code() + " " + response.message());
+        }
+
+        // The session cookie received in the response header belongs to this captcha only.
+        List<String> cookies = response.headers("Set-Cookie");
+        if (cookies.isEmpty()) {
+            throw new FailureException(FailureReason.INVALID_RESPONSE, "Captcha response has no session cookie");
+        }
+        Session session = Session.fromSetCookie(cookies.get(0), response.receivedResponseAtMillis());
+        return new Captcha<>(response.body().bytes(), session);
+    }
+}
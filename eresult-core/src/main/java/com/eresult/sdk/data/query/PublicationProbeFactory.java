@@ -0,0 +1,122 @@
+/**
+ * PublicationProbeFactory class is responsible for creating the conditional requests probing a page of
+ * the eboardresults.com website for a result publication. The validators of the previous probe are sent
+ * as If-None-Match and If-Modified-Since, so an unchanged page costs a 304 without a body.
+ */
+package com.eresult.sdk.data.query;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.PublicationProbe;
+import com.eresult.sdk.data.query.http.FailureException;
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.eresult.sdk.data.query.http.LazyHttp;
+import com.eresult.sdk.metrics.RequestTags;
+
+import java.io.IOException;
+
+import okhttp3.Call;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class PublicationProbeFactory implements LazyHttp.CallFactory<PublicationProbe> {
+
+    // Pages are only searched for the publication, so anything past this size is not read.
+    private static final long MAX_BODY_BYTES = 512 * 1024;
+
+    private final String subPath;
+    private final String etag;
+    private final String lastModified;
+    private final RequestTags tags;
+
+    /**
+     * Constructor for PublicationProbeFactory.
+     *
+     * @param subPath      Path of the probed page.
+     * @param etag         ETag of the previous probe, or null for an unconditional request.
+     * @param lastModified Last-Modified date of the previous probe, or null.
+     */
+    public PublicationProbeFactory(@NonNull String subPath, String etag, String lastModified) {
+        this.subPath = subPath;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.tags = RequestTags.of(subPath);
+    }
+
+    /**
+     * Creates an HTTP call on the provided transport.
+     *
+     * @param transport Call factory creating the call, typically the Transport of the LazyHttp.
+     * @param request   Request instance for the HTTP call.
+     * @return Call instance for the HTTP request.
+     */
+    @Override
+    public Call createCall(@NonNull Call.Factory transport, @NonNull Request request) {
+        Request.Builder builder = request.newBuilder()
+                .tag(RequestTags.class, tags)
+                .url(request.url().resolve(subPath));
+        if (etag != null) builder.header("If-None-Match", etag);
+        if (lastModified != null) builder.header("If-Modified-Since", lastModified);
+        return transport.newCall(builder.build());
+    }
+
+    /**
+     * Enqueues the HTTP call for asynchronous execution and sets up callbacks for success or failure.
+     *
+     * @param call         Call instance representing the HTTP request.
+     * @param callback     Callback to handle the response or failure.
+     * @param responseType Class type of the expected response.
+     */
+    @Override
+    public void enqueueCall(
+            @NonNull Call call,
+            @NonNull LazyHttp.Callback<PublicationProbe> callback,
+            @NonNull Class<PublicationProbe> responseType) {
+        call.enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                callback.onFailure(call, e);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                PublicationProbe probe;
+                try {
+                    probe = parseResponse(response, responseType);
+                } catch (IOException e) {
+                    callback.onFailure(call, e);
+                    return;
+                } finally {
+                    response.close();
+                }
+                callback.onResponse(call, probe);
+            }
+        });
+    }
+
+    /**
+     * Parses the HTTP response into a probe.
+     *
+     * @param response     Response instance received from the HTTP call.
+     * @param responseType Class type of the expected response.
+     * @return Probe of the page.
+     * @throws IOException If the page could not be read.
+     */
+    @Override
+    public PublicationProbe parseResponse(
+            @NonNull Response response, @NonNull Class<PublicationProbe> responseType) throws IOException {
+        if (response.code() == 304) {
+            return PublicationProbe.notModified(etag, lastModified);
+        }
+        if (!response.isSuccessful()) {
+            FailureReason reason = response.code() == 429 ? FailureReason.RATE_LIMITED
+                    : response.code() >= 500 ? FailureReason.SERVER_ERROR : FailureReason.INVALID_RESPONSE;
+            throw new FailureException(reason, "Probe failed: " + response.code() + " " + response.message());
+        }
+        return new PublicationProbe(
+                true,
+                response.header("ETag"),
+                response.header("Last-Modified"),
+                response.peekBody(MAX_BODY_BYTES).string());
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * QueryPlan is a result query compiled once from the parameters that stay the same across lookups:
+ * the base URL, exam, year, board, result type and the institution codes. Their query parameters are
+ * encoded when the plan is compiled, so executing it only encodes the roll, registration and captcha.
+ * <p>
+ * A plan is immutable and can be shared between threads, e.g. by every lookup of a batch.
+ */
+package com.eresult.sdk.data.query;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.data.query.http.Resilience;
+import com.eresult.sdk.metrics.RequestTags;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+public final class QueryPlan {
+
+    static final String SUB_PATH = "/v2/getres";
+
+    // Used to encode values with characters which need escaping, which roll numbers and captchas rarely have.
+    private static final HttpUrl ENCODER = HttpUrl.get("http://localhost/");
+
+    final BoardType boardType;
+    final String year;
+    final ExamType examType;
+    final ResultType resultType;
+    final String eiinCode;
+    final String districtCode;
+    final String centerCode;
+    private final HttpUrl baseUrl;
+    private final String head;
+    private final String tail;
+    private final String keyHead;
+    private final String keyTail;
+    private final int capacity;
+    private final RequestTags tags;
+
+    /**
+     * Compiles a query plan.
+     *
+     * @param baseUrl      Base URL of the result server.
+     * @param boardType    Type of the educational board.
+     * @param year         Exam year.
+     * @param examType     Type of the exam.
+     * @param resultType   Type of result you want.
+     * @param eiinCode     EIIN code.
+     * @param districtCode District code.
+     * @param centerCode   Your center code.
+     */
+    public QueryPlan(
+            @NonNull String baseUrl,
+            BoardType boardType,
+            String year,
+            ExamType examType,
+            @NonNull ResultType resultType,
+            String eiinCode,
+            String districtCode,
+            String centerCode) {
+        this.boardType = boardType;
+        this.year = year;
+        this.examType = examType;
+        this.resultType = resultType;
+        this.eiinCode = eiinCode;
+        this.districtCode = districtCode;
+        this.centerCode = centerCode;
+        this.baseUrl = HttpUrl.get(baseUrl);
+        this.head = this.baseUrl
+                .newBuilder()
+                .addPathSegments(SUB_PATH)
+                .addQueryParameter("exam", examType.name().toLowerCase())
+                .addQueryParameter("year", year)
+                .addQueryParameter("board", boardType.name().toLowerCase())
+                .addQueryParameter("result_type", resultType.getResult())
+                .build()
+                .toString();
+        StringBuilder tail = new StringBuilder();
+        appendParameter(tail, "eiin", eiinCode);
+        appendParameter(tail, "dcode", districtCode);
+        appendParameter(tail, "ccode", centerCode);
+        this.tail = tail.toString();
+        this.keyHead = examType + "|" + year + "|" + boardType + "|" + resultType.getResult() + "|";
+        this.keyTail = "|" + eiinCode + "|" + districtCode + "|" + centerCode;
+        this.capacity = head.length() + this.tail.length() + 64;
+        this.tags = new RequestTags(SUB_PATH, boardType, examType, resultType);
+    }
+
+    /**
+     * @return Base URL the plan was compiled for.
+     */
+    public HttpUrl getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @return Tags attached to the requests of this plan.
+     */
+    public RequestTags getTags() {
+        return tags;
+    }
+
+    /**
+     * Returns the key identifying the result of a student, the same as
+     * {@link ResultRequestFactory#getQueryKey()} for the same parameters.
+     *
+     * @param studentRollNumber Student's roll number.
+     * @param registrationId    Student's registration ID.
+     * @return Query key.
+     */
+    public String getQueryKey(String studentRollNumber, String registrationId) {
+        return keyHead + studentRollNumber + "|" + registrationId + keyTail;
+    }
+
+    /**
+     * Returns the URL querying the result of a student.
+     *
+     * @param studentRollNumber Student's roll number.
+     * @param registrationId    Student's registration ID.
+     * @param captcha           Captcha code for result retrieval.
+     * @return Query URL.
+     */
+    public HttpUrl newUrl(String studentRollNumber, String registrationId, String captcha) {
+        StringBuilder url = new StringBuilder(capacity).append(head);
+        appendParameter(url, "roll", studentRollNumber);
+        appendParameter(url, "reg", registrationId);
+        url.append(tail);
+        appendParameter(url, "captcha", captcha);
+        return HttpUrl.get(url.toString());
+    }
+
+    /**
+     * Returns the request querying the result of a student.
+     *
+     * @param mainCookie        Main cookie obtained during captcha request.
+     * @param studentRollNumber Student's roll number.
+     * @param registrationId    Student's registration ID.
+     * @param captcha           Captcha code for result retrieval.
+     * @return Query request.
+     */
+    public Request newRequest(String mainCookie, String studentRollNumber, String registrationId, String captcha) {
+        return Resilience.withoutRetries(new Request.Builder())
+                .url(newUrl(studentRollNumber, registrationId, captcha))
+                .addHeader("Cookie", mainCookie)
+                .tag(RequestTags.class, tags)
+                .build();
+    }
+
+    /**
+     * Returns a factory executing this plan for a student. If it is queried through a LazyHttp with
+     * another base URL, the factory builds the URL from scratch like an uncompiled one.
+     *
+     * @param captcha           Captcha code for result retrieval.
+     * @param mainCookie        Main cookie obtained during captcha request.
+     * @param studentRollNumber Student's roll number.
+     * @param registrationId    Student's registration ID.
+     * @return ResultRequestFactory instance.
+     */
+    public ResultRequestFactory newFactory(
+            String captcha, String mainCookie, String studentRollNumber, String registrationId) {
+        return new ResultRequestFactory(this, captcha, mainCookie, studentRollNumber, registrationId);
+    }
+
+    // Appends a query parameter encoded the way HttpUrl.Builder#addQueryParameter encodes it.
+    private static void appendParameter(StringBuilder url, String name, String value) {
+        url.append('&');
+        if (value == null) {
+            url.append(name);
+        } else if (isSafe(value)) {
+            url.append(name).append('=').append(value);
+        } else {
+            url.append(ENCODER.newBuilder().addQueryParameter(name, value).build().encodedQuery());
+        }
+    }
+
+    // Whether the value has no characters that would be escaped in a query component.
+    private static boolean isSafe(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,360 @@
+/**
+ * ResultReader class decodes the JSON payload of the /v2/getres endpoint into ResultRecord instances.
+ * It reads straight from an Okio BufferedSource and only keeps the record being decoded in memory,
+ * so institution, center and district results with thousands of students are never buffered as a whole.
+ * <p>
+ * The payload is expected to be an envelope object such as {"status":0,"msg":"","res":...}, where the
+ * result is either a single student object or an array of student objects. A bare array of students is
+ * accepted as well.
+ */
+package com.eresult.sdk.data.query;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.ResultRecord;
+import com.eresult.sdk.data.SubjectGrade;
+import com.eresult.sdk.data.query.http.FailureException;
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.squareup.moshi.JsonReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import okio.Buffer;
+import okio.BufferedSource;
+
+public class ResultReader implements Closeable {
+
+    // Moshi's streaming reader on top of the response source.
+    private final JsonReader reader;
+
+    private boolean started;
+    private boolean finished;
+    private boolean topLevelArray;
+    private boolean inRecordArray;
+
+    // Envelope fields, available once they have been read.
+    private int status = -1;
+    private String message;
+
+    /**
+     * Constructor for ResultReader.
+     *
+     * @param source Source holding the JSON payload.
+     */
+    public ResultReader(@NonNull BufferedSource source) {
+        this.reader = JsonReader.of(source);
+        this.reader.setLenient(true);
+    }
+
+    /**
+     * Creates a ResultReader for an already buffered payload.
+     *
+     * @param json JSON payload.
+     * @return ResultReader reading the payload.
+     */
+    public static ResultReader of(@NonNull String json) {
+        return new ResultReader(new Buffer().writeUtf8(json));
+    }
+
+    /**
+     * Decodes the next student of the payload.
+     *
+     * @return Next ResultRecord, or null once the payload is exhausted.
+     * @throws IOException If the source can not be read or is not valid JSON.
+     */
+    public ResultRecord next() throws IOException {
+        if (finished) return null;
+        if (!started) start();
+
+        while (!finished) {
+            if (inRecordArray) {
+                if (reader.hasNext()) {
+                    if (reader.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                        ResultRecord record = readRecord();
+                        if (record != null) return record;
+                    } else {
+                        reader.skipValue();
+                    }
+                    continue;
+                }
+                reader.endArray();
+                inRecordArray = false;
+                if (topLevelArray) finished = true;
+                continue;
+            }
+
+            if (!reader.hasNext()) {
+                reader.endObject();
+                finished = true;
+                break;
+            }
+
+            String name = reader.nextName();
+            JsonReader.Token token = reader.peek();
+            if (token == JsonReader.Token.BEGIN_ARRAY) {
+                reader.beginArray();
+                inRecordArray = true;
+            } else if (token == JsonReader.Token.BEGIN_OBJECT) {
+                ResultRecord record = readRecord();
+                if (record != null) return record;
+            } else {
+                String value = readPrimitive();
+                if ("status".equals(name)) {
+                    status = parseStatus(value);
+                } else if ("msg".equals(name) || "message".equals(name)) {
+                    message = value;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decodes every remaining student and hands them to the listener one by one.
+     *
+     * @param listener Listener receiving the records.
+     * @return Number of records read.
+     * @throws IOException If the source can not be read or is not valid JSON.
+     */
+    public int readAll(@NonNull Listener listener) throws IOException {
+        int count = 0;
+        ResultRecord record;
+        while ((record = next()) != null) {
+            listener.onRecord(record);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the status code of the envelope, 0 meaning success.
+     *
+     * @return Status code, or -1 if it has not been read (yet).
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the message of the envelope, typically set when the request was rejected.
+     *
+     * @return Message, or null if it has not been read (yet).
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Enters the top-level value of the payload.
+    private void start() throws IOException {
+        started = true;
+        JsonReader.Token token = reader.peek();
+        if (token == JsonReader.Token.BEGIN_ARRAY) {
+            reader.beginArray();
+            topLevelArray = true;
+            inRecordArray = true;
+        } else if (token == JsonReader.Token.BEGIN_OBJECT) {
+            reader.beginObject();
+        } else {
+            throw new FailureException(FailureReason.INVALID_RESPONSE, "Unexpected result payload: " + token);
+        }
+    }
+
+    // Reads one student object, returns null if it does not identify a student.
+    private ResultRecord readRecord() throws IOException {
+        ResultRecord.Builder builder = new ResultRecord.Builder();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            JsonReader.Token token = reader.peek();
+            if (token == JsonReader.Token.BEGIN_ARRAY && isSubjectKey(name)) {
+                readSubjects(builder);
+                continue;
+            }
+            if (token == JsonReader.Token.BEGIN_ARRAY || token == JsonReader.Token.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+
+            String value = readPrimitive();
+            if (value == null) continue;
+            switch (name) {
+                case "roll_no":
+                case "roll":
+                    builder.setRoll(value);
+                    break;
+                case "reg_no":
+                case "reg":
+                case "registration":
+                    builder.setRegistration(value);
+                    break;
+                case "name":
+                case "stud_name":
+                    builder.setName(value);
+                    break;
+                case "fname":
+                case "father_name":
+                    builder.setFatherName(value);
+                    break;
+                case "mname":
+                case "mother_name":
+                    builder.setMotherName(value);
+                    break;
+                case "dob":
+                case "birth_date":
+                    builder.setDateOfBirth(value);
+                    break;
+                case "sex":
+                case "gender":
+                    builder.setGender(value);
+                    break;
+                case "stud_group":
+                case "group":
+                    builder.setGroup(value);
+                    break;
+                case "inst_name":
+                case "institute":
+                    builder.setInstitution(value);
+                    break;
+                case "eiin":
+                case "eiin_code":
+                    builder.setEiin(value);
+                    break;
+                case "board_name":
+                case "board":
+                    builder.setBoard(value);
+                    break;
+                case "gpa":
+                case "res_gpa":
+                    builder.setGpa(value);
+                    break;
+                case "result":
+                case "res_status":
+                    builder.setResult(value);
+                    break;
+                default:
+                    if (isSubjectKey(name)) {
+                        parseSubjects(value, builder);
+                    } else {
+                        builder.putExtra(name, value);
+                    }
+                    break;
+            }
+        }
+        reader.endObject();
+        return builder.isIdentified() ? builder.build() : null;
+    }
+
+    // Reads an array of subject objects or "code:grade" strings.
+    private void readSubjects(ResultRecord.Builder builder) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            JsonReader.Token token = reader.peek();
+            if (token == JsonReader.Token.BEGIN_OBJECT) {
+                String code = null, name = null, grade = null, point = null;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String key = reader.nextName();
+                    JsonReader.Token valueToken = reader.peek();
+                    if (valueToken == JsonReader.Token.BEGIN_ARRAY || valueToken == JsonReader.Token.BEGIN_OBJECT) {
+                        reader.skipValue();
+                        continue;
+                    }
+                    String value = readPrimitive();
+                    switch (key) {
+                        case "sub_code":
+                        case "code":
+                            code = value;
+                            break;
+                        case "sub_name":
+                        case "subject":
+                        case "name":
+                            name = value;
+                            break;
+                        case "grade":
+                        case "lg":
+                            grade = value;
+                            break;
+                        case "gp":
+                        case "gpoint":
+                        case "point":
+                            point = value;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                reader.endObject();
+                builder.addSubject(new SubjectGrade(code, name, grade, point));
+            } else if (token == JsonReader.Token.STRING) {
+                parseSubjects(reader.nextString(), builder);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+    }
+
+    // Reads a string, number, boolean or null value as text.
+    private String readPrimitive() throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                return reader.nextNull();
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            default:
+                return reader.nextString();
+        }
+    }
+
+    /**
+     * Parses subjects given as "code:grade" or "code:name:grade" pairs separated by commas.
+     *
+     * @param value   Subject list as sent by the website.
+     * @param builder Builder receiving the subjects.
+     */
+    static void parseSubjects(@NonNull String value, @NonNull ResultRecord.Builder builder) {
+        int start = 0;
+        int length = value.length();
+        while (start < length) {
+            int end = value.indexOf(',', start);
+            if (end < 0) end = length;
+            String entry = value.substring(start, end).trim();
+            start = end + 1;
+            if (entry.isEmpty()) continue;
+
+            int first = entry.indexOf(':');
+            if (first < 0) continue;
+            int last = entry.lastIndexOf(':');
+            String code = entry.substring(0, first).trim();
+            String grade = entry.substring(last + 1).trim();
+            String name = first == last ? null : entry.substring(first + 1, last).trim();
+            builder.addSubject(new SubjectGrade(code, name, grade, null));
+        }
+    }
+
+    private static boolean isSubjectKey(String name) {
+        return "display_details".equals(name) || "subjects".equals(name) || "grades".equals(name);
+    }
+
+    private static int parseStatus(String value) {
+        if (value == null) return -1;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Listener interface receiving decoded records one by one.
+     */
+    public interface Listener {
+        void onRecord(ResultRecord record);
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * ResultRecordFactory class requests exam results like ResultRequestFactory does, but decodes the
+ * response body while it is being downloaded. Each student is handed to a ResultReader.Listener as
+ * soon as it has been read, instead of returning the whole body as a String.
+ */
+package com.eresult.sdk.data.query;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.query.http.FailureException;
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.eresult.sdk.data.query.http.LazyHttp;
+
+import java.io.IOException;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+public class ResultRecordFactory implements LazyHttp.CallFactory<Integer> {
+
+    // Factory building the actual result request.
+    private final ResultRequestFactory requestFactory;
+
+    // Listener receiving the decoded records.
+    private final ResultReader.Listener listener;
+
+    /**
+     * Constructor for ResultRecordFactory.
+     *
+     * @param requestFactory Factory building the result request.
+     * @param listener       Listener receiving the decoded records, called on the network thread.
+     */
+    public ResultRecordFactory(@NonNull ResultRequestFactory requestFactory, @NonNull ResultReader.Listener listener) {
+        this.requestFactory = requestFactory;
+        this.listener = listener;
+    }
+
+    /**
+     * Creates an HTTP call on the provided transport.
+     *
+     * @param transport Call factory creating the call, typically the Transport of the LazyHttp.
+     * @param request   Request instance for the HTTP call.
+     * @return Call instance for the HTTP request.
+     */
+    @Override
+    public Call createCall(@NonNull Call.Factory transport, @NonNull Request request) {
+        return requestFactory.createCall(transport, request);
+    }
+
+    /**
+     * Enqueues the HTTP call for asynchronous execution and sets up callbacks for success or failure.
+     *
+     * @param call         Call instance representing the HTTP request.
+     * @param callback     Callback receiving the number of records read, or the failure.
+     * @param responseType Class type of the expected response.
+     */
+    @Override
+    public void enqueueCall(
+            @NonNull Call call, @NonNull LazyHttp.Callback<Integer> callback, @NonNull Class<Integer> responseType) {
+        call.enqueue(
+                new Callback() {
+                    @Override
+                    public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                        callback.onFailure(call, e);
+                    }
+
+                    @Override
+                    public void onResponse(@NonNull Call call, @NonNull Response response) {
+                        Integer count;
+                        try {
+                            count = parseResponse(response, responseType);
+                        } catch (IOException e) {
+                            callback.onFailure(call, e);
+                            return;
+                        } finally {
+                            response.close();
+                        }
+                        callback.onResponse(call, count);
+                    }
+                });
+    }
+
+    /**
+     * Streams the records of the response body to the listener.
+     *
+     * @param response     Response instance received from the HTTP call.
+     * @param responseType Class type of the expected response.
+     * @return Number of records read.
+     * @throws IOException If the body can not be read, or the request was rejected without any record.
+     */
+    @Override
+    public Integer parseResponse(@NonNull Response response, @NonNull Class<Integer> responseType) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            throw new FailureException(FailureReason.INVALID_RESPONSE, response.message());
+        }
+
+        ResultReader reader = new ResultReader(body.source());
+        try {
+            int count = reader.readAll(listener);
+            if (count == 0 && (reader.getStatus() > 0 || !response.isSuccessful())) {
+                String message = reader.getMessage();
+                throw new FailureException(FailureReason.REJECTED,
+                        message != null && !message.isEmpty() ? message : response.message());
+            }
+            return count;
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -12,15 +12,19 @@ import androidx.annotation.NonNull;
 import com.eresult.sdk.data.BoardType;
 import com.eresult.sdk.data.ExamType;
 import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.data.query.http.FailureException;
+import com.eresult.sdk.data.query.http.FailureReason;
 import com.eresult.sdk.data.query.http.LazyHttp;
+import com.eresult.sdk.data.query.http.Resilience;
+import com.eresult.sdk.metrics.RequestTags;
 
 import java.io.IOException;
 
 import okhttp3.Call;
 import okhttp3.Callback;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 public class ResultRequestFactory implements LazyHttp.CallFactory<String> {
 
@@ -36,6 +40,8 @@ public class ResultRequestFactory implements LazyHttp.CallFactory<String> {
     private final BoardType boardType;
     private final String registrationId;
     private final String studentRollNumber;
+    private final RequestTags tags;
+    private final QueryPlan plan;
 
     /**
      * Constructor for ResultRequestFactory.
@@ -69,28 +75,79 @@ public class ResultRequestFactory implements LazyHttp.CallFactory<String> {
         this.captcha = captcha;
         this.eiinCode = eiinCode;
         this.boardType = boardType;
-        this.subPath = "/v2/getres";
+        this.subPath = QueryPlan.SUB_PATH;
         this.mainCookie = mainCookie;
         this.centerCode = centerCode;
         this.districtCode = districtCode;
         this.registrationId = registrationId;
         this.studentRollNumber = studentRollNumber;
         this.resultType = resultType.getResult();
+        this.tags = new RequestTags(subPath, boardType, examType, resultType);
+        this.plan = null;
     }
 
     /**
-     * Creates an HTTP call using the provided OkHttpClient and Request.
+     * Constructor for ResultRequestFactory executing a compiled QueryPlan, which only needs the
+     * parameters that change between lookups.
      *
-     * @param client  OkHttpClient instance.
-     * @param request Request instance for the HTTP call.
+     * @param plan              Compiled query plan.
+     * @param captcha           Captcha code for result retrieval.
+     * @param mainCookie        Main cookie obtained during captcha request.
+     * @param studentRollNumber Student's roll number.
+     * @param registrationId    Student's registration ID.
+     */
+    public ResultRequestFactory(
+            @NonNull QueryPlan plan,
+            String captcha,
+            String mainCookie,
+            String studentRollNumber,
+            String registrationId) {
+        this.year = plan.year;
+        this.type = plan.examType;
+        this.captcha = captcha;
+        this.eiinCode = plan.eiinCode;
+        this.boardType = plan.boardType;
+        this.subPath = QueryPlan.SUB_PATH;
+        this.mainCookie = mainCookie;
+        this.centerCode = plan.centerCode;
+        this.districtCode = plan.districtCode;
+        this.registrationId = registrationId;
+        this.studentRollNumber = studentRollNumber;
+        this.resultType = plan.resultType.getResult();
+        this.tags = plan.getTags();
+        this.plan = plan;
+    }
+
+    /**
+     * Returns a key identifying the queried result. It is made of the query parameters only, so the
+     * same result asked with different captchas or cookies has the same key.
+     *
+     * @return Query key.
+     */
+    public String getQueryKey() {
+        if (plan != null) {
+            return plan.getQueryKey(studentRollNumber, registrationId);
+        }
+        return type + "|" + year + "|" + boardType + "|" + resultType + "|" + studentRollNumber + "|"
+                + registrationId + "|" + eiinCode + "|" + districtCode + "|" + centerCode;
+    }
+
+    /**
+     * Creates an HTTP call on the provided transport.
+     *
+     * @param transport Call factory creating the call, typically the Transport of the LazyHttp.
+     * @param request   Request instance for the HTTP call.
      * @return Call instance for the HTTP request.
      */
     @Override
-    public Call createCall(@NonNull OkHttpClient client, @NonNull Request request) {
-        return client.newCall(
-                request
-                        .newBuilder()
+    public Call createCall(@NonNull Call.Factory transport, @NonNull Request request) {
+        if (plan != null && plan.getBaseUrl().equals(request.url())) {
+            return transport.newCall(plan.newRequest(mainCookie, studentRollNumber, registrationId, captcha));
+        }
+        return transport.newCall(
+                Resilience.withoutRetries(request.newBuilder())
                         .addHeader("Cookie", mainCookie)
+                        .tag(RequestTags.class, tags)
                         .url(
                                 request
                                         .url()
@@ -130,7 +187,16 @@ public class ResultRequestFactory implements LazyHttp.CallFactory<String> {
 
                     @Override
                     public void onResponse(@NonNull Call call, @NonNull Response response) {
-                        callback.onResponse(call, parseResponse(response, responseType));
+                        String result;
+                        try {
+                            result = parseResponse(response, responseType);
+                        } catch (IOException e) {
+                            callback.onFailure(call, e);
+                            return;
+                        } finally {
+                            response.close();
+                        }
+                        callback.onResponse(call, result);
                     }
                 });
     }
@@ -140,19 +206,19 @@ public class ResultRequestFactory implements LazyHttp.CallFactory<String> {
      *
      * @param response     Response instance received from the HTTP call.
      * @param responseType Class type of the expected response.
-     * @return Parsed response as a String or an error message.
+     * @return Parsed response as a String, or the status message for other types.
+     * @throws IOException If the body can not be read.
      */
     @Override
-    public String parseResponse(Response response, Class<String> responseType) {
+    public String parseResponse(Response response, Class<String> responseType) throws IOException {
         if (responseType == String.class) {
-            assert response.body() != null;
-            try {
-                return response.body().string();
-            } catch (IOException e) {
-                return e.getMessage();
+            ResponseBody body = response.body();
+            if (body == null) {
+                throw new FailureException(FailureReason.INVALID_RESPONSE, response.message());
             }
+            return body.string();
         } else {
             return response.message();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+/**
+ * ResultStreamFactory class requests exam results like ResultRequestFactory does, but hands over a
+ * ResultReader on the still open response body instead of reading it. The receiver pulls the records
+ * at its own pace, the body is only read from the socket as far as records are requested, and it has
+ * to close the reader once done.
+ * <p>
+ * The reader outlives the response handling, so this factory is only suited for asynchronous queries.
+ */
+package com.eresult.sdk.data.query;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.query.http.FailureException;
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.eresult.sdk.data.query.http.LazyHttp;
+
+import java.io.IOException;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+public class ResultStreamFactory implements LazyHttp.CallFactory<ResultReader> {
+
+    // Factory building the actual result request.
+    private final ResultRequestFactory requestFactory;
+
+    /**
+     * Constructor for ResultStreamFactory.
+     *
+     * @param requestFactory Factory building the result request.
+     */
+    public ResultStreamFactory(@NonNull ResultRequestFactory requestFactory) {
+        this.requestFactory = requestFactory;
+    }
+
+    /**
+     * Creates an HTTP call on the provided transport.
+     *
+     * @param transport Call factory creating the call, typically the Transport of the LazyHttp.
+     * @param request   Request instance for the HTTP call.
+     * @return Call instance for the HTTP request.
+     */
+    @Override
+    public Call createCall(@NonNull Call.Factory transport, @NonNull Request request) {
+        return requestFactory.createCall(transport, request);
+    }
+
+    /**
+     * Enqueues the HTTP call for asynchronous execution and sets up callbacks for success or failure.
+     * The response is only closed here if it can not be read, otherwise the reader owns it.
+     *
+     * @param call         Call instance representing the HTTP request.
+     * @param callback     Callback receiving the reader, or the failure.
+     * @param responseType Class type of the expected response.
+     */
+    @Override
+    public void enqueueCall(
+            @NonNull Call call, @NonNull LazyHttp.Callback<ResultReader> callback,
+            @NonNull Class<ResultReader> responseType) {
+        call.enqueue(
+                new Callback() {
+                    @Override
+                    public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                        callback.onFailure(call, e);
+                    }
+
+                    @Override
+                    public void onResponse(@NonNull Call call, @NonNull Response response) {
+                        ResultReader reader;
+                        try {
+                            reader = parseResponse(response, responseType);
+                        } catch (IOException e) {
+                            response.close();
+                            callback.onFailure(call, e);
+                            return;
+                        }
+                        callback.onResponse(call, reader);
+                    }
+                });
+    }
+
+    /**
+     * Opens a reader on the response body without reading any record.
+     *
+     * @param response     Response instance received from the HTTP call.
+     * @param responseType Class type of the expected response.
+     * @return Reader owning the response body.
+     * @throws IOException If the response has no body or the request failed.
+     */
+    @Override
+    public ResultReader parseResponse(
+            @NonNull Response response, @NonNull Class<ResultReader> responseType) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            throw new FailureException(FailureReason.INVALID_RESPONSE, response.message());
+        }
+        if (!response.isSuccessful()) {
+            FailureReason reason = response.code() == 429 ? FailureReason.RATE_LIMITED
+                    : response.code() >= 500 ? FailureReason.SERVER_ERROR : FailureReason.REJECTED;
+            throw new FailureException(reason, response.code() + " " + response.message());
+        }
+        return new ResultReader(body.source());
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * AimdLimit class sizes the concurrency limit by additive increase and multiplicative decrease, like TCP
+ * congestion control: while requests succeed the limit grows by about one per round of requests, and every
+ * drop or request slower than the latency threshold shrinks it by the backoff ratio.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+public class AimdLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private double limit;
+
+    /**
+     * Constructor for AimdLimit with an initial limit of 8, between 1 and 64, a backoff ratio of 0.9 and a
+     * latency threshold of 5 seconds.
+     */
+    public AimdLimit() {
+        this(8, 1, 64, 0.9, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Constructor for AimdLimit.
+     *
+     * @param initialLimit     Limit before any request completed.
+     * @param minLimit         Lowest limit.
+     * @param maxLimit         Highest limit.
+     * @param backoffRatio     Factor the limit is multiplied with on a drop, between 0.5 and 1.
+     * @param latencyThreshold Round trip time counted as a drop.
+     * @param unit             Time unit of the latency threshold.
+     */
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                     long latencyThreshold, @NonNull TimeUnit unit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max!");
+        }
+        if (backoffRatio < 0.5 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0.5 and 1!");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = unit.toNanos(latencyThreshold);
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped || rttNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            // Only grow while the limit is actually used.
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+}
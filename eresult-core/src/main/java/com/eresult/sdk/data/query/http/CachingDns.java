@@ -0,0 +1,106 @@
+/**
+ * CachingDns class caches host name lookups for a configurable time, so repeated requests do not go back
+ * to the system resolver. If a lookup of an expired host fails, the previous addresses keep being used.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Dns;
+
+public class CachingDns implements Dns {
+
+    private final Dns delegate;
+    private final long ttlNanos;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for CachingDns resolving with the system resolver.
+     *
+     * @param ttl  How long resolved addresses are used.
+     * @param unit Time unit of the time to live.
+     */
+    public CachingDns(long ttl, @NonNull TimeUnit unit) {
+        this(Dns.SYSTEM, ttl, unit);
+    }
+
+    /**
+     * Constructor for CachingDns.
+     *
+     * @param delegate Resolver looking up hosts that are not cached.
+     * @param ttl      How long resolved addresses are used.
+     * @param unit     Time unit of the time to live.
+     */
+    public CachingDns(@NonNull Dns delegate, long ttl, @NonNull TimeUnit unit) {
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive!");
+        }
+        this.delegate = delegate;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /**
+     * Returns the process-wide cache used by LazyHttp by default, keeping addresses for 5 minutes.
+     *
+     * @return Default CachingDns instance.
+     */
+    @NonNull
+    public static CachingDns getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    @NonNull
+    @Override
+    public List<InetAddress> lookup(@NonNull String hostname) throws UnknownHostException {
+        Entry entry = entries.get(hostname);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.expiresAt < 0) {
+            return entry.addresses;
+        }
+
+        List<InetAddress> addresses;
+        try {
+            addresses = Collections.unmodifiableList(delegate.lookup(hostname));
+        } catch (UnknownHostException e) {
+            if (entry != null) return entry.addresses;
+            throw e;
+        }
+        entries.put(hostname, new Entry(addresses, now + ttlNanos));
+        return addresses;
+    }
+
+    /**
+     * Removes all cached addresses.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Entry class holds the addresses of a host and when they expire.
+     */
+    private static class Entry {
+        final List<InetAddress> addresses;
+        final long expiresAt;
+
+        Entry(List<InetAddress> addresses, long expiresAt) {
+            this.addresses = addresses;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Holder of the default cache, created on first use.
+     */
+    private static class DefaultHolder {
+        static final CachingDns INSTANCE = new CachingDns(5, TimeUnit.MINUTES);
+    }
+}
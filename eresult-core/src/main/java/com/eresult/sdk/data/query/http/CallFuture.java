@@ -0,0 +1,52 @@
+/**
+ * CallFuture class is a CompletableFuture bound to the OkHttp Call producing its value. Cancelling the
+ * future cancels the in-flight call, so abandoned lookups release their socket and dispatcher slot.
+ * <p>
+ * Stages derived from this future (thenApply, thenCompose, ...) are plain CompletableFutures, cancelling
+ * them does not reach the call. Keep a reference to this future to cancel the request.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+
+import okhttp3.Call;
+
+public class CallFuture<T> extends CompletableFuture<T> {
+
+    // Call producing the value, set once it has been created.
+    private volatile Call call;
+
+    /**
+     * Binds the call producing the value of this future. If the future has already been cancelled,
+     * the call is cancelled right away.
+     *
+     * @param call Call producing the value.
+     */
+    public void attach(@NonNull Call call) {
+        this.call = call;
+        if (isCancelled()) {
+            call.cancel();
+        }
+    }
+
+    /**
+     * Returns the call bound to this future.
+     *
+     * @return Call instance, or null if none has been attached yet.
+     */
+    public Call getCall() {
+        return call;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        Call call = this.call;
+        if (call != null) {
+            call.cancel();
+        }
+        return cancelled;
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * CircuitBreaker class stops sending requests to a website that keeps failing. After a number of
+ * consecutive failures the circuit opens and requests fail right away. Once the open duration has passed,
+ * a single request is let through: if it succeeds the circuit closes, otherwise it opens again.
+ * <p>
+ * The breaker is lock-free, so it can be consulted by every request.
+ */
+package com.eresult.sdk.data.query.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CircuitBreaker {
+
+    /**
+     * State enum represents the states of the breaker.
+     */
+    public enum State {
+        CLOSED,     // Requests are sent
+        OPEN,       // Requests fail right away
+        HALF_OPEN   // A single request is sent to test the website
+    }
+
+    /**
+     * Returned by {@link #tryAcquire()} if the request must not be sent.
+     */
+    public static final long REJECTED = -1;
+
+    // Permit of the single request testing the website in the HALF_OPEN state.
+    private static final long PROBE = -2;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile boolean open;
+    private volatile long openUntil;
+    // Number of times the circuit closed again, the permit of requests sent while it was closed.
+    private volatile long generation;
+
+    /**
+     * Constructor for CircuitBreaker.
+     *
+     * @param failureThreshold Consecutive failures opening the circuit.
+     * @param openDuration     How long the circuit stays open before a request is let through.
+     * @param unit             Time unit of the open duration.
+     */
+    public CircuitBreaker(int failureThreshold, long openDuration, TimeUnit unit) {
+        if (failureThreshold < 1 || openDuration <= 0) {
+            throw new IllegalArgumentException("Failure threshold and open duration must be positive!");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = unit.toNanos(openDuration);
+    }
+
+    /**
+     * Returns a permit to send a request, or REJECTED. The permit of a sent request has to be passed to
+     * exactly one of onSuccess, onFailure or onIgnored once its outcome is known. Only the outcome of the
+     * request testing the website in the HALF_OPEN state closes or reopens the circuit, requests sent
+     * before the circuit opened can not change it afterwards.
+     *
+     * @return Permit of the request, or REJECTED if it must not be sent.
+     */
+    public long tryAcquire() {
+        if (!open) return generation;
+        if (System.nanoTime() - openUntil < 0) return REJECTED;
+        return probing.compareAndSet(false, true) ? PROBE : REJECTED;
+    }
+
+    /**
+     * Reports a request that reached the website and was answered.
+     *
+     * @param permit Permit the request was sent with.
+     */
+    public void onSuccess(long permit) {
+        if (permit == PROBE) {
+            // The test request succeeded, close the circuit for a new generation of requests.
+            consecutiveFailures.set(0);
+            generation++;
+            open = false;
+            probing.set(false);
+        } else if (permit == generation && !open) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    /**
+     * Reports a request that failed because of the website.
+     *
+     * @param permit Permit the request was sent with.
+     */
+    public void onFailure(long permit) {
+        if (permit == PROBE) {
+            // The test request failed, keep the circuit open for another period.
+            openUntil = System.nanoTime() + openNanos;
+            probing.set(false);
+        } else if (permit == generation && !open && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openUntil = System.nanoTime() + openNanos;
+            open = true;
+        }
+    }
+
+    /**
+     * Reports a request whose outcome says nothing about the website, e.g. because it was cancelled.
+     *
+     * @param permit Permit the request was sent with.
+     */
+    public void onIgnored(long permit) {
+        if (permit == PROBE) {
+            probing.set(false);
+        }
+    }
+
+    /**
+     * Returns the current state of the breaker.
+     *
+     * @return State of the breaker.
+     */
+    public State getState() {
+        if (!open) return State.CLOSED;
+        return System.nanoTime() - openUntil < 0 ? State.OPEN : State.HALF_OPEN;
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * ConcurrencyLimiter class limits the number of requests in flight to a limit adapted by a LimitAlgorithm
+ * from the measured round trip times and drops, so the requests sent keep close to what the website can
+ * handle without pushing its latency up. Requests beyond the limit wait in a bounded queue or are rejected
+ * right away with FailureReason.LIMIT_EXCEEDED, depending on the Overflow policy.
+ * <p>
+ * Share one limiter between all LazyHttp instances sending requests to the same website. It is lock-free,
+ * the algorithm is updated by one completing request at a time and skipped while another one updates it.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrencyLimiter {
+
+    /**
+     * Overflow enum represents what happens to requests beyond the limit.
+     */
+    public enum Overflow {
+        QUEUE,      // Wait until a request completes, rejected once the queue is full
+        REJECT      // Rejected right away
+    }
+
+    private final LimitAlgorithm algorithm;
+    private final Overflow overflow;
+    private final int maxQueued;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private volatile int limit;
+
+    /**
+     * Private constructor for ConcurrencyLimiter.
+     *
+     * @param builder Builder instance holding the configuration.
+     */
+    private ConcurrencyLimiter(@NonNull Builder builder) {
+        this.algorithm = builder.algorithm != null ? builder.algorithm : new AimdLimit();
+        this.overflow = builder.overflow;
+        this.maxQueued = builder.maxQueued;
+        this.limit = algorithm.getLimit();
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return Number of requests allowed in flight.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     *
+     * @return Requests in flight.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of requests waiting for the limit.
+     *
+     * @return Requests waiting.
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Starts a task once the limit allows it. The task has to call release exactly once when its request
+     * completes.
+     *
+     * @param task     Task starting the request.
+     * @param rejected Task run instead if the request is rejected.
+     */
+    void execute(@NonNull Runnable task, @NonNull Runnable rejected) {
+        if (queued.get() == 0 && tryAcquire()) {
+            task.run();
+            return;
+        }
+        if (overflow == Overflow.REJECT || queued.incrementAndGet() > maxQueued) {
+            if (overflow == Overflow.QUEUE) queued.decrementAndGet();
+            rejected.run();
+            return;
+        }
+        queue.offer(task);
+        drain();
+    }
+
+    /**
+     * Releases the slot of a completed request and updates the limit with its measurements.
+     *
+     * @param rttNanos Round trip time of the request in nanoseconds.
+     * @param dropped  Whether the request timed out or was refused by an overloaded website.
+     */
+    void release(long rttNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        if (sampleLock.tryLock()) {
+            try {
+                algorithm.onSample(rttNanos, current, dropped);
+                limit = Math.max(1, algorithm.getLimit());
+            } finally {
+                sampleLock.unlock();
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Releases a slot that was granted but not used, without updating the limit.
+     */
+    void releaseUnused() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    // Starts waiting tasks while the limit allows it.
+    private void drain() {
+        while (!queue.isEmpty() && tryAcquire()) {
+            Runnable task = queue.poll();
+            if (task == null) {
+                inFlight.decrementAndGet();
+                // A task may have been queued after the check, try again.
+                if (queue.isEmpty()) return;
+                continue;
+            }
+            queued.decrementAndGet();
+            task.run();
+        }
+    }
+
+    // Takes a slot if fewer requests than the limit are in flight.
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) return false;
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Builder class for constructing ConcurrencyLimiter instances.
+     */
+    public static class Builder {
+        private LimitAlgorithm algorithm;
+        private Overflow overflow = Overflow.QUEUE;
+        private int maxQueued = 256;
+
+        /**
+         * Sets the algorithm adapting the limit. Defaults to an AimdLimit.
+         *
+         * @param algorithm LimitAlgorithm instance, e.g. an AimdLimit or a GradientLimit.
+         * @return Builder instance.
+         */
+        public Builder algorithm(@NonNull LimitAlgorithm algorithm) {
+            this.algorithm = algorithm;
+            return this;
+        }
+
+        /**
+         * Queues requests beyond the limit, rejecting them once the queue holds the given number of requests.
+         *
+         * @param maxQueued Maximum number of waiting requests.
+         * @return Builder instance.
+         */
+        public Builder queue(int maxQueued) {
+            if (maxQueued < 1) {
+                throw new IllegalArgumentException("Max queued requests must be at least 1!");
+            }
+            this.overflow = Overflow.QUEUE;
+            this.maxQueued = maxQueued;
+            return this;
+        }
+
+        /**
+         * Rejects requests beyond the limit right away.
+         *
+         * @return Builder instance.
+         */
+        public Builder reject() {
+            this.overflow = Overflow.REJECT;
+            return this;
+        }
+
+        /**
+         * Builds and returns a ConcurrencyLimiter instance with the specified parameters.
+         *
+         * @return ConcurrencyLimiter instance.
+         */
+        public ConcurrencyLimiter build() {
+            return new ConcurrencyLimiter(this);
+        }
+    }
+}
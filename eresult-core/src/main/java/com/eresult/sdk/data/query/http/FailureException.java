@@ -0,0 +1,55 @@
+/**
+ * FailureException class is an IOException carrying the FailureReason of a failed request.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+public class FailureException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final FailureReason reason;
+
+    /**
+     * Constructor for FailureException.
+     *
+     * @param reason  Reason of the failure.
+     * @param message Message describing the failure.
+     */
+    public FailureException(@NonNull FailureReason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    /**
+     * Constructor for FailureException.
+     *
+     * @param reason  Reason of the failure.
+     * @param message Message describing the failure.
+     * @param cause   Exception the failure was caused by.
+     */
+    public FailureException(@NonNull FailureReason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+    }
+
+    /**
+     * Returns the exception as a FailureException, classifying it with {@link FailureReason#of} if needed.
+     *
+     * @param e Exception of a failed request.
+     * @return The exception itself, or a FailureException caused by it.
+     */
+    @NonNull
+    public static FailureException of(@NonNull IOException e) {
+        if (e instanceof FailureException) return (FailureException) e;
+        return new FailureException(FailureReason.of(e), e.getMessage(), e);
+    }
+
+    @NonNull
+    public FailureReason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * FailureReason enum represents why a request failed, so callers can react to the kind of failure instead
+ * of parsing messages, e.g. ask for a new captcha on REJECTED or show a retry button on SERVER_ERROR.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import com.squareup.moshi.JsonDataException;
+import com.squareup.moshi.JsonEncodingException;
+
+import java.io.InterruptedIOException;
+
+public enum FailureReason {
+    NETWORK,            // The website could not be reached or the connection broke
+    TIMEOUT,            // A timeout or the deadline of the request passed
+    CANCELED,           // The request was cancelled
+    SERVER_ERROR,       // The website answered with a server error, even after retrying
+    RATE_LIMITED,       // The website answered with 429 Too Many Requests, even after retrying
+    CIRCUIT_OPEN,       // The request was not sent, since the website is failing
+    LIMIT_EXCEEDED,     // The request was not sent, since too many requests are in flight
+    REJECTED,           // The website rejected the request, e.g. a wrong captcha or an unknown student
+    INVALID_RESPONSE;   // The response could not be understood
+
+    /**
+     * Returns the reason of a failure.
+     *
+     * @param failure Failure of a request, e.g. the exception a CallFuture completed with.
+     * @return FailureReason of the failure.
+     */
+    @NonNull
+    public static FailureReason of(@NonNull Throwable failure) {
+        if (failure instanceof FailureException) {
+            return ((FailureException) failure).getReason();
+        }
+        if (failure instanceof JsonDataException || failure instanceof JsonEncodingException) {
+            return INVALID_RESPONSE;
+        }
+        if (failure instanceof InterruptedIOException) {
+            // OkHttp fails calls cancelled by their call timeout with "timeout".
+            return "Canceled".equals(failure.getMessage()) ? CANCELED : TIMEOUT;
+        }
+        if ("Canceled".equals(failure.getMessage())) {
+            return CANCELED;
+        }
+        return NETWORK;
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * GradientLimit class sizes the concurrency limit from the ratio of the long-term to the recent round trip
+ * time. While the website answers as fast as usual the limit grows by a small queue allowance, once
+ * requests start queueing upstream and the recent round trip time rises, the limit shrinks in proportion.
+ * Drops halve the gradient.
+ */
+package com.eresult.sdk.data.query.http;
+
+public class GradientLimit implements LimitAlgorithm {
+
+    // Weights of the moving averages of the round trip time and of the limit.
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 1.0 / 600;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    /**
+     * Constructor for GradientLimit with an initial limit of 8, between 1 and 64.
+     */
+    public GradientLimit() {
+        this(8, 1, 64);
+    }
+
+    /**
+     * Constructor for GradientLimit.
+     *
+     * @param initialLimit Limit before any request completed.
+     * @param minLimit     Lowest limit.
+     * @param maxLimit     Highest limit.
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max!");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (shortRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+        } else {
+            shortRtt += (rttNanos - shortRtt) * SHORT_WEIGHT;
+            longRtt += (rttNanos - longRtt) * LONG_WEIGHT;
+        }
+
+        // After a lasting slowdown the long-term average catches up, so it decays towards the recent one.
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+
+        // Only grow while the limit is actually used.
+        if (!dropped && inFlight * 2 < limit) return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+        if (dropped) gradient *= 0.5;
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * InMemoryTransport class answers calls in process with a Handler instead of the network, so the SDK can
+ * be exercised in tests and benchmarks without sockets, TLS or a server. Synchronous calls run the handler
+ * on the calling thread, enqueued calls on a shared pool of daemon threads or the given executor.
+ * <p>
+ * The timeout of a call is checked once the handler has answered: a handler taking longer fails the call
+ * with an InterruptedIOException, as a timed out network call would.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+
+public class InMemoryTransport implements Transport {
+
+    private final Handler handler;
+    private final Executor executor;
+
+    /**
+     * Constructor for InMemoryTransport, answering enqueued calls on a shared pool of daemon threads.
+     *
+     * @param handler Handler answering the requests.
+     */
+    public InMemoryTransport(@NonNull Handler handler) {
+        this(handler, HandlerExecutor.INSTANCE);
+    }
+
+    /**
+     * Constructor for InMemoryTransport.
+     *
+     * @param handler  Handler answering the requests.
+     * @param executor Executor running the handler for enqueued calls.
+     */
+    public InMemoryTransport(@NonNull Handler handler, @NonNull Executor executor) {
+        this.handler = handler;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a response to the given request, with status 200 and the current time as the time it was sent
+     * and received. The handler adds the body, headers or another status code.
+     *
+     * @param request Request being answered.
+     * @return Response builder.
+     */
+    @NonNull
+    public static Response.Builder newResponse(@NonNull Request request) {
+        long now = System.currentTimeMillis();
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .sentRequestAtMillis(now)
+                .receivedResponseAtMillis(now);
+    }
+
+    @NonNull
+    @Override
+    public Call newCall(@NonNull Request request) {
+        return new InMemoryCall(request);
+    }
+
+    /**
+     * Returns no address, requests never leave the process.
+     *
+     * @param host Host name.
+     * @return Empty list.
+     */
+    @NonNull
+    @Override
+    public List<InetAddress> lookup(@NonNull String host) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int idleConnectionCount() {
+        return -1;
+    }
+
+    /**
+     * Handler interface answering the requests of an InMemoryTransport. It is called concurrently for
+     * concurrent calls.
+     */
+    public interface Handler {
+        /**
+         * Answers a request, typically with a response started by {@link #newResponse(Request)}.
+         *
+         * @param request Request to answer.
+         * @return Response to the request.
+         * @throws IOException To fail the call, e.g. to simulate a network failure.
+         */
+        @NonNull
+        Response handle(@NonNull Request request) throws IOException;
+    }
+
+    /**
+     * Call answered by the handler.
+     */
+    private final class InMemoryCall implements Call {
+        private final Request request;
+        private final AtomicBoolean executed = new AtomicBoolean();
+        private final Timeout timeout = new Timeout();
+        private volatile boolean canceled;
+
+        InMemoryCall(Request request) {
+            this.request = request;
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @NonNull
+        @Override
+        public Response execute() throws IOException {
+            markExecuted();
+            return respond();
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback callback) {
+            markExecuted();
+            executor.execute(() -> {
+                Response response;
+                try {
+                    response = respond();
+                } catch (IOException e) {
+                    callback.onFailure(this, e);
+                    return;
+                }
+                try {
+                    callback.onResponse(this, response);
+                } catch (IOException ignored) {
+                    // Like OkHttp, a failing callback is not told about its own failure.
+                }
+            });
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed.get();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return timeout;
+        }
+
+        @NonNull
+        @Override
+        public Call clone() {
+            return new InMemoryCall(request);
+        }
+
+        private void markExecuted() {
+            if (!executed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Already Executed");
+            }
+        }
+
+        private Response respond() throws IOException {
+            if (canceled) {
+                throw new IOException("Canceled");
+            }
+            long start = System.nanoTime();
+            Response response = handler.handle(request);
+            if (canceled) {
+                response.close();
+                throw new IOException("Canceled");
+            }
+            if (timeout.timeoutNanos() > 0 && System.nanoTime() - start > timeout.timeoutNanos()) {
+                response.close();
+                throw new InterruptedIOException("timeout");
+            }
+            if (response.body() == null) {
+                response = response.newBuilder().body(ResponseBody.create(new byte[0], null)).build();
+            }
+            return response;
+        }
+    }
+
+    // Lazily created pool of daemon threads answering enqueued calls.
+    private static class HandlerExecutor {
+        static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "InMemoryTransport");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,784 @@
+/**
+ * LazyHttp class provides a simplified interface for making synchronous and asynchronous HTTP requests.
+ * It encapsulates OkHttp functionality and allows the creation of HTTP calls, synchronous queries, and
+ * asynchronous queries with callbacks. The calls run on a Transport, by default the shared OkHttpClient.
+ * <p>
+ * Created by Anindya Das on 1/17/24 11:20 AM.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.metrics.FlightRecorder;
+import com.eresult.sdk.metrics.Metrics;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class LazyHttp {
+
+    // Base URL for the HTTP requests.
+    private final HttpUrl httpUrl;
+
+    // Transport running the calls, by default on the shared OkHttpClient.
+    private final Transport transport;
+
+    // Limiter of the asynchronous requests in flight, or null.
+    private final ConcurrencyLimiter limiter;
+
+    // Maximum number of idle connections of the shared pool.
+    private final int maxIdleConnections;
+
+    // Maximum number of concurrent requests per host of the shared dispatcher.
+    private final int maxRequestsPerHost;
+
+    /**
+     * Private constructor for LazyHttp.
+     *
+     * @param builder Builder instance to build LazyHttp with required parameters.
+     */
+    private LazyHttp(@NonNull Builder builder) {
+        if (builder.transport != null) {
+            this.transport = builder.transport;
+        } else {
+            Transport shared = new OkHttpTransport(SharedClients.obtain(builder));
+            this.transport = builder.resilience != null ? new RetryingTransport(shared, builder.resilience) : shared;
+        }
+        this.httpUrl = HttpUrl.parse(builder.baseUrl);
+        this.limiter = builder.limiter;
+        this.maxIdleConnections = builder.maxIdleConnections;
+        this.maxRequestsPerHost = builder.maxRequestsPerHost;
+    }
+
+    /**
+     * Returns the base URL of the HTTP requests.
+     *
+     * @return Base URL, e.g. "https://eboardresults.com/".
+     */
+    @NonNull
+    public String getBaseUrl() {
+        return httpUrl.toString();
+    }
+
+    /**
+     * Makes a synchronous HTTP query using the provided CallFactory and response type.
+     *
+     * @param callFactory  CallFactory instance responsible for creating HTTP calls.
+     * @param responseType Class type of the expected response.
+     * @param <T>          Type parameter representing the expected response type.
+     * @return The parsed response.
+     * @throws RuntimeException If the request fails, caused by the FailureException.
+     */
+    public <T> T query(@NonNull CallFactory<T> callFactory, Class<T> responseType) {
+        try {
+            return execute(callFactory, responseType, 0, TimeUnit.MILLISECONDS);
+        } catch (FailureException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Makes a synchronous HTTP query on the calling thread. The SDK holds no monitor while the thread
+     * waits for a limiter slot or the call, though the transport may: OkHttp 4.12 still waits inside
+     * synchronized blocks, e.g. on HTTP/2 streams, which pins the carrier of a virtual thread. With a
+     * ConcurrencyLimiter, the calling thread waits for a slot first.
+     *
+     * @param callFactory  CallFactory instance responsible for creating HTTP calls.
+     * @param responseType Class type of the expected response.
+     * @param timeout      Deadline covering the wait for a limiter slot and the call, zero for the client's
+     *                     call timeout.
+     * @param unit         Time unit of the deadline.
+     * @param <T>          Type parameter representing the expected response type.
+     * @return The parsed response.
+     * @throws FailureException If the request fails, with the reason of the failure.
+     */
+    public <T> T execute(
+            @NonNull CallFactory<T> callFactory, Class<T> responseType, long timeout, @NonNull TimeUnit unit)
+            throws FailureException {
+        long deadline = timeout > 0 ? System.nanoTime() + unit.toNanos(timeout) : 0;
+        if (limiter != null) {
+            new Permit(limiter).acquire(deadline);
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            // Created within the try, so a failing factory still hands back the limiter slot.
+            Request request = new Request.Builder().url(httpUrl).build();
+            Call call = callFactory.createCall(transport, request);
+            if (deadline != 0) {
+                call.timeout().timeout(Math.max(1, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            try (Response response = call.execute()) {
+                return callFactory.parseResponse(response, responseType);
+            }
+        } catch (IOException e) {
+            FailureException failure = FailureException.of(e);
+            dropped = isDropped(failure.getReason());
+            throw failure;
+        } finally {
+            if (limiter != null) {
+                limiter.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+
+    /**
+     * Makes an asynchronous HTTP query using the provided CallFactory, response type, and callback.
+     *
+     * @param callFactory  CallFactory instance responsible for creating HTTP calls.
+     * @param responseType Class type of the expected response.
+     * @param callback     Callback to handle the asynchronous response or failure.
+     * @param <T>          Type parameter representing the expected response type.
+     * @return The enqueued call, which can be cancelled.
+     */
+    public <T> Call queryAsync(@NonNull CallFactory<T> callFactory, Class<T> responseType, Callback<T> callback) {
+        return queryAsync(callFactory, responseType, 0, TimeUnit.MILLISECONDS, callback);
+    }
+
+    /**
+     * Makes an asynchronous HTTP query that fails with an InterruptedIOException once the deadline has passed.
+     * The deadline covers the whole call, from DNS resolution to reading the response body.
+     *
+     * @param callFactory  CallFactory instance responsible for creating HTTP calls.
+     * @param responseType Class type of the expected response.
+     * @param timeout      Deadline of the call, zero for the client's call timeout.
+     * @param unit         Time unit of the deadline.
+     * @param callback     Callback to handle the asynchronous response or failure.
+     * @param <T>          Type parameter representing the expected response type.
+     * @return The enqueued call, which can be cancelled.
+     */
+    public <T> Call queryAsync(
+            @NonNull CallFactory<T> callFactory, Class<T> responseType, long timeout, @NonNull TimeUnit unit, Callback<T> callback) {
+        Request request = new Request.Builder().url(httpUrl).build();
+        Call call = callFactory.createCall(transport, request);
+        if (timeout > 0) {
+            call.timeout().timeout(timeout, unit);
+        }
+        if (limiter == null) {
+            callFactory.enqueueCall(call, callback, responseType);
+        } else {
+            limiter.execute(
+                    () -> callFactory.enqueueCall(call, new LimitedCallback<>(limiter, callback), responseType),
+                    () -> callback.onFailure(call, new FailureException(
+                            FailureReason.LIMIT_EXCEEDED, "Too many requests in flight")));
+        }
+        return call;
+    }
+
+    /**
+     * Prepares the shared client for a wave of requests, e.g. ahead of a scheduled result publication: the
+     * host name is resolved into the DNS cache, and up to the given number of connections is opened with
+     * concurrent HEAD requests of the base URL and left idle in the shared pool. The answers also show
+     * whether the website is reachable.
+     * <p>
+     * Over HTTP/1.1 every concurrent request needs a connection of its own. Over HTTP/2 the requests are
+     * multiplexed onto a single connection, which is all later requests need as well. The result reports
+     * the connections actually added to the pool, counted from its idle connections before and after.
+     * <p>
+     * Idle connections are kept for the keep-alive duration of the pool, so prewarm within that time
+     * before the requests are expected. The number of requests is capped by the pool size and the
+     * dispatcher's max requests per host.
+     *
+     * @param connections Number of connections to open, zero to only resolve the host name.
+     * @param callback    Callback receiving the outcome, or the failure if the host can not be resolved.
+     */
+    public void prewarm(int connections, @NonNull Callback<PrewarmResult> callback) {
+        if (connections < 0) {
+            throw new IllegalArgumentException("Connections can not be negative!");
+        }
+        long start = System.nanoTime();
+        int idleBefore = transport.idleConnectionCount();
+        PrewarmExecutor.INSTANCE.execute(() -> {
+            List<InetAddress> addresses;
+            try {
+                addresses = transport.lookup(httpUrl.host());
+            } catch (IOException e) {
+                callback.onFailure(null, e);
+                return;
+            }
+
+            int count = Math.min(connections, Math.min(maxIdleConnections, maxRequestsPerHost));
+            if (count == 0) {
+                callback.onResponse(null, new PrewarmResult(addresses, 0, 0, transport.idleConnectionCount(),
+                        -1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                return;
+            }
+
+            // Responses are held open until every request has been answered, so over HTTP/1.1 each one
+            // needs its own connection. Closing them afterwards returns the connections to the pool.
+            List<Response> responses = new ArrayList<>(count);
+            int[] pending = {count};
+            Request request = new Request.Builder().url(httpUrl).head().build();
+            for (int i = 0; i < count; i++) {
+                transport.newCall(request).enqueue(new okhttp3.Callback() {
+                    @Override
+                    public void onResponse(@NonNull Call call, @NonNull Response response) {
+                        complete(response);
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                        complete(null);
+                    }
+
+                    private void complete(Response response) {
+                        synchronized (responses) {
+                            if (response != null) responses.add(response);
+                            if (--pending[0] > 0) return;
+                        }
+                        int statusCode = responses.isEmpty() ? -1 : responses.get(0).code();
+                        for (Response held : responses) {
+                            held.close();
+                        }
+                        int idleAfter = transport.idleConnectionCount();
+                        // Transports not telling their idle connections count an answer as a connection.
+                        int warmed = idleBefore < 0 || idleAfter < 0
+                                ? responses.size() : Math.max(0, idleAfter - idleBefore);
+                        callback.onResponse(null, new PrewarmResult(addresses, responses.size(), warmed,
+                                idleAfter, statusCode, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Callback releasing the limiter slot of a request before handing over its outcome.
+     */
+    private static final class LimitedCallback<T> implements Callback<T> {
+        private final ConcurrencyLimiter limiter;
+        private final Callback<T> callback;
+        private final long start = System.nanoTime();
+
+        LimitedCallback(ConcurrencyLimiter limiter, Callback<T> callback) {
+            this.limiter = limiter;
+            this.callback = callback;
+        }
+
+        @Override
+        public void onResponse(Call call, T response) {
+            limiter.release(System.nanoTime() - start, false);
+            callback.onResponse(call, response);
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            limiter.release(System.nanoTime() - start, isDropped(FailureReason.of(e)));
+            callback.onFailure(call, e);
+        }
+    }
+
+    // Only failures caused by an overloaded website count as drops.
+    private static boolean isDropped(FailureReason reason) {
+        return reason == FailureReason.TIMEOUT || reason == FailureReason.SERVER_ERROR
+                || reason == FailureReason.RATE_LIMITED;
+    }
+
+    /**
+     * Slot of the limiter a blocking query waits for. A slot granted after the wait was given up is
+     * handed back right away.
+     */
+    private static final class Permit {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int REJECTED = 2;
+        private static final int ABANDONED = 3;
+
+        private final ConcurrencyLimiter limiter;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        Permit(ConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        // Waits for the slot until the deadline of System.nanoTime(), zero for no deadline.
+        void acquire(long deadline) throws FailureException {
+            limiter.execute(this::grant, this::reject);
+            boolean done;
+            boolean interrupted = false;
+            try {
+                if (deadline == 0) {
+                    latch.await();
+                    done = true;
+                } else {
+                    done = latch.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                done = false;
+                interrupted = true;
+            }
+            if (!done && state.compareAndSet(WAITING, ABANDONED)) {
+                throw new FailureException(interrupted ? FailureReason.CANCELED : FailureReason.TIMEOUT,
+                        interrupted ? "Canceled" : "Timed out waiting for a request slot");
+            }
+            if (state.get() == REJECTED) {
+                throw new FailureException(FailureReason.LIMIT_EXCEEDED, "Too many requests in flight");
+            }
+        }
+
+        private void grant() {
+            if (state.compareAndSet(WAITING, GRANTED)) {
+                latch.countDown();
+            } else {
+                limiter.releaseUnused();
+            }
+        }
+
+        private void reject() {
+            state.compareAndSet(WAITING, REJECTED);
+            latch.countDown();
+        }
+    }
+
+    /**
+     * Callback interface for handling asynchronous HTTP responses or failures.
+     *
+     * @param <T> Type parameter representing the expected response type.
+     */
+    public interface Callback<T> {
+        void onResponse(Call call, T response);
+
+        void onFailure(Call call, IOException e);
+    }
+
+    /**
+     * CallFactory interface for creating, enqueueing, and parsing HTTP calls.
+     *
+     * @param <T> Type parameter representing the expected response type.
+     */
+    public interface CallFactory<T> {
+        /**
+         * Builds the request on top of the base request and creates its call. The call factory is the
+         * Transport of the LazyHttp, or any other OkHttp Call.Factory such as an OkHttpClient.
+         *
+         * @param transport Call factory creating the call.
+         * @param request   Base request, holding the base URL.
+         * @return Call, which has not been executed yet.
+         */
+        Call createCall(Call.Factory transport, Request request);
+
+        void enqueueCall(Call call, Callback<T> callback, Class<T> responseType);
+
+        T parseResponse(Response response, Class<T> responseType) throws IOException;
+    }
+
+    /**
+     * Holder for the process-wide OkHttpClient instances. Clients are created lazily on first use and
+     * shared by every LazyHttp with the same pool and dispatcher settings, so their connections, TLS
+     * sessions and dispatcher threads are reused instead of being created per instance.
+     */
+    private static final class SharedClients {
+        private static final ConcurrentMap<String, OkHttpClient> CLIENTS = new ConcurrentHashMap<>();
+        // Most instances are built with the default metrics, recorder and resilience, so a few derived
+        // clients cover them. The least recently used one is dropped to not keep custom ones alive forever.
+        private static final int MAX_DERIVED = 16;
+        private static final Map<DerivedKey, OkHttpClient> DERIVED =
+                new LinkedHashMap<DerivedKey, OkHttpClient>(MAX_DERIVED, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<DerivedKey, OkHttpClient> eldest) {
+                        return size() > MAX_DERIVED;
+                    }
+                };
+
+        /**
+         * Returns the shared client matching the builder's pool and dispatcher settings, with the
+         * builder's timeouts, metrics, flight recorder and resilience applied on top of it. Builders with
+         * the same configuration get the same derived client.
+         *
+         * @param builder Builder holding the requested configuration.
+         * @return OkHttpClient sharing its connection pool and dispatcher with other instances.
+         */
+        static OkHttpClient obtain(@NonNull Builder builder) {
+            String key = builder.maxIdleConnections + ":" + builder.keepAliveMillis + ":"
+                    + builder.maxRequests + ":" + builder.maxRequestsPerHost;
+
+            OkHttpClient shared = CLIENTS.get(key);
+            if (shared == null) {
+                Dispatcher dispatcher = new Dispatcher();
+                dispatcher.setMaxRequests(builder.maxRequests);
+                dispatcher.setMaxRequestsPerHost(builder.maxRequestsPerHost);
+
+                OkHttpClient created = new OkHttpClient.Builder()
+                        .dispatcher(dispatcher)
+                        .connectionPool(new ConnectionPool(
+                                builder.maxIdleConnections, builder.keepAliveMillis, TimeUnit.MILLISECONDS))
+                        .build();
+                shared = CLIENTS.putIfAbsent(key, created);
+                if (shared == null) {
+                    shared = created;
+                }
+            }
+
+            // Timeouts, event listeners and interceptors are per-call settings, a derived client keeps the
+            // shared pool and dispatcher.
+            if (builder.metrics == null && builder.recorder == null && builder.resilience == null && builder.dns == null
+                    && shared.connectTimeoutMillis() == builder.connectTimeoutMillis
+                    && shared.readTimeoutMillis() == builder.readTimeoutMillis
+                    && shared.writeTimeoutMillis() == builder.writeTimeoutMillis
+                    && shared.callTimeoutMillis() == builder.callTimeoutMillis) {
+                return shared;
+            }
+            DerivedKey derivedKey = new DerivedKey(shared, builder);
+            synchronized (DERIVED) {
+                OkHttpClient client = DERIVED.get(derivedKey);
+                if (client == null) {
+                    client = derive(shared, builder);
+                    DERIVED.put(derivedKey, client);
+                }
+                return client;
+            }
+        }
+
+        private static OkHttpClient derive(OkHttpClient shared, Builder builder) {
+            OkHttpClient.Builder derived = shared.newBuilder()
+                    .connectTimeout(builder.connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .readTimeout(builder.readTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .writeTimeout(builder.writeTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .callTimeout(builder.callTimeoutMillis, TimeUnit.MILLISECONDS);
+            if (builder.metrics != null || builder.recorder != null) {
+                derived.eventListenerFactory(new MetricsEventListener.Factory(builder.metrics, builder.recorder));
+            }
+            if (builder.resilience != null) {
+                derived.addInterceptor(new ResilienceInterceptor(builder.resilience));
+            }
+            if (builder.dns != null) {
+                derived.dns(builder.dns);
+            }
+            return derived.build();
+        }
+    }
+
+    /**
+     * DerivedKey class identifies the configuration of a derived client. Metrics, recorder, resilience and
+     * DNS are compared by identity, as they hold state of their own.
+     */
+    private static final class DerivedKey {
+        private final OkHttpClient shared;
+        private final long connectTimeoutMillis;
+        private final long readTimeoutMillis;
+        private final long writeTimeoutMillis;
+        private final long callTimeoutMillis;
+        private final Metrics metrics;
+        private final FlightRecorder recorder;
+        private final Resilience resilience;
+        private final CachingDns dns;
+
+        DerivedKey(OkHttpClient shared, Builder builder) {
+            this.shared = shared;
+            this.connectTimeoutMillis = builder.connectTimeoutMillis;
+            this.readTimeoutMillis = builder.readTimeoutMillis;
+            this.writeTimeoutMillis = builder.writeTimeoutMillis;
+            this.callTimeoutMillis = builder.callTimeoutMillis;
+            this.metrics = builder.metrics;
+            this.recorder = builder.recorder;
+            this.resilience = builder.resilience;
+            this.dns = builder.dns;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof DerivedKey)) return false;
+            DerivedKey other = (DerivedKey) o;
+            return shared == other.shared
+                    && connectTimeoutMillis == other.connectTimeoutMillis
+                    && readTimeoutMillis == other.readTimeoutMillis
+                    && writeTimeoutMillis == other.writeTimeoutMillis
+                    && callTimeoutMillis == other.callTimeoutMillis
+                    && metrics == other.metrics
+                    && recorder == other.recorder
+                    && resilience == other.resilience
+                    && dns == other.dns;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(shared);
+            result = 31 * result + Long.hashCode(connectTimeoutMillis);
+            result = 31 * result + Long.hashCode(readTimeoutMillis);
+            result = 31 * result + Long.hashCode(writeTimeoutMillis);
+            result = 31 * result + Long.hashCode(callTimeoutMillis);
+            result = 31 * result + System.identityHashCode(metrics);
+            result = 31 * result + System.identityHashCode(recorder);
+            result = 31 * result + System.identityHashCode(resilience);
+            result = 31 * result + System.identityHashCode(dns);
+            return result;
+        }
+    }
+
+    // Lazily created pool of daemon threads resolving the host name while prewarming.
+    private static class PrewarmExecutor {
+        static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "LazyHttp prewarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Builder class for constructing LazyHttp instances.
+     * <p>
+     * All instances share one lazily created OkHttpClient per pool and dispatcher configuration.
+     * The pool, dispatcher and timeouts default to OkHttp's values. Requests are retried and paused with
+     * {@link Resilience#getDefault()}, recorded in {@link FlightRecorder#getDefault()} and resolved through
+     * {@link CachingDns#getDefault()} unless set otherwise, and neither metrics nor a concurrency limiter
+     * are set.
+     */
+    public static class Builder {
+        private String baseUrl;
+        private int maxIdleConnections = 5;
+        private long keepAliveMillis = TimeUnit.MINUTES.toMillis(5);
+        private int maxRequests = 64;
+        private int maxRequestsPerHost = 5;
+        private long connectTimeoutMillis = TimeUnit.SECONDS.toMillis(10);
+        private long readTimeoutMillis = TimeUnit.SECONDS.toMillis(10);
+        private long writeTimeoutMillis = TimeUnit.SECONDS.toMillis(10);
+        private long callTimeoutMillis = 0;
+        private Metrics metrics;
+        private FlightRecorder recorder = FlightRecorder.getDefault();
+        private Resilience resilience = Resilience.getDefault();
+        private ConcurrencyLimiter limiter;
+        private CachingDns dns = CachingDns.getDefault();
+        private Transport transport;
+
+        /**
+         * Sets the base URL for HTTP requests.
+         *
+         * @param baseUrl Base URL for HTTP requests.
+         * @return Builder instance.
+         */
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        /**
+         * Sets the size and keep-alive of the shared connection pool.
+         *
+         * @param maxIdleConnections Maximum number of idle connections kept in the pool, 0 to keep none.
+         * @param keepAliveDuration  How long an idle connection is kept before it is evicted.
+         * @param unit               Time unit of the keep-alive duration.
+         * @return Builder instance.
+         */
+        public Builder connectionPool(int maxIdleConnections, long keepAliveDuration, @NonNull TimeUnit unit) {
+            if (maxIdleConnections < 0 || keepAliveDuration <= 0) {
+                throw new IllegalArgumentException("Connection pool size can not be negative and keep-alive must be positive!");
+            }
+            this.maxIdleConnections = maxIdleConnections;
+            this.keepAliveMillis = unit.toMillis(keepAliveDuration);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests the shared dispatcher runs concurrently.
+         *
+         * @param maxRequests Maximum number of concurrent requests.
+         * @return Builder instance.
+         */
+        public Builder maxRequests(int maxRequests) {
+            if (maxRequests < 1) {
+                throw new IllegalArgumentException("Max requests must be at least 1!");
+            }
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests the shared dispatcher runs concurrently for each host.
+         *
+         * @param maxRequestsPerHost Maximum number of concurrent requests per host.
+         * @return Builder instance.
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            if (maxRequestsPerHost < 1) {
+                throw new IllegalArgumentException("Max requests per host must be at least 1!");
+            }
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Sets the connect timeout for new connections. Zero means no timeout.
+         *
+         * @param timeout Timeout value.
+         * @param unit    Time unit of the timeout.
+         * @return Builder instance.
+         */
+        public Builder connectTimeout(long timeout, @NonNull TimeUnit unit) {
+            this.connectTimeoutMillis = checkTimeout(timeout, unit);
+            return this;
+        }
+
+        /**
+         * Sets the read timeout for connections. Zero means no timeout.
+         *
+         * @param timeout Timeout value.
+         * @param unit    Time unit of the timeout.
+         * @return Builder instance.
+         */
+        public Builder readTimeout(long timeout, @NonNull TimeUnit unit) {
+            this.readTimeoutMillis = checkTimeout(timeout, unit);
+            return this;
+        }
+
+        /**
+         * Sets the write timeout for connections. Zero means no timeout.
+         *
+         * @param timeout Timeout value.
+         * @param unit    Time unit of the timeout.
+         * @return Builder instance.
+         */
+        public Builder writeTimeout(long timeout, @NonNull TimeUnit unit) {
+            this.writeTimeoutMillis = checkTimeout(timeout, unit);
+            return this;
+        }
+
+        /**
+         * Sets the timeout for a complete call, from DNS resolution to reading the body. Zero means no timeout.
+         *
+         * @param timeout Timeout value.
+         * @param unit    Time unit of the timeout.
+         * @return Builder instance.
+         */
+        public Builder callTimeout(long timeout, @NonNull TimeUnit unit) {
+            this.callTimeoutMillis = checkTimeout(timeout, unit);
+            return this;
+        }
+
+        /**
+         * Sets the metrics receiving the phase timings and counters of every request.
+         *
+         * @param metrics Metrics instance, or null for none.
+         * @return Builder instance.
+         */
+        public Builder metrics(Metrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets the recorder keeping the last exchanges for diagnosis. Defaults to
+         * {@link FlightRecorder#getDefault()}.
+         *
+         * @param recorder FlightRecorder instance, or null to record nothing.
+         * @return Builder instance.
+         */
+        public Builder flightRecorder(FlightRecorder recorder) {
+            this.recorder = recorder;
+            return this;
+        }
+
+        /**
+         * Sets how failing requests are retried and when requests to a failing website are paused.
+         * Defaults to {@link Resilience#getDefault()}.
+         *
+         * @param resilience Resilience instance, or null to neither retry nor pause requests.
+         * @return Builder instance.
+         */
+        public Builder resilience(Resilience resilience) {
+            this.resilience = resilience;
+            return this;
+        }
+
+        /**
+         * Sets the limiter adapting the number of asynchronous requests in flight. The dispatcher limits
+         * still apply, so they should be at least the highest limit of the limiter.
+         *
+         * @param limiter ConcurrencyLimiter instance, or null for the fixed dispatcher limits only.
+         * @return Builder instance.
+         */
+        public Builder concurrencyLimiter(ConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+            return this;
+        }
+
+        /**
+         * Sets the cache of host name lookups. Defaults to {@link CachingDns#getDefault()}. Connections are
+         * only shared between clients using the same cache.
+         *
+         * @param dns CachingDns instance, or null to resolve every new connection with the system resolver.
+         * @return Builder instance.
+         */
+        public Builder dnsCache(CachingDns dns) {
+            this.dns = dns;
+            return this;
+        }
+
+        /**
+         * Sets the transport running the calls instead of the shared OkHttpClient, e.g. an InMemoryTransport
+         * in tests. The pool, dispatcher, timeout, metrics, flight recorder, resilience and DNS cache settings
+         * only configure the shared OkHttpClient, any other transport brings its own. Deadlines of single calls and the
+         * concurrency limiter apply to every transport.
+         *
+         * @param transport Transport instance, or null for the shared OkHttpClient.
+         * @return Builder instance.
+         */
+        public Builder transport(Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        private static long checkTimeout(long timeout, TimeUnit unit) {
+            if (timeout < 0) {
+                throw new IllegalArgumentException("Timeout can not be negative!");
+            }
+            return unit.toMillis(timeout);
+        }
+
+        /**
+         * Builds and returns a LazyHttp instance with the specified parameters.
+         *
+         * @return Fully initialized LazyHttp instance.
+         * @throws IllegalArgumentException if the base URL is not set.
+         */
+        public LazyHttp build() {
+            if (baseUrl == null || baseUrl.isEmpty()) {
+                throw new IllegalArgumentException("Base url must be set!");
+            }
+            return new LazyHttp(this);
+        }
+    }
+
+    /**
+     * Result class represents the result of an HTTP query, containing the response and cookie information.
+     *
+     * @param <T> Type parameter representing the expected response type.
+     */
+    public static class Result<T> {
+        public final T response;
+        public final String cookie;
+
+        /**
+         * Constructor for Result class.
+         *
+         * @param response Parsed response from the HTTP query.
+         * @param cookie   Cookie information obtained from the response header.
+         */
+        public Result(T response, String cookie) {
+            this.cookie = cookie;
+            this.response = response;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+/**
+ * LimitAlgorithm interface decides how many requests may be in flight, from the round trip times and
+ * drops of the completed requests. Implementations are only called by one thread at a time.
+ */
+package com.eresult.sdk.data.query.http;
+
+public interface LimitAlgorithm {
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return Number of requests allowed in flight, at least 1.
+     */
+    int getLimit();
+
+    /**
+     * Updates the limit with a completed request.
+     *
+     * @param rttNanos Round trip time of the request in nanoseconds.
+     * @param inFlight Number of requests that were in flight when it completed.
+     * @param dropped  Whether the request timed out or was refused by an overloaded website.
+     */
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+}
@@ -0,0 +1,201 @@
+/**
+ * MetricsEventListener class times the phases of a single call from OkHttp's events and reports them,
+ * together with the call's counters, to a Metrics instance, and the whole exchange to a FlightRecorder once
+ * the call has ended. The tags are taken from the RequestTags the CallFactory attached to the request, or
+ * from the URL path if it has none.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.metrics.FlightRecorder;
+import com.eresult.sdk.metrics.Metrics;
+import com.eresult.sdk.metrics.RequestTags;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+final class MetricsEventListener extends EventListener {
+
+    // Metrics ignoring all measurements, for clients only recording exchanges.
+    private static final Metrics NO_METRICS = new Metrics() {
+        @Override
+        public void recordLatency(@NonNull Phase phase, @NonNull RequestTags tags, long nanos) {
+        }
+
+        @Override
+        public void incrementCounter(@NonNull Counter counter, @NonNull RequestTags tags, long amount) {
+        }
+    };
+
+    private final Metrics metrics;
+    private final FlightRecorder recorder;
+    private final RequestTags tags;
+    private final HttpUrl url;
+
+    // Start times of the phases in progress. Events of a call are delivered one after another.
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestStart;
+    private long bodyStart;
+
+    // Measurements of the exchange for the flight recorder, -1 for phases that did not happen.
+    private long startMillis;
+    private long dnsNanos = -1;
+    private long connectNanos = -1;
+    private long tlsNanos = -1;
+    private long firstByteNanos = -1;
+    private long bodyNanos = -1;
+    private int attempts;
+    private int status;
+    private long bytesSent;
+    private long bytesReceived;
+
+    private MetricsEventListener(Metrics metrics, FlightRecorder recorder, RequestTags tags, HttpUrl url) {
+        this.metrics = metrics;
+        this.recorder = recorder;
+        this.tags = tags;
+        this.url = url;
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        callStart = System.nanoTime();
+        startMillis = System.currentTimeMillis();
+        metrics.incrementCounter(Metrics.Counter.CALLS, tags, 1);
+    }
+
+    @Override
+    public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+        dnsNanos = System.nanoTime() - dnsStart;
+        metrics.recordLatency(Metrics.Phase.DNS, tags, dnsNanos);
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+        connectStart = System.nanoTime();
+        metrics.incrementCounter(Metrics.Counter.CONNECTIONS, tags, 1);
+    }
+
+    @Override
+    public void secureConnectStart(@NonNull Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(@NonNull Call call, Handshake handshake) {
+        tlsNanos = System.nanoTime() - secureConnectStart;
+        metrics.recordLatency(Metrics.Phase.TLS, tags, tlsNanos);
+    }
+
+    @Override
+    public void connectEnd(
+            @NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, Protocol protocol) {
+        connectNanos = System.nanoTime() - connectStart;
+        metrics.recordLatency(Metrics.Phase.CONNECT, tags, connectNanos);
+    }
+
+    @Override
+    public void requestHeadersStart(@NonNull Call call) {
+        requestStart = System.nanoTime();
+        attempts++;
+    }
+
+    @Override
+    public void requestBodyEnd(@NonNull Call call, long byteCount) {
+        bytesSent += byteCount;
+        metrics.incrementCounter(Metrics.Counter.BYTES_SENT, tags, byteCount);
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull Call call) {
+        firstByteNanos = System.nanoTime() - requestStart;
+        metrics.recordLatency(Metrics.Phase.TIME_TO_FIRST_BYTE, tags, firstByteNanos);
+    }
+
+    @Override
+    public void responseHeadersEnd(@NonNull Call call, @NonNull Response response) {
+        status = response.code();
+    }
+
+    @Override
+    public void responseBodyStart(@NonNull Call call) {
+        bodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(@NonNull Call call, long byteCount) {
+        bodyNanos = System.nanoTime() - bodyStart;
+        bytesReceived += byteCount;
+        metrics.recordLatency(Metrics.Phase.BODY, tags, bodyNanos);
+        metrics.incrementCounter(Metrics.Counter.BYTES_RECEIVED, tags, byteCount);
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        long callNanos = System.nanoTime() - callStart;
+        metrics.recordLatency(Metrics.Phase.CALL, tags, callNanos);
+        record(callNanos, null);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        long callNanos = System.nanoTime() - callStart;
+        metrics.recordLatency(Metrics.Phase.CALL, tags, callNanos);
+        metrics.incrementCounter(Metrics.Counter.FAILURES, tags, 1);
+        record(callNanos, FailureReason.of(ioe));
+    }
+
+    private void record(long callNanos, FailureReason failure) {
+        if (recorder != null) {
+            recorder.record(tags, url, startMillis, dnsNanos, connectNanos, tlsNanos, firstByteNanos, bodyNanos,
+                    callNanos, attempts, status, bytesSent, bytesReceived, failure);
+        }
+    }
+
+    /**
+     * Factory creating a MetricsEventListener for every call of a client.
+     */
+    static final class Factory implements EventListener.Factory {
+        private final Metrics metrics;
+        private final FlightRecorder recorder;
+
+        /**
+         * Constructor for Factory.
+         *
+         * @param metrics  Metrics to report to, or null for none.
+         * @param recorder Recorder of the exchanges, or null for none.
+         */
+        Factory(Metrics metrics, FlightRecorder recorder) {
+            this.metrics = metrics != null ? metrics : NO_METRICS;
+            this.recorder = recorder;
+        }
+
+        @NonNull
+        @Override
+        public EventListener create(@NonNull Call call) {
+            RequestTags tags = call.request().tag(RequestTags.class);
+            if (tags == null) {
+                tags = RequestTags.of(call.request().url().encodedPath());
+            }
+            return new MetricsEventListener(metrics, recorder, tags, call.request().url());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * OkHttpTransport class runs calls on an OkHttpClient. It is the default transport of LazyHttp, which
+ * applies its pool, dispatcher, timeout, metrics, resilience and DNS cache settings to the client.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+public class OkHttpTransport implements Transport {
+
+    private final OkHttpClient client;
+
+    /**
+     * Constructor for OkHttpTransport.
+     *
+     * @param client OkHttpClient executing the calls.
+     */
+    public OkHttpTransport(@NonNull OkHttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Returns the client executing the calls.
+     *
+     * @return OkHttpClient instance.
+     */
+    @NonNull
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    @NonNull
+    @Override
+    public Call newCall(@NonNull Request request) {
+        return client.newCall(request);
+    }
+
+    @NonNull
+    @Override
+    public List<InetAddress> lookup(@NonNull String host) throws IOException {
+        return client.dns().lookup(host);
+    }
+
+    @Override
+    public int idleConnectionCount() {
+        return client.connectionPool().idleConnectionCount();
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * PrewarmResult class describes the outcome of LazyHttp#prewarm: the resolved addresses of the website,
+ * how many requests it answered, how many connections they added to the shared pool and how many idle
+ * connections the pool holds afterwards.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.net.InetAddress;
+import java.util.List;
+
+public final class PrewarmResult {
+    private final List<InetAddress> addresses;
+    private final int answeredRequests;
+    private final int warmedConnections;
+    private final int idleConnections;
+    private final int statusCode;
+    private final long elapsedMillis;
+
+    /**
+     * Constructor for PrewarmResult.
+     *
+     * @param addresses         Resolved addresses of the website.
+     * @param answeredRequests  Number of requests that were answered.
+     * @param warmedConnections Number of connections added to the shared pool, fewer than the answered
+     *                          requests over HTTP/2 or if connections were reused.
+     * @param idleConnections   Idle connections of the shared pool afterwards.
+     * @param statusCode        Status code of the first answer, or -1 if none.
+     * @param elapsedMillis     Duration of the prewarming in milliseconds.
+     */
+    public PrewarmResult(@NonNull List<InetAddress> addresses, int answeredRequests, int warmedConnections,
+                         int idleConnections, int statusCode, long elapsedMillis) {
+        this.addresses = addresses;
+        this.answeredRequests = answeredRequests;
+        this.warmedConnections = warmedConnections;
+        this.idleConnections = idleConnections;
+        this.statusCode = statusCode;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @NonNull
+    public List<InetAddress> getAddresses() {
+        return addresses;
+    }
+
+    public int getAnsweredRequests() {
+        return answeredRequests;
+    }
+
+    public int getWarmedConnections() {
+        return warmedConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Returns whether the website answered any of the prewarming requests.
+     *
+     * @return True if the website is reachable.
+     */
+    public boolean isReachable() {
+        return statusCode > 0;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "PrewarmResult{addresses=" + addresses + ", answeredRequests=" + answeredRequests
+                + ", warmedConnections=" + warmedConnections
+                + ", idleConnections=" + idleConnections + ", statusCode=" + statusCode
+                + ", elapsedMillis=" + elapsedMillis + "}";
+    }
+}
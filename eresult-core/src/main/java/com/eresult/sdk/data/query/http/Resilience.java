@@ -0,0 +1,220 @@
+/**
+ * Resilience class configures how LazyHttp deals with an overloaded website: idempotent requests failing
+ * with a network error, a server error or 429 are retried with exponential backoff and full jitter, as
+ * long as the shared RetryBudget allows it, and a CircuitBreaker per host fails requests right away
+ * while the website keeps failing.
+ * <p>
+ * Result requests are not retried, although they are GET requests: they answer the captcha of their
+ * session, and a retry after a lost response would answer it again and be rejected for it. Factories
+ * mark such requests with {@link #withoutRetries(Request.Builder)}.
+ * <p>
+ * The backoff is waited out on a scheduler, not on a dispatcher thread: an enqueued call is sent again
+ * once the delay has passed, so other requests keep running meanwhile. The deadline of a call covers all
+ * its attempts, and cancelling the call stops the retries.
+ * <p>
+ * Requests that still fail with a server error or 429 fail with a FailureException instead of returning
+ * the error page.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Request;
+
+public class Resilience {
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final RetryBudget retryBudget;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor for Resilience.
+     *
+     * @param builder Builder instance holding the configuration.
+     */
+    private Resilience(@NonNull Builder builder) {
+        this.maxRetries = builder.maxRetries;
+        this.baseDelayMillis = builder.baseDelayMillis;
+        this.maxDelayMillis = builder.maxDelayMillis;
+        this.retryBudget = builder.retryBudget != null ? builder.retryBudget : new RetryBudget(0.1, 10);
+        this.failureThreshold = builder.failureThreshold;
+        this.openMillis = builder.openMillis;
+    }
+
+    /**
+     * Returns the process-wide default configuration: up to 2 retries from 200 ms to 5 s apart, one retry
+     * per ten requests, and a circuit opening for 10 s after 5 consecutive failures.
+     *
+     * @return Default Resilience instance.
+     */
+    @NonNull
+    public static Resilience getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    @NonNull
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Returns the circuit breaker of a host.
+     *
+     * @param host Host name of the website.
+     * @return CircuitBreaker instance of the host.
+     */
+    @NonNull
+    public CircuitBreaker getCircuitBreaker(@NonNull String host) {
+        CircuitBreaker breaker = breakers.get(host);
+        if (breaker == null) {
+            CircuitBreaker created = new CircuitBreaker(failureThreshold, openMillis, TimeUnit.MILLISECONDS);
+            breaker = breakers.putIfAbsent(host, created);
+            if (breaker == null) breaker = created;
+        }
+        return breaker;
+    }
+
+    /**
+     * Returns the delay before a retry, chosen at random up to the exponentially growing backoff.
+     *
+     * @param retry Number of the retry, starting at 0.
+     * @return Delay in milliseconds.
+     */
+    long backoffMillis(int retry) {
+        long ceiling = baseDelayMillis << Math.min(retry, 20);
+        return (long) (Math.random() * Math.min(maxDelayMillis, ceiling));
+    }
+
+    long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    /**
+     * Marks a request as one that must not be retried, e.g. a result request answering a captcha.
+     *
+     * @param builder Builder of the request.
+     * @return The same builder, for method chaining.
+     */
+    @NonNull
+    public static Request.Builder withoutRetries(@NonNull Request.Builder builder) {
+        return builder.tag(NoRetries.class, NoRetries.INSTANCE);
+    }
+
+    // Returns whether the request may be retried, unless its factory marked it otherwise.
+    static boolean isRetryAllowed(Request request) {
+        return request.tag(NoRetries.class) == null;
+    }
+
+    // Returns whether a status code means the website is overloaded or failing.
+    static boolean isRetryable(int code) {
+        return code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    /**
+     * Tag of requests that must not be retried.
+     */
+    private static final class NoRetries {
+        static final NoRetries INSTANCE = new NoRetries();
+    }
+
+    /**
+     * Holder of the default configuration, shared by all instances so its retry budget is global.
+     */
+    private static class DefaultHolder {
+        static final Resilience INSTANCE = new Builder().build();
+    }
+
+    /**
+     * Builder class for constructing Resilience instances.
+     */
+    public static class Builder {
+        private int maxRetries = 2;
+        private long baseDelayMillis = 200;
+        private long maxDelayMillis = 5000;
+        private RetryBudget retryBudget;
+        private int failureThreshold = 5;
+        private long openMillis = TimeUnit.SECONDS.toMillis(10);
+
+        /**
+         * Sets the maximum number of retries of a request.
+         *
+         * @param maxRetries Maximum number of retries, zero to never retry.
+         * @return Builder instance.
+         */
+        public Builder maxRetries(int maxRetries) {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("Max retries can not be negative!");
+            }
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets the backoff before the first retry and the maximum backoff. The backoff doubles with every
+         * retry, the actual delay is chosen at random up to it.
+         *
+         * @param baseDelay Backoff before the first retry.
+         * @param maxDelay  Maximum backoff.
+         * @param unit      Time unit of the delays.
+         * @return Builder instance.
+         */
+        public Builder backoff(long baseDelay, long maxDelay, @NonNull TimeUnit unit) {
+            if (baseDelay <= 0 || maxDelay < baseDelay) {
+                throw new IllegalArgumentException("Delays must be positive, the max delay at least the base delay!");
+            }
+            this.baseDelayMillis = unit.toMillis(baseDelay);
+            this.maxDelayMillis = unit.toMillis(maxDelay);
+            return this;
+        }
+
+        /**
+         * Sets the budget retries are taken from. Share one budget between all configurations sending
+         * requests to the same website.
+         *
+         * @param retryBudget RetryBudget instance.
+         * @return Builder instance.
+         */
+        public Builder retryBudget(@NonNull RetryBudget retryBudget) {
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
+        /**
+         * Sets when the circuit of a host opens and for how long.
+         *
+         * @param failureThreshold Consecutive failures opening the circuit.
+         * @param openDuration     How long the circuit stays open before a request is let through.
+         * @param unit             Time unit of the open duration.
+         * @return Builder instance.
+         */
+        public Builder circuitBreaker(int failureThreshold, long openDuration, @NonNull TimeUnit unit) {
+            if (failureThreshold < 1 || openDuration <= 0) {
+                throw new IllegalArgumentException("Failure threshold and open duration must be positive!");
+            }
+            this.failureThreshold = failureThreshold;
+            this.openMillis = unit.toMillis(openDuration);
+            return this;
+        }
+
+        /**
+         * Builds and returns a Resilience instance with the specified parameters.
+         *
+         * @return Resilience instance.
+         */
+        public Resilience build() {
+            return new Resilience(this);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * ResilienceInterceptor class consults the CircuitBreaker of the host for every request of a client and
+ * reports the outcome back to it. Retries are not sent from here, they are scheduled by the
+ * RetryingTransport once an attempt has ended, so no dispatcher thread waits for a backoff.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+final class ResilienceInterceptor implements Interceptor {
+
+    private final Resilience resilience;
+
+    ResilienceInterceptor(@NonNull Resilience resilience) {
+        this.resilience = resilience;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        CircuitBreaker breaker = resilience.getCircuitBreaker(request.url().host());
+        long permit = breaker.tryAcquire();
+        if (permit == CircuitBreaker.REJECTED) {
+            throw new FailureException(FailureReason.CIRCUIT_OPEN,
+                    "Requests to " + request.url().host() + " are paused after repeated failures");
+        }
+
+        // Stays null if the request was cancelled or failed with anything but an IOException.
+        Boolean answered = null;
+        try {
+            Response response = chain.proceed(request);
+            answered = !Resilience.isRetryable(response.code());
+            return response;
+        } catch (IOException e) {
+            if (!chain.call().isCanceled()) answered = false;
+            throw e;
+        } finally {
+            if (answered == null) {
+                breaker.onIgnored(permit);
+            } else if (answered) {
+                breaker.onSuccess(permit);
+            } else {
+                breaker.onFailure(permit);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * RetryBudget class limits retries to a share of the requests sent, so retries can not multiply the load
+ * on a struggling website. Every request adds a fraction of a token to the budget, every retry takes a
+ * whole token. Once the budget is used up, failures are returned without retrying until enough new
+ * requests have been sent.
+ * <p>
+ * The budget is lock-free and meant to be shared by all requests to a website.
+ */
+package com.eresult.sdk.data.query.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RetryBudget {
+
+    // Tokens are counted in thousandths.
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    /**
+     * Constructor for RetryBudget.
+     *
+     * @param retryRatio Retries allowed per request sent, e.g. 0.1 for one retry per ten requests.
+     * @param maxRetries Retries the budget can save up, which are also available right away.
+     */
+    public RetryBudget(double retryRatio, int maxRetries) {
+        if (retryRatio < 0 || maxRetries < 0) {
+            throw new IllegalArgumentException("Retry ratio and max retries can not be negative!");
+        }
+        this.deposit = Math.round(retryRatio * TOKEN);
+        this.maxBalance = maxRetries * TOKEN;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Adds the share of a request sent to the budget.
+     */
+    public void onRequest() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) return;
+        } while (!balance.compareAndSet(current, Math.min(maxBalance, current + deposit)));
+    }
+
+    /**
+     * Takes a retry from the budget.
+     *
+     * @return True if the retry may be sent.
+     */
+    public boolean tryRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) return false;
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    /**
+     * Returns the number of retries currently available.
+     *
+     * @return Available retries.
+     */
+    public int getAvailableRetries() {
+        return (int) (balance.get() / TOKEN);
+    }
+}
@@ -0,0 +1,307 @@
+/**
+ * RetryingTransport class applies the retries of a Resilience configuration on top of another transport.
+ * Every attempt is a call of its own on that transport: a failed enqueued attempt is cloned and enqueued
+ * again from a scheduler once its backoff has passed, so the backoff holds neither a dispatcher thread nor
+ * a slot of the host. Synchronous calls wait for the backoff on the calling thread.
+ * <p>
+ * The deadline set on a call covers all of its attempts, and cancelling it cancels the running attempt or
+ * the scheduled retry. Server errors and 429 left after the last attempt fail the call with a
+ * FailureException.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+
+final class RetryingTransport implements Transport {
+
+    // Backoff of synchronous calls is slept in slices, so cancelled calls stop waiting quickly.
+    private static final long SLEEP_SLICE_MILLIS = 25;
+
+    private final Transport transport;
+    private final Resilience resilience;
+
+    RetryingTransport(@NonNull Transport transport, @NonNull Resilience resilience) {
+        this.transport = transport;
+        this.resilience = resilience;
+    }
+
+    @NonNull
+    @Override
+    public Call newCall(@NonNull Request request) {
+        return new RetryingCall(request);
+    }
+
+    @NonNull
+    @Override
+    public List<InetAddress> lookup(@NonNull String host) throws IOException {
+        return transport.lookup(host);
+    }
+
+    @Override
+    public int idleConnectionCount() {
+        return transport.idleConnectionCount();
+    }
+
+    /**
+     * Call sending its request until it succeeds, fails for good or runs out of retries.
+     */
+    private final class RetryingCall implements Call {
+        private final Request request;
+        private final boolean idempotent;
+        private final AtomicBoolean executed = new AtomicBoolean();
+        private final Timeout timeout = new Timeout();
+        private volatile boolean canceled;
+        // Deadline of all attempts in System.nanoTime(), zero for none. Set once the call is executed.
+        private volatile long deadline;
+
+        // Running attempt and scheduled retry, guarded by the instance.
+        private Call attempt;
+        private ScheduledFuture<?> scheduled;
+        private Callback callback;
+
+        RetryingCall(Request request) {
+            this.request = request;
+            this.idempotent = ("GET".equals(request.method()) || "HEAD".equals(request.method()))
+                    && Resilience.isRetryAllowed(request);
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @NonNull
+        @Override
+        public Response execute() throws IOException {
+            start();
+            for (int retry = 0; ; retry++) {
+                Response response = null;
+                IOException failure = null;
+                try {
+                    response = newAttempt().execute();
+                } catch (IOException e) {
+                    failure = e;
+                }
+                long delay = retryDelay(retry, response, failure);
+                if (delay < 0) {
+                    return result(response, failure);
+                }
+                if (response != null) response.close();
+                sleep(delay);
+            }
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback callback) {
+            start();
+            synchronized (this) {
+                this.callback = callback;
+            }
+            send(0, callback);
+        }
+
+        @Override
+        public void cancel() {
+            Call running;
+            ScheduledFuture<?> retry;
+            Callback pending;
+            synchronized (this) {
+                if (canceled) return;
+                canceled = true;
+                running = attempt;
+                retry = scheduled;
+                pending = callback;
+            }
+            if (running != null) {
+                running.cancel();
+            }
+            if (retry != null && retry.cancel(false)) {
+                // No attempt is running, so the cancellation has to be reported here.
+                RetryScheduler.INSTANCE.execute(() -> pending.onFailure(this, new IOException("Canceled")));
+            }
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed.get();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return timeout;
+        }
+
+        @NonNull
+        @Override
+        public Call clone() {
+            return new RetryingCall(request);
+        }
+
+        private void start() {
+            if (!executed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Already Executed");
+            }
+            if (timeout.timeoutNanos() > 0) {
+                deadline = System.nanoTime() + timeout.timeoutNanos();
+            }
+            resilience.getRetryBudget().onRequest();
+        }
+
+        // Enqueues an attempt, scheduling the next one if it fails and may be retried.
+        private void send(int retry, Callback callback) {
+            Call call;
+            try {
+                call = newAttempt();
+            } catch (IOException e) {
+                callback.onFailure(this, e);
+                return;
+            }
+            call.enqueue(new Callback() {
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
+                    long delay = retryDelay(retry, response, null);
+                    if (delay >= 0) {
+                        response.close();
+                        schedule(retry, delay, callback);
+                        return;
+                    }
+                    Response result;
+                    try {
+                        result = result(response, null);
+                    } catch (IOException e) {
+                        callback.onFailure(RetryingCall.this, e);
+                        return;
+                    }
+                    callback.onResponse(RetryingCall.this, result);
+                }
+
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                    long delay = retryDelay(retry, null, e);
+                    if (delay >= 0) {
+                        schedule(retry, delay, callback);
+                    } else {
+                        callback.onFailure(RetryingCall.this, e);
+                    }
+                }
+            });
+        }
+
+        // Sends the next attempt once the backoff has passed.
+        private void schedule(int retry, long delay, Callback callback) {
+            synchronized (this) {
+                if (!canceled) {
+                    scheduled = RetryScheduler.INSTANCE.schedule(
+                            () -> send(retry + 1, callback), delay, TimeUnit.MILLISECONDS);
+                    return;
+                }
+            }
+            callback.onFailure(this, new IOException("Canceled"));
+        }
+
+        // Creates the call of the next attempt, with the time left until the deadline as its timeout.
+        private Call newAttempt() throws IOException {
+            synchronized (this) {
+                if (canceled) throw new IOException("Canceled");
+                Call call = transport.newCall(request);
+                if (deadline != 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) throw new InterruptedIOException("timeout");
+                    call.timeout().timeout(remaining, TimeUnit.NANOSECONDS);
+                }
+                attempt = call;
+                scheduled = null;
+                return call;
+            }
+        }
+
+        // Returns the delay before the next attempt, or -1 if the outcome of this one is final.
+        private long retryDelay(int retry, Response response, IOException failure) {
+            if (canceled || !idempotent || retry >= resilience.getMaxRetries()) return -1;
+            if (response != null && !Resilience.isRetryable(response.code())) return -1;
+            if (failure != null) {
+                FailureReason reason = FailureReason.of(failure);
+                if (reason == FailureReason.CANCELED || reason == FailureReason.CIRCUIT_OPEN) return -1;
+            }
+
+            long delay = resilience.backoffMillis(retry);
+            String retryAfter = response != null ? response.header("Retry-After") : null;
+            if (retryAfter != null) {
+                try {
+                    long requested = Long.parseLong(retryAfter.trim()) * 1000;
+                    // The website asks to wait too long.
+                    if (requested > resilience.getMaxDelayMillis()) return -1;
+                    delay = Math.max(delay, requested);
+                } catch (NumberFormatException ignored) {
+                    // An HTTP date, fall back to the backoff.
+                }
+            }
+            if (deadline != 0 && System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay) - deadline >= 0) {
+                return -1;
+            }
+            return resilience.getRetryBudget().tryRetry() ? delay : -1;
+        }
+
+        // Waits for the backoff of a synchronous call, unless the call is cancelled meanwhile.
+        private void sleep(long millis) throws IOException {
+            long end = System.nanoTime() + millis * 1_000_000;
+            long remaining;
+            while ((remaining = end - System.nanoTime()) > 0) {
+                if (canceled) throw new IOException("Canceled");
+                try {
+                    Thread.sleep(Math.min(SLEEP_SLICE_MILLIS, remaining / 1_000_000 + 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted during retry backoff");
+                }
+            }
+        }
+    }
+
+    // Returns the final outcome of a call, failing it if the website still answered with an error.
+    private static Response result(Response response, IOException failure) throws IOException {
+        if (failure != null) throw failure;
+        int code = response.code();
+        if (!Resilience.isRetryable(code)) return response;
+        String message = "HTTP " + code + " " + response.message();
+        response.close();
+        throw new FailureException(code == 429 ? FailureReason.RATE_LIMITED : FailureReason.SERVER_ERROR, message);
+    }
+
+    // Lazily created daemon thread sending retries once their backoff has passed.
+    private static class RetryScheduler {
+        static final ScheduledThreadPoolExecutor INSTANCE = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "LazyHttp retry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * SingleFlight class coalesces identical queries while they are in flight. The first query of a key starts
+ * the request, every identical query arriving before it completes joins that request instead of starting
+ * its own, and all of them receive the same response.
+ * <p>
+ * Outcomes the Policy does not share, e.g. a rejected captcha of the first query, are not handed to the
+ * joined queries, nor are cancellations and timeouts of the first query's own call. They are executed
+ * again instead, the first of them starting a new request. A joined query keeps its own deadline: once it
+ * passes, only that query fails, and a query executed again gets the time left until it.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+
+public class SingleFlight<T> {
+
+    // Queries in flight by key.
+    private final ConcurrentMap<String, Flight<T>> flights = new ConcurrentHashMap<>();
+    private final Policy<T> policy;
+
+    /**
+     * Constructor for SingleFlight.
+     *
+     * @param policy Policy deciding which responses are shared with joined queries.
+     */
+    public SingleFlight(@NonNull Policy<T> policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Starts the query, or joins the identical query in flight.
+     *
+     * @param key           Key of the query, equal for queries returning the same response.
+     * @param timeoutMillis Deadline of the query, zero for none.
+     * @param query         Query starting the request.
+     * @param callback      Callback to handle the response or failure.
+     * @param future        Future the calls started for a joined query are attached to, or null.
+     * @return The started call, or null if the query joined a call in flight. Joined queries can not
+     * cancel the shared call.
+     */
+    public Call execute(@NonNull String key, long timeoutMillis, @NonNull Query<T> query,
+                        @NonNull LazyHttp.Callback<T> callback, CallFuture<?> future) {
+        long deadline = timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+        return execute(key, new Joined<>(query, callback, future, deadline));
+    }
+
+    private Call execute(String key, Joined<T> query) {
+        Flight<T> flight = new Flight<>();
+        Flight<T> existing;
+        while ((existing = flights.putIfAbsent(key, flight)) != null) {
+            if (existing.join(query)) {
+                query.scheduleTimeout(existing);
+                return null;
+            }
+            // The flight completed meanwhile, it is about to be removed.
+            flights.remove(key, existing);
+        }
+
+        Call call;
+        try {
+            call = query.query.start(query.remainingMillis(), new LazyHttp.Callback<T>() {
+                @Override
+                public void onResponse(Call call, T response) {
+                    flights.remove(key, flight);
+                    query.callback.onResponse(call, response);
+                    boolean shared = policy.isShared(response);
+                    for (Joined<T> joined : flight.complete()) {
+                        if (!joined.settle()) continue;
+                        if (shared) {
+                            joined.callback.onResponse(call, response);
+                        } else {
+                            restart(key, joined);
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    flights.remove(key, flight);
+                    query.callback.onFailure(call, e);
+                    // A cancelled or timed out call only concerns the query that started it.
+                    FailureReason reason = FailureReason.of(e);
+                    boolean shared = reason != FailureReason.CANCELED && reason != FailureReason.TIMEOUT;
+                    for (Joined<T> joined : flight.complete()) {
+                        if (!joined.settle()) continue;
+                        if (shared) {
+                            joined.callback.onFailure(call, e);
+                        } else {
+                            restart(key, joined);
+                        }
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            flights.remove(key, flight);
+            for (Joined<T> joined : flight.complete()) {
+                if (!joined.settle()) continue;
+                Call started = joined.query.start(joined.remainingMillis(), joined.callback);
+                if (joined.future != null && started != null) joined.future.attach(started);
+            }
+            throw e;
+        }
+        return call;
+    }
+
+    // Executes a joined query again, attaching the call it starts to its future.
+    private void restart(String key, Joined<T> joined) {
+        if (joined.future != null && joined.future.isCancelled()) return;
+        if (joined.expired()) {
+            joined.callback.onFailure(null, new InterruptedIOException("timeout"));
+            return;
+        }
+        Call call = execute(key, new Joined<>(joined.query, joined.callback, joined.future, joined.deadline));
+        if (joined.future != null && call != null) joined.future.attach(call);
+    }
+
+    /**
+     * Returns the number of distinct queries in flight.
+     *
+     * @return Number of keys in flight.
+     */
+    public int size() {
+        return flights.size();
+    }
+
+    /**
+     * Query interface starting the request of a query.
+     *
+     * @param <T> Type of the response.
+     */
+    public interface Query<T> {
+        /**
+         * Starts the request of the query.
+         *
+         * @param timeoutMillis Deadline of the request, zero for none.
+         * @param callback      Callback to handle the response or failure.
+         * @return The started call.
+         */
+        Call start(long timeoutMillis, LazyHttp.Callback<T> callback);
+    }
+
+    /**
+     * Policy interface deciding whether a response is shared with the joined queries.
+     *
+     * @param <T> Type of the response.
+     */
+    public interface Policy<T> {
+        boolean isShared(T response);
+    }
+
+    /**
+     * Flight class holds the queries joined to a query in flight.
+     */
+    private static class Flight<T> {
+        private List<Joined<T>> joined = new ArrayList<>();
+
+        // Adds a query to the flight, unless it has completed.
+        synchronized boolean join(Joined<T> query) {
+            if (joined == null) return false;
+            joined.add(query);
+            return true;
+        }
+
+        // Removes a query whose deadline passed, unless the flight has completed.
+        synchronized void leave(Joined<T> query) {
+            if (joined != null) joined.remove(query);
+        }
+
+        // Completes the flight and returns the joined queries.
+        synchronized List<Joined<T>> complete() {
+            List<Joined<T>> result = joined;
+            joined = null;
+            return result;
+        }
+    }
+
+    /**
+     * Joined class holds a query with its deadline, while it waits for the query in flight.
+     */
+    private static class Joined<T> {
+        final Query<T> query;
+        final LazyHttp.Callback<T> callback;
+        final CallFuture<?> future;
+        // Deadline in System.nanoTime(), zero for none.
+        final long deadline;
+        // Set once the query has been answered, failed or executed again.
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private volatile ScheduledFuture<?> timeout;
+
+        Joined(Query<T> query, LazyHttp.Callback<T> callback, CallFuture<?> future, long deadline) {
+            this.query = query;
+            this.callback = callback;
+            this.future = future;
+            this.deadline = deadline;
+        }
+
+        // Returns whether the deadline has passed.
+        boolean expired() {
+            return deadline != 0 && deadline - System.nanoTime() <= 0;
+        }
+
+        // Returns the time left until the deadline rounded up, at least 1 ms, or zero for no deadline.
+        long remainingMillis() {
+            if (deadline == 0) return 0;
+            long remaining = deadline - System.nanoTime();
+            return Math.max((remaining + 999_999) / 1_000_000, 1);
+        }
+
+        // Fails the query once its deadline passes while it waits for the flight.
+        void scheduleTimeout(Flight<T> flight) {
+            if (deadline == 0) return;
+            timeout = TimeoutScheduler.INSTANCE.schedule(() -> {
+                if (!settled.compareAndSet(false, true)) return;
+                flight.leave(this);
+                callback.onFailure(null, new InterruptedIOException("timeout"));
+            }, Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        }
+
+        // Claims the query for the outcome of the flight. Returns false if its deadline passed first.
+        boolean settle() {
+            if (!settled.compareAndSet(false, true)) return false;
+            ScheduledFuture<?> scheduled = timeout;
+            if (scheduled != null) scheduled.cancel(false);
+            return true;
+        }
+    }
+
+    // Lazily created daemon thread failing joined queries once their deadline has passed.
+    private static class TimeoutScheduler {
+        static final ScheduledThreadPoolExecutor INSTANCE = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "SingleFlight timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Transport interface is the network layer LazyHttp runs its calls on. Requests are built and responses
+ * are parsed as OkHttp Request and Response values by the CallFactory implementations, a transport only
+ * executes them: {@link OkHttpTransport} on the shared OkHttpClient, which is the default,
+ * {@link InMemoryTransport} without any network for tests and benchmarks, or the JDK HttpClient transport
+ * of the eresult-jvm module.
+ * <p>
+ * Calls of a transport must honor {@link Call#cancel()}, also while the response body is being read, and
+ * the timeout set on {@link Call#timeout()} before they are executed.
+ */
+package com.eresult.sdk.data.query.http;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Request;
+
+public interface Transport extends Call.Factory {
+
+    /**
+     * Creates a call executing the given request on this transport.
+     *
+     * @param request Request to execute.
+     * @return Call, which has not been executed yet.
+     */
+    @NonNull
+    @Override
+    Call newCall(@NonNull Request request);
+
+    /**
+     * Resolves a host name the way new connections of this transport would.
+     *
+     * @param host Host name.
+     * @return Addresses of the host.
+     * @throws IOException If the host can not be resolved.
+     */
+    @NonNull
+    List<InetAddress> lookup(@NonNull String host) throws IOException;
+
+    /**
+     * Returns the number of idle connections this transport keeps open.
+     *
+     * @return Number of idle connections, or -1 if the transport does not tell.
+     */
+    int idleConnectionCount();
+}
@@ -0,0 +1,418 @@
+/**
+ * FlightRecorder class keeps the last exchanges with the website in a fixed-size ring, to find out after
+ * the fact why a lookup was slow or failed: the endpoint and redacted query, the timings of the phases,
+ * the status, the bytes and the failure of every call. LazyHttp records into
+ * {@link #getDefault()} unless configured otherwise, calls of other transports than the shared
+ * OkHttpClient are not recorded.
+ * <p>
+ * Recording is lock-free and allocates nothing: every exchange claims the next slot of preallocated
+ * arrays and overwrites the oldest one. Dumps copy the slots that are not being written at the time, as
+ * JSON to read or in a compact binary form to read back with {@link #readBinary(InputStream)}.
+ * <p>
+ * Student data never leaves the recorder: roll, registration and captcha values, and any other query
+ * parameter not describing the queried results, are replaced by "*" in dumps.
+ */
+package com.eresult.sdk.metrics;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.squareup.moshi.JsonWriter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import okhttp3.HttpUrl;
+import okio.Okio;
+
+public final class FlightRecorder {
+
+    // First bytes of a binary dump, "ERFR".
+    private static final int MAGIC = 0x45524652;
+    private static final int FORMAT_VERSION = 1;
+
+    // Query parameters kept in dumps, all others are redacted.
+    private static final Set<String> KEPT_PARAMETERS = new HashSet<>(
+            Arrays.asList("exam", "year", "board", "result_type", "eiin", "dcode", "ccode"));
+
+    // Fields of a slot in the data array.
+    private static final int START = 0;
+    private static final int DNS = 1;
+    private static final int CONNECT = 2;
+    private static final int TLS = 3;
+    private static final int TIME_TO_FIRST_BYTE = 4;
+    private static final int BODY = 5;
+    private static final int CALL = 6;
+    private static final int ATTEMPTS = 7;
+    private static final int STATUS = 8;
+    private static final int BYTES_SENT = 9;
+    private static final int BYTES_RECEIVED = 10;
+    private static final int FAILURE = 11;
+    private static final int FIELDS = 12;
+
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    // Sequence number of the exchange in each slot, or -1 while it is written.
+    private final AtomicLongArray stamps;
+    private final AtomicLongArray data;
+    private final AtomicReferenceArray<RequestTags> tags;
+    private final AtomicReferenceArray<HttpUrl> urls;
+
+    /**
+     * Constructor for FlightRecorder.
+     *
+     * @param capacity Number of exchanges kept, rounded up to a power of two.
+     */
+    public FlightRecorder(int capacity) {
+        if (capacity < 1 || capacity > 1 << 20) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^20!");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.mask = size - 1;
+        this.stamps = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            stamps.set(i, -1);
+        }
+        this.data = new AtomicLongArray(size * FIELDS);
+        this.tags = new AtomicReferenceArray<>(size);
+        this.urls = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Returns the process-wide recorder used by LazyHttp by default, keeping the last 256 exchanges.
+     *
+     * @return Default FlightRecorder instance.
+     */
+    @NonNull
+    public static FlightRecorder getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Returns the number of exchanges kept.
+     *
+     * @return Capacity of the ring.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the number of exchanges recorded since the recorder was created, including overwritten ones.
+     *
+     * @return Number of recorded exchanges.
+     */
+    public long getRecorded() {
+        return next.get();
+    }
+
+    /**
+     * Records a completed exchange, overwriting the oldest one. Called by LazyHttp once a call has ended,
+     * phases that did not happen are passed as -1.
+     *
+     * @param requestTags      Tags of the request.
+     * @param url              URL of the request, redacted when dumped.
+     * @param startMillis      Start of the call, in milliseconds since the epoch.
+     * @param dnsNanos         Duration of the host name lookup.
+     * @param connectNanos     Duration of opening a connection.
+     * @param tlsNanos         Duration of the TLS handshake.
+     * @param firstByteNanos   Time from sending the request to receiving the response headers.
+     * @param bodyNanos        Duration of reading the response body.
+     * @param callNanos        Duration of the whole call.
+     * @param attempts         Number of requests sent by the call, more than one if OkHttp retried it.
+     *                         Retries after a backoff are recorded as exchanges of their own.
+     * @param status           Status code of the last response, 0 if none was received.
+     * @param bytesSent        Request body bytes.
+     * @param bytesReceived    Response body bytes.
+     * @param failure          Reason the call failed, or null if it succeeded.
+     */
+    public void record(@NonNull RequestTags requestTags, @NonNull HttpUrl url, long startMillis, long dnsNanos,
+                       long connectNanos, long tlsNanos, long firstByteNanos, long bodyNanos, long callNanos,
+                       int attempts, int status, long bytesSent, long bytesReceived, FailureReason failure) {
+        long sequence = next.getAndIncrement();
+        int slot = (int) sequence & mask;
+        int base = slot * FIELDS;
+        // Readers skip the slot until the stamp is published again.
+        stamps.set(slot, -1);
+        data.lazySet(base + START, startMillis);
+        data.lazySet(base + DNS, dnsNanos);
+        data.lazySet(base + CONNECT, connectNanos);
+        data.lazySet(base + TLS, tlsNanos);
+        data.lazySet(base + TIME_TO_FIRST_BYTE, firstByteNanos);
+        data.lazySet(base + BODY, bodyNanos);
+        data.lazySet(base + CALL, callNanos);
+        data.lazySet(base + ATTEMPTS, attempts);
+        data.lazySet(base + STATUS, status);
+        data.lazySet(base + BYTES_SENT, bytesSent);
+        data.lazySet(base + BYTES_RECEIVED, bytesReceived);
+        data.lazySet(base + FAILURE, failure != null ? failure.ordinal() : -1);
+        tags.lazySet(slot, requestTags);
+        urls.lazySet(slot, url);
+        stamps.lazySet(slot, sequence);
+    }
+
+    /**
+     * Returns the exchanges currently kept, oldest first. Exchanges being written are left out.
+     *
+     * @return Copies of the recorded exchanges.
+     */
+    @NonNull
+    public List<Exchange> snapshot() {
+        long end = next.get();
+        long start = Math.max(0, end - mask - 1);
+        List<Exchange> exchanges = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) sequence & mask;
+            if (stamps.get(slot) != sequence) continue;
+            int base = slot * FIELDS;
+            long[] fields = new long[FIELDS];
+            for (int i = 0; i < FIELDS; i++) {
+                fields[i] = data.get(base + i);
+            }
+            RequestTags requestTags = tags.get(slot);
+            HttpUrl url = urls.get(slot);
+            // The slot was overwritten while it was copied.
+            if (stamps.get(slot) != sequence) continue;
+            exchanges.add(new Exchange(sequence, requestTags.getEndpoint(), redact(url), fields));
+        }
+        return exchanges;
+    }
+
+    /**
+     * Writes the exchanges currently kept as a JSON array, oldest first. Durations are in nanoseconds,
+     * -1 for phases that did not happen.
+     *
+     * @param output Stream to write to, left open.
+     * @throws IOException If writing fails.
+     */
+    public void writeJson(@NonNull OutputStream output) throws IOException {
+        JsonWriter writer = JsonWriter.of(Okio.buffer(Okio.sink(output)));
+        writer.setIndent("  ");
+        writer.setSerializeNulls(true);
+        writer.beginArray();
+        for (Exchange exchange : snapshot()) {
+            writer.beginObject();
+            writer.name("sequence").value(exchange.sequence);
+            writer.name("start").value(exchange.getStartMillis());
+            writer.name("endpoint").value(exchange.endpoint);
+            writer.name("query").value(exchange.query);
+            writer.name("dnsNanos").value(exchange.getDnsNanos());
+            writer.name("connectNanos").value(exchange.getConnectNanos());
+            writer.name("tlsNanos").value(exchange.getTlsNanos());
+            writer.name("firstByteNanos").value(exchange.getFirstByteNanos());
+            writer.name("bodyNanos").value(exchange.getBodyNanos());
+            writer.name("callNanos").value(exchange.getCallNanos());
+            writer.name("attempts").value(exchange.getAttempts());
+            writer.name("status").value(exchange.getStatus());
+            writer.name("bytesSent").value(exchange.getBytesSent());
+            writer.name("bytesReceived").value(exchange.getBytesReceived());
+            FailureReason failure = exchange.getFailure();
+            writer.name("failure").value(failure != null ? failure.name() : null);
+            writer.endObject();
+        }
+        writer.endArray();
+        // Flushes into the stream without closing it.
+        writer.flush();
+    }
+
+    /**
+     * Writes the exchanges currently kept in the compact binary form read by {@link #readBinary(InputStream)}.
+     *
+     * @param output Stream to write to, left open.
+     * @throws IOException If writing fails.
+     */
+    public void writeBinary(@NonNull OutputStream output) throws IOException {
+        List<Exchange> exchanges = snapshot();
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(exchanges.size());
+        for (Exchange exchange : exchanges) {
+            data.writeLong(exchange.sequence);
+            data.writeUTF(exchange.endpoint);
+            data.writeUTF(exchange.query);
+            for (long field : exchange.fields) {
+                data.writeLong(field);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads the exchanges of a binary dump.
+     *
+     * @param input Stream holding a dump written by {@link #writeBinary(OutputStream)}, left open.
+     * @return Exchanges of the dump, oldest first.
+     * @throws IOException If reading fails or the stream holds no dump of a known format.
+     */
+    @NonNull
+    public static List<Exchange> readBinary(@NonNull InputStream input) throws IOException {
+        DataInputStream data = new DataInputStream(input);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a flight recorder dump");
+        }
+        int format = data.readInt();
+        if (format != FORMAT_VERSION) {
+            throw new IOException("Unsupported flight recorder dump format " + format);
+        }
+        int count = data.readInt();
+        List<Exchange> exchanges = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long sequence = data.readLong();
+            String endpoint = data.readUTF();
+            String query = data.readUTF();
+            long[] fields = new long[FIELDS];
+            for (int j = 0; j < FIELDS; j++) {
+                fields[j] = data.readLong();
+            }
+            exchanges.add(new Exchange(sequence, endpoint, query, fields));
+        }
+        return Collections.unmodifiableList(exchanges);
+    }
+
+    // Returns the query of the URL with the values of personal parameters replaced by "*".
+    private static String redact(HttpUrl url) {
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < url.querySize(); i++) {
+            String name = url.queryParameterName(i);
+            String value = url.queryParameterValue(i);
+            if (query.length() > 0) query.append('&');
+            query.append(name);
+            if (value != null) {
+                query.append('=').append(KEPT_PARAMETERS.contains(name) ? value : "*");
+            }
+        }
+        return query.toString();
+    }
+
+    /**
+     * Exchange class holds one recorded exchange. Durations are in nanoseconds, -1 for phases that did
+     * not happen, e.g. the DNS lookup and connect of a call on a pooled connection.
+     */
+    public static final class Exchange {
+        private final long sequence;
+        private final String endpoint;
+        private final String query;
+        private final long[] fields;
+
+        Exchange(long sequence, String endpoint, String query, long[] fields) {
+            this.sequence = sequence;
+            this.endpoint = endpoint;
+            this.query = query;
+            this.fields = fields;
+        }
+
+        /**
+         * Returns the number of the exchange, counting all exchanges of the recorder.
+         *
+         * @return Sequence number.
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        @NonNull
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        /**
+         * Returns the query of the request, with the values of personal parameters replaced by "*".
+         *
+         * @return Redacted query, empty if the request had none.
+         */
+        @NonNull
+        public String getQuery() {
+            return query;
+        }
+
+        public long getStartMillis() {
+            return fields[START];
+        }
+
+        public long getDnsNanos() {
+            return fields[DNS];
+        }
+
+        public long getConnectNanos() {
+            return fields[CONNECT];
+        }
+
+        public long getTlsNanos() {
+            return fields[TLS];
+        }
+
+        public long getFirstByteNanos() {
+            return fields[TIME_TO_FIRST_BYTE];
+        }
+
+        public long getBodyNanos() {
+            return fields[BODY];
+        }
+
+        public long getCallNanos() {
+            return fields[CALL];
+        }
+
+        public int getAttempts() {
+            return (int) fields[ATTEMPTS];
+        }
+
+        /**
+         * Returns the status code of the last response.
+         *
+         * @return Status code, 0 if no response was received.
+         */
+        public int getStatus() {
+            return (int) fields[STATUS];
+        }
+
+        public long getBytesSent() {
+            return fields[BYTES_SENT];
+        }
+
+        public long getBytesReceived() {
+            return fields[BYTES_RECEIVED];
+        }
+
+        /**
+         * Returns why the call failed.
+         *
+         * @return Reason of the failure, or null if the call succeeded.
+         */
+        public FailureReason getFailure() {
+            int ordinal = (int) fields[FAILURE];
+            FailureReason[] reasons = FailureReason.values();
+            return ordinal >= 0 && ordinal < reasons.length ? reasons[ordinal] : null;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            FailureReason failure = getFailure();
+            return "Exchange{#" + sequence + " " + endpoint + (query.isEmpty() ? "" : "?" + query)
+                    + ", status=" + getStatus() + ", callMillis=" + getCallNanos() / 1_000_000
+                    + (failure != null ? ", failure=" + failure : "") + "}";
+        }
+    }
+
+    /**
+     * Holder of the default instance, created on first use.
+     */
+    private static class DefaultHolder {
+        static final FlightRecorder INSTANCE = new FlightRecorder(256);
+    }
+}
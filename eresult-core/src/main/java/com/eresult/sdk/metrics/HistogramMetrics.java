@@ -0,0 +1,110 @@
+/**
+ * HistogramMetrics class keeps the metrics of requests in memory, a LatencyHistogram per phase and tags
+ * and a total per counter and tags. Read them periodically to export them, e.g.
+ * {@code metrics.getHistograms(Metrics.Phase.TIME_TO_FIRST_BYTE)}.
+ */
+package com.eresult.sdk.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HistogramMetrics implements Metrics {
+
+    // Both maps are filled for every enum constant up front and never modified afterwards.
+    private final Map<Phase, ConcurrentMap<RequestTags, LatencyHistogram>> histograms = new EnumMap<>(Phase.class);
+    private final Map<Counter, ConcurrentMap<RequestTags, AtomicLong>> counters = new EnumMap<>(Counter.class);
+
+    /**
+     * Constructor for HistogramMetrics.
+     */
+    public HistogramMetrics() {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new ConcurrentHashMap<>());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void recordLatency(@NonNull Phase phase, @NonNull RequestTags tags, long nanos) {
+        ConcurrentMap<RequestTags, LatencyHistogram> byTags = histograms.get(phase);
+        LatencyHistogram histogram = byTags.get(tags);
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram();
+            histogram = byTags.putIfAbsent(tags, created);
+            if (histogram == null) histogram = created;
+        }
+        histogram.record(nanos);
+    }
+
+    @Override
+    public void incrementCounter(@NonNull Counter counter, @NonNull RequestTags tags, long amount) {
+        ConcurrentMap<RequestTags, AtomicLong> byTags = counters.get(counter);
+        AtomicLong total = byTags.get(tags);
+        if (total == null) {
+            AtomicLong created = new AtomicLong();
+            total = byTags.putIfAbsent(tags, created);
+            if (total == null) total = created;
+        }
+        total.addAndGet(amount);
+    }
+
+    /**
+     * Returns the histograms of a phase by the tags they were recorded under.
+     *
+     * @param phase Phase of the requests.
+     * @return Unmodifiable live view of the histograms.
+     */
+    @NonNull
+    public Map<RequestTags, LatencyHistogram> getHistograms(@NonNull Phase phase) {
+        return Collections.unmodifiableMap(histograms.get(phase));
+    }
+
+    /**
+     * Returns the histogram of a phase and tags.
+     *
+     * @param phase Phase of the requests.
+     * @param tags  Tags of the requests.
+     * @return LatencyHistogram instance, or null if nothing has been recorded.
+     */
+    public LatencyHistogram getHistogram(@NonNull Phase phase, @NonNull RequestTags tags) {
+        return histograms.get(phase).get(tags);
+    }
+
+    /**
+     * Returns the totals of a counter by the tags they were counted under.
+     *
+     * @param counter Counter of the requests.
+     * @return Snapshot of the totals.
+     */
+    @NonNull
+    public Map<RequestTags, Long> getCounters(@NonNull Counter counter) {
+        Map<RequestTags, Long> totals = new HashMap<>();
+        for (Map.Entry<RequestTags, AtomicLong> entry : counters.get(counter).entrySet()) {
+            totals.put(entry.getKey(), entry.getValue().get());
+        }
+        return totals;
+    }
+
+    /**
+     * Returns the total of a counter over all tags.
+     *
+     * @param counter Counter of the requests.
+     * @return Total of the counter.
+     */
+    public long getTotal(@NonNull Counter counter) {
+        long total = 0;
+        for (AtomicLong value : counters.get(counter).values()) {
+            total += value.get();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Metrics interface receives the timings and counters of every HTTP request the SDK sends. Implement it to
+ * bridge the measurements into a monitoring system, or use HistogramMetrics to keep them in memory.
+ * <p>
+ * Methods are called on OkHttp's threads while requests are running, implementations need to be
+ * thread-safe and must not block.
+ */
+package com.eresult.sdk.metrics;
+
+import androidx.annotation.NonNull;
+
+public interface Metrics {
+
+    /**
+     * Records how long a phase of a request took.
+     *
+     * @param phase Phase of the request.
+     * @param tags  Tags of the request.
+     * @param nanos Duration of the phase in nanoseconds.
+     */
+    void recordLatency(@NonNull Phase phase, @NonNull RequestTags tags, long nanos);
+
+    /**
+     * Adds to a counter of the requests.
+     *
+     * @param counter Counter to add to.
+     * @param tags    Tags of the request.
+     * @param amount  Amount to add.
+     */
+    void incrementCounter(@NonNull Counter counter, @NonNull RequestTags tags, long amount);
+
+    /**
+     * Phase enum represents the timed phases of a request.
+     */
+    enum Phase {
+        DNS,                    // Resolving the host name
+        CONNECT,                // Opening a connection, including the TLS handshake
+        TLS,                    // TLS handshake of a new connection
+        TIME_TO_FIRST_BYTE,     // From sending the request to receiving the response headers
+        BODY,                   // Downloading the response body
+        CALL                    // The whole call, from enqueueing to releasing the response
+    }
+
+    /**
+     * Counter enum represents the counted events of requests.
+     */
+    enum Counter {
+        CALLS,                  // Calls started
+        FAILURES,               // Calls failed with an exception, including cancellations and timeouts
+        CONNECTIONS,            // New connections opened
+        BYTES_SENT,             // Request body bytes
+        BYTES_RECEIVED          // Response body bytes
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * RequestTags class holds the dimensions metrics of a request are recorded under: the endpoint, and for
+ * result requests the board, exam and result type. Unknown dimensions are null.
+ */
+package com.eresult.sdk.metrics;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultType;
+
+public final class RequestTags {
+    private final String endpoint;
+    private final BoardType boardType;
+    private final ExamType examType;
+    private final ResultType resultType;
+
+    /**
+     * Constructor for RequestTags.
+     *
+     * @param endpoint   Endpoint of the request, e.g. "/v2/getres".
+     * @param boardType  Board of the request, or null.
+     * @param examType   Exam of the request, or null.
+     * @param resultType Result type of the request, or null.
+     */
+    public RequestTags(@NonNull String endpoint, BoardType boardType, ExamType examType, ResultType resultType) {
+        this.endpoint = endpoint;
+        this.boardType = boardType;
+        this.examType = examType;
+        this.resultType = resultType;
+    }
+
+    /**
+     * Creates tags for a request that only has an endpoint, e.g. a captcha request.
+     *
+     * @param endpoint Endpoint of the request.
+     * @return RequestTags instance.
+     */
+    @NonNull
+    public static RequestTags of(@NonNull String endpoint) {
+        return new RequestTags(endpoint, null, null, null);
+    }
+
+    @NonNull
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public BoardType getBoardType() {
+        return boardType;
+    }
+
+    public ExamType getExamType() {
+        return examType;
+    }
+
+    public ResultType getResultType() {
+        return resultType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RequestTags)) return false;
+        RequestTags tags = (RequestTags) o;
+        return endpoint.equals(tags.endpoint) && boardType == tags.boardType
+                && examType == tags.examType && resultType == tags.resultType;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = endpoint.hashCode();
+        result = 31 * result + (boardType != null ? boardType.hashCode() : 0);
+        result = 31 * result + (examType != null ? examType.hashCode() : 0);
+        result = 31 * result + (resultType != null ? resultType.hashCode() : 0);
+        return result;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "endpoint=" + endpoint + ", board=" + boardType + ", exam=" + examType + ", resultType=" + resultType;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Grade enum lists the letter grades of the SSC, HSC and JSC exams with the lowest grade point of each,
+ * so both a subject's letter grade and a GPA can be placed in a grade.
+ */
+package com.eresult.sdk.stats;
+
+public enum Grade {
+    A_PLUS("A+", 5.0),
+    A("A", 4.0),
+    A_MINUS("A-", 3.5),
+    B("B", 3.0),
+    C("C", 2.0),
+    D("D", 1.0),
+    F("F", 0.0);
+
+    private static final Grade[] VALUES = values();
+
+    private final String letter;
+    private final double minPoint;
+
+    Grade(String letter, double minPoint) {
+        this.letter = letter;
+        this.minPoint = minPoint;
+    }
+
+    public String getLetter() {
+        return letter;
+    }
+
+    public double getMinPoint() {
+        return minPoint;
+    }
+
+    /**
+     * Returns the grade of a letter grade as sent by the website.
+     *
+     * @param letter Letter grade, e.g. "A+".
+     * @return Grade, or null if the letter is not a grade.
+     */
+    public static Grade ofLetter(String letter) {
+        if (letter == null) return null;
+        String trimmed = letter.trim();
+        for (Grade grade : VALUES) {
+            if (grade.letter.equalsIgnoreCase(trimmed)) return grade;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the grade a grade point or GPA falls in, e.g. A for 4.56.
+     *
+     * @param point Grade point.
+     * @return Grade, or null if the point is not a number.
+     */
+    public static Grade ofPoint(double point) {
+        if (Double.isNaN(point)) return null;
+        for (Grade grade : VALUES) {
+            if (point >= grade.minPoint) return grade;
+        }
+        return F;
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * ResultAggregator class aggregates many result payloads in parallel, e.g. the results of every
+ * institution of a district. The sources are split in halves on a ForkJoinPool until each task reads a
+ * single source into its own ResultStatistics, and the statistics are merged back up the same tree.
+ */
+package com.eresult.sdk.stats;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.query.ResultReader;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public final class ResultAggregator {
+
+    private ResultAggregator() {
+    }
+
+    /**
+     * Reads and aggregates the sources in parallel on a pool with a thread per processor.
+     *
+     * @param sources Sources of the payloads to aggregate.
+     * @return Statistics of every record of the sources.
+     * @throws IOException If a source can not be opened or read.
+     */
+    public static ResultStatistics aggregate(@NonNull List<? extends Source> sources) throws IOException {
+        return aggregate(sources, DefaultPool.INSTANCE);
+    }
+
+    /**
+     * Reads and aggregates the sources in parallel on the given pool.
+     *
+     * @param sources Sources of the payloads to aggregate.
+     * @param pool    Pool running the tasks.
+     * @return Statistics of every record of the sources.
+     * @throws IOException If a source can not be opened or read.
+     */
+    public static ResultStatistics aggregate(
+            @NonNull List<? extends Source> sources, @NonNull ForkJoinPool pool) throws IOException {
+        try {
+            return pool.invoke(new AggregateTask(sources, 0, sources.size()));
+        } catch (SourceException e) {
+            throw (IOException) e.getCause();
+        }
+    }
+
+    /**
+     * Merges statistics in parallel on a pool with a thread per processor.
+     *
+     * @param statistics Statistics to merge, left unchanged.
+     * @return New statistics holding all of them.
+     */
+    public static ResultStatistics merge(@NonNull List<ResultStatistics> statistics) {
+        return merge(statistics, DefaultPool.INSTANCE);
+    }
+
+    /**
+     * Merges statistics in parallel on the given pool.
+     *
+     * @param statistics Statistics to merge, left unchanged.
+     * @param pool       Pool running the tasks.
+     * @return New statistics holding all of them.
+     */
+    public static ResultStatistics merge(@NonNull List<ResultStatistics> statistics, @NonNull ForkJoinPool pool) {
+        return pool.invoke(new MergeTask(statistics, 0, statistics.size()));
+    }
+
+    /**
+     * Source of a result payload, opened by the task aggregating it.
+     */
+    public interface Source {
+        ResultReader open() throws IOException;
+    }
+
+    // Reads the sources from start (inclusive) to end (exclusive).
+    private static class AggregateTask extends RecursiveTask<ResultStatistics> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends Source> sources;
+        private final int start;
+        private final int end;
+
+        AggregateTask(List<? extends Source> sources, int start, int end) {
+            this.sources = sources;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected ResultStatistics compute() {
+            if (end - start <= 1) {
+                ResultStatistics statistics = new ResultStatistics();
+                if (start < end) read(sources.get(start), statistics);
+                return statistics;
+            }
+            int middle = (start + end) >>> 1;
+            AggregateTask left = new AggregateTask(sources, start, middle);
+            left.fork();
+            ResultStatistics right = new AggregateTask(sources, middle, end).compute();
+            return left.join().merge(right);
+        }
+
+        private static void read(Source source, ResultStatistics statistics) {
+            try (ResultReader reader = source.open()) {
+                reader.readAll(statistics);
+            } catch (IOException e) {
+                throw new SourceException(e);
+            }
+        }
+    }
+
+    // Merges the statistics from start (inclusive) to end (exclusive) into a new instance.
+    private static class MergeTask extends RecursiveTask<ResultStatistics> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ResultStatistics> statistics;
+        private final int start;
+        private final int end;
+
+        MergeTask(List<ResultStatistics> statistics, int start, int end) {
+            this.statistics = statistics;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected ResultStatistics compute() {
+            if (end - start <= 1) {
+                ResultStatistics merged = new ResultStatistics();
+                if (start < end) merged.merge(statistics.get(start));
+                return merged;
+            }
+            int middle = (start + end) >>> 1;
+            MergeTask left = new MergeTask(statistics, start, middle);
+            left.fork();
+            ResultStatistics right = new MergeTask(statistics, middle, end).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // Carries the IOException of a source out of the pool, which only rethrows unchecked exceptions.
+    private static class SourceException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SourceException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Holder of the default pool, ForkJoinPool.commonPool() requires API level 24.
+     */
+    private static class DefaultPool {
+        static final ForkJoinPool INSTANCE = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+}
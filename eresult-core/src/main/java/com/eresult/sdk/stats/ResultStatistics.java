@@ -0,0 +1,229 @@
+/**
+ * ResultStatistics class aggregates result records as they are decoded: pass rate, GPA distribution,
+ * grade counts per subject and a split by gender. Every record updates a few counters and is not kept,
+ * so the memory used only depends on the number of subjects and genders, not on the number of students.
+ * <p>
+ * Feed it from a ResultReader, which it listens to, or from {@link com.eresult.sdk.EResult.RecordCallback#onRecord}.
+ * An instance is not thread-safe: aggregate each stream into its own instance and {@link #merge} them,
+ * as {@link ResultAggregator} does.
+ */
+package com.eresult.sdk.stats;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.ResultRecord;
+import com.eresult.sdk.data.SubjectGrade;
+import com.eresult.sdk.data.query.ResultReader;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class ResultStatistics implements ResultReader.Listener {
+
+    private static final int GRADES = Grade.values().length;
+
+    // Index of the totals kept per gender.
+    private static final int GENDER_COUNT = 0;
+    private static final int GENDER_PASSED = 1;
+
+    private long count;
+    private long passed;
+    private long gpaCount;
+    private double gpaSum;
+    private final long[] gpaGrades = new long[GRADES];
+    private final Map<String, long[]> subjectGrades = new HashMap<>();
+    private final Map<String, long[]> genders = new HashMap<>();
+
+    /**
+     * Adds a record to the statistics.
+     *
+     * @param record Decoded result record.
+     */
+    public void add(@NonNull ResultRecord record) {
+        boolean pass = isPassed(record);
+        count++;
+        if (pass) passed++;
+
+        double gpa = record.getGpaValue();
+        Grade gpaGrade = Grade.ofPoint(gpa);
+        if (gpaGrade != null) {
+            gpaCount++;
+            gpaSum += gpa;
+            gpaGrades[gpaGrade.ordinal()]++;
+        }
+
+        List<SubjectGrade> subjects = record.getSubjects();
+        for (int i = 0, size = subjects.size(); i < size; i++) {
+            SubjectGrade subject = subjects.get(i);
+            Grade grade = Grade.ofLetter(subject.getGrade());
+            String key = subject.getCode() != null ? subject.getCode() : subject.getName();
+            if (grade == null || key == null) continue;
+            counts(subjectGrades, key, GRADES)[grade.ordinal()]++;
+        }
+
+        String gender = record.getGender();
+        if (gender != null) {
+            long[] split = counts(genders, gender.trim().toUpperCase(Locale.ROOT), 2);
+            split[GENDER_COUNT]++;
+            if (pass) split[GENDER_PASSED]++;
+        }
+    }
+
+    @Override
+    public void onRecord(ResultRecord record) {
+        add(record);
+    }
+
+    /**
+     * Adds the statistics of another instance to this one, as if its records had been added here.
+     *
+     * @param other Statistics to merge, left unchanged.
+     * @return This instance.
+     */
+    public ResultStatistics merge(@NonNull ResultStatistics other) {
+        count += other.count;
+        passed += other.passed;
+        gpaCount += other.gpaCount;
+        gpaSum += other.gpaSum;
+        add(gpaGrades, other.gpaGrades);
+        for (Map.Entry<String, long[]> entry : other.subjectGrades.entrySet()) {
+            add(counts(subjectGrades, entry.getKey(), GRADES), entry.getValue());
+        }
+        for (Map.Entry<String, long[]> entry : other.genders.entrySet()) {
+            add(counts(genders, entry.getKey(), 2), entry.getValue());
+        }
+        return this;
+    }
+
+    /**
+     * @return Number of records added.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Number of students who passed.
+     */
+    public long getPassed() {
+        return passed;
+    }
+
+    /**
+     * @return Number of students who failed.
+     */
+    public long getFailed() {
+        return count - passed;
+    }
+
+    /**
+     * @return Share of the students who passed, between 0 and 1, or 0 if no record was added.
+     */
+    public double getPassRate() {
+        return count == 0 ? 0 : (double) passed / count;
+    }
+
+    /**
+     * @return Mean GPA of the records with a numeric GPA, or {@link Double#NaN} if there are none.
+     */
+    public double getMeanGpa() {
+        return gpaCount == 0 ? Double.NaN : gpaSum / gpaCount;
+    }
+
+    /**
+     * Returns how many students got a GPA within a grade, e.g. {@link Grade#A} counts the GPAs from 4.00
+     * up to 4.99.
+     *
+     * @param grade Grade the GPA falls in.
+     * @return Number of students.
+     */
+    public long getGpaCount(@NonNull Grade grade) {
+        return gpaGrades[grade.ordinal()];
+    }
+
+    /**
+     * @return Codes of the subjects that have grades, or their names if the payload has no codes.
+     */
+    public Set<String> getSubjects() {
+        return Collections.unmodifiableSet(subjectGrades.keySet());
+    }
+
+    /**
+     * Returns how many students got a grade in a subject.
+     *
+     * @param subject Subject code, or its name if the payload has no codes.
+     * @param grade   Letter grade.
+     * @return Number of students.
+     */
+    public long getGradeCount(@NonNull String subject, @NonNull Grade grade) {
+        long[] grades = subjectGrades.get(subject);
+        return grades == null ? 0 : grades[grade.ordinal()];
+    }
+
+    /**
+     * @return Genders of the students in upper case, e.g. "MALE" and "FEMALE".
+     */
+    public Set<String> getGenders() {
+        return Collections.unmodifiableSet(genders.keySet());
+    }
+
+    /**
+     * @param gender Gender in upper case.
+     * @return Number of students of the gender.
+     */
+    public long getGenderCount(@NonNull String gender) {
+        long[] split = genders.get(gender);
+        return split == null ? 0 : split[GENDER_COUNT];
+    }
+
+    /**
+     * @param gender Gender in upper case.
+     * @return Number of students of the gender who passed.
+     */
+    public long getGenderPassed(@NonNull String gender) {
+        long[] split = genders.get(gender);
+        return split == null ? 0 : split[GENDER_PASSED];
+    }
+
+    @Override
+    public String toString() {
+        return "ResultStatistics{count=" + count + ", passRate=" + getPassRate() + ", meanGpa=" + getMeanGpa() + "}";
+    }
+
+    /**
+     * Returns whether a student passed. The result text decides when it says passed or failed,
+     * otherwise a GPA above 0 is a pass.
+     *
+     * @param record Result record.
+     * @return True if the student passed.
+     */
+    static boolean isPassed(@NonNull ResultRecord record) {
+        String result = record.getResult();
+        if (result != null) {
+            String upper = result.trim().toUpperCase(Locale.ROOT);
+            if (upper.startsWith("PASS")) return true;
+            if (upper.startsWith("FAIL")) return false;
+        }
+        return record.getGpaValue() > 0;
+    }
+
+    // Returns the counters of a key, creating them on first use.
+    private static long[] counts(Map<String, long[]> map, String key, int size) {
+        long[] counts = map.get(key);
+        if (counts == null) {
+            counts = new long[size];
+            map.put(key, counts);
+        }
+        return counts;
+    }
+
+    private static void add(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+}
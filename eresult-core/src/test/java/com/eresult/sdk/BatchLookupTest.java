@@ -0,0 +1,144 @@
+package com.eresult.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.query.http.InMemoryTransport;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class BatchLookupTest {
+
+    private static final BatchLookup.Student A = new BatchLookup.Student("100001", "1000100001");
+    private static final BatchLookup.Student B = new BatchLookup.Student("100002", "1000100002");
+
+    private final FakeWebsite website = new FakeWebsite();
+    private final AtomicInteger solved = new AtomicInteger();
+    private final Recorder recorder = new Recorder();
+
+    @Test
+    public void studentsShareOneSession() throws InterruptedException {
+        lookup(2, (image, answer) -> {
+            solved.incrementAndGet();
+            answer.submit("1234");
+        }).start(Arrays.asList(A, B), recorder);
+
+        recorder.awaitComplete();
+        assertEquals(2, recorder.results.size());
+        assertEquals(1, solved.get());
+        assertEquals(1, website.getSessionCount());
+    }
+
+    @Test
+    public void lateRejectionOfEarlierSessionIsLookedUpAgain() throws InterruptedException {
+        // The first session is rejected, later ones accepted.
+        website.setResults((board, roll, session) -> session == 1 ? FakeWebsite.REJECTED : FakeWebsite.result(roll));
+        website.close(B.roll);
+        lookup(2, (image, answer) -> {
+            solved.incrementAndGet();
+            answer.submit("1234");
+        }).start(Arrays.asList(A, B), recorder);
+
+        // A is rejected, looked up again in the second session and found while B is still in flight.
+        assertTrue(recorder.awaitResult(A));
+        website.open(B.roll);
+
+        // B's rejection of the first session arrives after the second session was solved.
+        recorder.awaitComplete();
+        assertEquals(2, recorder.results.size());
+        assertEquals(0, recorder.failures.size());
+        assertEquals(2, solved.get());
+    }
+
+    @Test
+    public void abortFailsRemainingStudents() throws InterruptedException {
+        website.setResults((board, roll, session) -> FakeWebsite.REJECTED);
+        lookup(1, (image, answer) -> {
+            if (solved.incrementAndGet() == 1) {
+                answer.submit("1234");
+            } else {
+                answer.abort();
+            }
+        }).start(Arrays.asList(A, B), recorder);
+
+        recorder.awaitComplete();
+        assertEquals(0, recorder.results.size());
+        assertEquals(2, recorder.failures.size());
+        assertEquals(2, solved.get());
+    }
+
+    @Test
+    public void emptyBatchCompletesRightAway() throws InterruptedException {
+        List<BatchLookup.Student> none = Arrays.asList();
+        lookup(2, (image, answer) -> solved.incrementAndGet()).start(none, recorder);
+
+        recorder.awaitComplete();
+        assertEquals(0, solved.get());
+        assertEquals(0, website.getSessionCount());
+    }
+
+    private BatchLookup lookup(int concurrency, BatchLookup.CaptchaSolver solver) {
+        return new BatchLookup.Builder()
+                .setYear("2023")
+                .setExamType(ExamType.SSC)
+                .setBoardType(BoardType.DHAKA)
+                .setConcurrency(concurrency)
+                .setCaptchaSolver(solver)
+                .setCallbackExecutor(Runnable::run)
+                .setBaseUrl(FakeWebsite.BASE_URL)
+                .setTransport(new InMemoryTransport(website))
+                .setResilience(null)
+                .build();
+    }
+
+    /**
+     * Listener recording what a lookup reported.
+     */
+    private static final class Recorder implements BatchLookup.Listener {
+        final Map<String, String> results = new ConcurrentHashMap<>();
+        final Map<String, String> failures = new ConcurrentHashMap<>();
+        private final Map<String, CountDownLatch> found = new ConcurrentHashMap<>();
+        private final CountDownLatch complete = new CountDownLatch(1);
+        private final AtomicInteger completions = new AtomicInteger();
+
+        @Override
+        public void onResult(BatchLookup.Student student, String result) {
+            results.put(student.roll, result);
+            latch(student).countDown();
+        }
+
+        @Override
+        public void onFailure(BatchLookup.Student student, String message) {
+            failures.put(student.roll, message);
+        }
+
+        @Override
+        public void onComplete() {
+            completions.incrementAndGet();
+            complete.countDown();
+        }
+
+        boolean awaitResult(BatchLookup.Student student) throws InterruptedException {
+            return latch(student).await(5, TimeUnit.SECONDS);
+        }
+
+        void awaitComplete() throws InterruptedException {
+            assertTrue("The lookup never completed", complete.await(5, TimeUnit.SECONDS));
+            assertEquals(1, completions.get());
+        }
+
+        private CountDownLatch latch(BatchLookup.Student student) {
+            return found.computeIfAbsent(student.roll, roll -> new CountDownLatch(1));
+        }
+    }
+}
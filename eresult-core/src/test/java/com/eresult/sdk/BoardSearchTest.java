@@ -0,0 +1,137 @@
+package com.eresult.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.eresult.sdk.data.query.http.InMemoryTransport;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class BoardSearchTest {
+
+    private static final String ROLL = "100001";
+    private static final String REGISTRATION = "1000100001";
+
+    private final FakeWebsite website = new FakeWebsite();
+    private final AtomicInteger solved = new AtomicInteger();
+    private final Outcome outcome = new Outcome();
+
+    @Test
+    public void boardsShareOneSession() throws InterruptedException {
+        website.setResults((board, roll, session) -> "chittagong".equals(board) ? FakeWebsite.result(roll) : FakeWebsite.NOT_FOUND);
+        search(1, (image, answer) -> {
+            solved.incrementAndGet();
+            answer.submit("1234");
+        }).search(ROLL, REGISTRATION, outcome);
+
+        outcome.await();
+        assertEquals(BoardType.CHITTAGONG, outcome.match.getBoardType());
+        assertEquals(1, solved.get());
+        assertEquals(1, website.getSessionCount());
+        assertEquals(3, website.getResultRequestCount());
+    }
+
+    @Test
+    public void rejectedSessionIsReplacedOnce() throws InterruptedException {
+        // The first session is rejected by every board in flight, later ones accepted.
+        website.setResults((board, roll, session) -> session == 1 ? FakeWebsite.REJECTED
+                : "chittagong".equals(board) ? FakeWebsite.result(roll) : FakeWebsite.NOT_FOUND);
+        search(3, (image, answer) -> {
+            solved.incrementAndGet();
+            answer.submit("1234");
+        }).search(ROLL, REGISTRATION, outcome);
+
+        outcome.await();
+        assertEquals(BoardType.CHITTAGONG, outcome.match.getBoardType());
+        assertEquals(2, solved.get());
+        assertEquals(2, website.getSessionCount());
+    }
+
+    @Test
+    public void abortedCaptchaFailsSearch() throws InterruptedException {
+        website.setResults((board, roll, session) -> FakeWebsite.REJECTED);
+        search(3, (image, answer) -> {
+            if (solved.incrementAndGet() == 1) {
+                answer.submit("1234");
+            } else {
+                answer.abort();
+            }
+        }).search(ROLL, REGISTRATION, outcome);
+
+        outcome.await();
+        assertEquals(FailureReason.REJECTED, outcome.reason);
+        assertEquals(2, solved.get());
+    }
+
+    @Test
+    public void studentOnNoBoardFailsSearch() throws InterruptedException {
+        website.setResults((board, roll, session) -> FakeWebsite.NOT_FOUND);
+        search(2, (image, answer) -> {
+            solved.incrementAndGet();
+            answer.submit("1234");
+        }).search(ROLL, REGISTRATION, outcome);
+
+        outcome.await();
+        assertEquals(FailureReason.REJECTED, outcome.reason);
+        assertEquals(1, solved.get());
+        assertEquals(3, website.getResultRequestCount());
+    }
+
+    private BoardSearch search(int concurrency, BatchLookup.CaptchaSolver solver) {
+        return new BoardSearch.Builder()
+                .setYear("2023")
+                .setExamType(ExamType.SSC)
+                .setBoards(BoardType.DHAKA, BoardType.CUMILLA, BoardType.CHITTAGONG)
+                .setConcurrency(concurrency)
+                .setCaptchaSolver(solver)
+                .setPriority(new BoardPriority())
+                .setCallbackExecutor(Runnable::run)
+                .setBaseUrl(FakeWebsite.BASE_URL)
+                .setTransport(new InMemoryTransport(website))
+                .setResilience(null)
+                .build();
+    }
+
+    /**
+     * Callback recording the outcome of a search and how often it was reported.
+     */
+    private static final class Outcome implements EResult.ResultCallback<BoardSearch.Match> {
+        private final CountDownLatch reported = new CountDownLatch(1);
+        private final AtomicInteger reports = new AtomicInteger();
+        volatile BoardSearch.Match match;
+        volatile FailureReason reason;
+
+        @Override
+        public void onResponse(BoardSearch.Match result) {
+            match = result;
+            reports.incrementAndGet();
+            reported.countDown();
+        }
+
+        @Override
+        public void onFailure(String result) {
+            throw new AssertionError("Failures are reported with their reason");
+        }
+
+        @Override
+        public void onError(FailureReason reason, String message) {
+            this.reason = reason;
+            reports.incrementAndGet();
+            reported.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("The search was never reported", reported.await(5, TimeUnit.SECONDS));
+            // Give a second report the chance to arrive.
+            Thread.sleep(50);
+            assertEquals(1, reports.get());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.eresult.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.eresult.sdk.data.Captcha;
+import com.eresult.sdk.data.query.http.InMemoryTransport;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class CaptchaPoolTest {
+
+    private final FakeWebsite website = new FakeWebsite();
+    private CaptchaPool pool;
+
+    @After
+    public void close() {
+        if (pool != null) pool.close();
+    }
+
+    @Test
+    public void startFillsPool() throws InterruptedException {
+        pool = pool(3, TimeUnit.MINUTES.toMillis(1)).start();
+
+        await(() -> pool.size() == 3);
+        assertEquals(3, website.getSessionCount());
+    }
+
+    @Test
+    public void pollHandsOutOldestCaptchaAndReplacesIt() throws InterruptedException {
+        pool = pool(2, TimeUnit.MINUTES.toMillis(1)).start();
+        await(() -> pool.size() == 2);
+
+        Captcha<byte[]> first = pool.poll();
+        Captcha<byte[]> second = pool.poll();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertTrue(first.getSession().getIssuedAt() <= second.getSession().getIssuedAt());
+        assertEquals(2, pool.getHits());
+
+        await(() -> pool.size() == 2);
+        assertEquals(4, website.getSessionCount());
+    }
+
+    @Test
+    public void emptyPoolCountsMiss() {
+        pool = pool(2, TimeUnit.MINUTES.toMillis(1));
+
+        assertNull(pool.poll());
+        assertEquals(1, pool.getMisses());
+        // A pool that was not started does not fetch captchas.
+        assertEquals(0, website.getSessionCount());
+    }
+
+    @Test
+    public void agedCaptchaIsEvictedAndReplaced() throws InterruptedException {
+        pool = pool(1, 100).start();
+        await(() -> pool.size() == 1);
+
+        await(() -> pool.getEvictions() > 0);
+        await(() -> pool.size() == 1);
+        assertTrue(website.getSessionCount() >= 2);
+        Captcha<byte[]> captcha = pool.poll();
+        // A captcha reaching the max age is evicted instead of handed out.
+        assertTrue(captcha == null || captcha.getSession().getAgeMillis() < 100);
+    }
+
+    @Test
+    public void failedRefillIsRetried() throws InterruptedException {
+        website.failCaptchas(1);
+        pool = pool(1, TimeUnit.MINUTES.toMillis(1)).start();
+
+        await(() -> pool.getFailures() == 1);
+        assertEquals(0, pool.size());
+        await(() -> pool.size() == 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closedPoolDropsCaptchasAndCannotStart() throws InterruptedException {
+        pool = pool(2, TimeUnit.MINUTES.toMillis(1)).start();
+        await(() -> pool.size() == 2);
+
+        pool.close();
+        assertEquals(0, pool.size());
+        assertNull(pool.poll());
+        pool.start();
+    }
+
+    private CaptchaPool pool(int size, long maxAgeMillis) {
+        return new CaptchaPool.Builder()
+                .setSize(size)
+                .setMaxAge(maxAgeMillis, TimeUnit.MILLISECONDS)
+                .setMaxRefills(2)
+                .setBaseUrl(FakeWebsite.BASE_URL)
+                .setTransport(new InMemoryTransport(website))
+                .build();
+    }
+
+    // Waits for the background refills of the pool, the first retry of a failed one comes after a second.
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue("The pool did not get there in time", System.nanoTime() < end);
+            Thread.sleep(5);
+        }
+    }
+}
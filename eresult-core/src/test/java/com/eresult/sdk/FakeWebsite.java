@@ -0,0 +1,105 @@
+package com.eresult.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.query.http.InMemoryTransport;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Handler standing in for eboardresults.com on an InMemoryTransport. Captchas are issued in numbered
+ * sessions, and result requests are answered by the Results of the test.
+ */
+final class FakeWebsite implements InMemoryTransport.Handler {
+
+    static final String BASE_URL = "https://eboardresults.com";
+    static final String REJECTED = "{\"status\":1,\"msg\":\"Invalid captcha!\"}";
+    static final String NOT_FOUND = "{\"status\":1,\"msg\":\"Result not found!\"}";
+
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger resultRequests = new AtomicInteger();
+    private final AtomicInteger captchaFailures = new AtomicInteger();
+    private final Map<String, CountDownLatch> gates = new ConcurrentHashMap<>();
+    private volatile Results results = (board, roll, session) -> result(roll);
+
+    /**
+     * Results interface answers a result request of the given board, roll and session number.
+     */
+    interface Results {
+        String answer(String board, String roll, int session);
+    }
+
+    static String result(String roll) {
+        return "{\"status\":0,\"msg\":\"\",\"res\":{\"roll_no\":\"" + roll + "\",\"reg_no\":\"1000" + roll
+                + "\",\"name\":\"STUDENT " + roll + "\",\"gpa\":\"5.00\",\"result\":\"PASSED\"}}";
+    }
+
+    void setResults(@NonNull Results results) {
+        this.results = results;
+    }
+
+    // Holds the result requests of the roll back until the gate is opened.
+    void close(String roll) {
+        gates.put(roll, new CountDownLatch(1));
+    }
+
+    void open(String roll) {
+        CountDownLatch gate = gates.remove(roll);
+        if (gate != null) gate.countDown();
+    }
+
+    // Breaks the connection of the next captcha requests.
+    void failCaptchas(int count) {
+        captchaFailures.set(count);
+    }
+
+    int getSessionCount() {
+        return sessions.get();
+    }
+
+    int getResultRequestCount() {
+        return resultRequests.get();
+    }
+
+    @NonNull
+    @Override
+    public Response handle(@NonNull Request request) throws IOException {
+        HttpUrl url = request.url();
+        if (url.encodedPath().endsWith("/v2/captcha")) {
+            if (captchaFailures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                throw new IOException("Connection reset");
+            }
+            return InMemoryTransport.newResponse(request)
+                    .header("Set-Cookie", "PHPSESSID=s" + sessions.incrementAndGet() + "; path=/")
+                    .body(ResponseBody.create(new byte[]{1, 2, 3}, null))
+                    .build();
+        }
+
+        resultRequests.incrementAndGet();
+        String roll = url.queryParameter("roll");
+        CountDownLatch gate = roll != null ? gates.get(roll) : null;
+        if (gate != null) {
+            try {
+                if (!gate.await(5, TimeUnit.SECONDS)) throw new IOException("Gate of " + roll + " never opened");
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }
+        String cookie = request.header("Cookie");
+        int session = cookie != null && cookie.startsWith("PHPSESSID=s")
+                ? Integer.parseInt(cookie.substring("PHPSESSID=s".length())) : 0;
+        return InMemoryTransport.newResponse(request)
+                .body(ResponseBody.create(results.answer(url.queryParameter("board"), roll, session), null))
+                .build();
+    }
+}
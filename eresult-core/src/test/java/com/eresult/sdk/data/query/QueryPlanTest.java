@@ -0,0 +1,76 @@
+package com.eresult.sdk.data.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.metrics.RequestTags;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import okhttp3.Call;
+import okhttp3.Request;
+
+public class QueryPlanTest {
+
+    private static final String BASE_URL = "https://eboardresults.com/";
+
+    private final QueryPlan plan = new QueryPlan(BASE_URL, BoardType.DHAKA, "2023", ExamType.SSC,
+            ResultType.INDIVIDUAL, null, null, null);
+
+    @Test
+    public void keyMatchesUncompiledFactory() {
+        ResultRequestFactory factory = new ResultRequestFactory("1234", "PHPSESSID=s1", "123456", "1000123456",
+                BoardType.DHAKA, "2023", ExamType.SSC, ResultType.INDIVIDUAL, null, null, null);
+
+        assertEquals(factory.getQueryKey(), plan.getQueryKey("123456", "1000123456"));
+        assertEquals(factory.getQueryKey(), plan.newFactory("1234", "PHPSESSID=s1", "123456", "1000123456").getQueryKey());
+    }
+
+    @Test
+    public void keyIgnoresCaptchaAndCookie() {
+        assertEquals(plan.newFactory("1234", "PHPSESSID=s1", "123456", "1000123456").getQueryKey(),
+                plan.newFactory("5678", "PHPSESSID=s2", "123456", "1000123456").getQueryKey());
+    }
+
+    @Test
+    public void keyTellsStudentsAndQueriesApart() {
+        String key = plan.getQueryKey("123456", "1000123456");
+        assertNotEquals(key, plan.getQueryKey("123457", "1000123456"));
+        assertNotEquals(key, plan.getQueryKey("123456", "1000123457"));
+
+        QueryPlan otherBoard = new QueryPlan(BASE_URL, BoardType.CUMILLA, "2023", ExamType.SSC,
+                ResultType.INDIVIDUAL, null, null, null);
+        assertNotEquals(key, otherBoard.getQueryKey("123456", "1000123456"));
+        QueryPlan institution = new QueryPlan(BASE_URL, BoardType.DHAKA, "2023", ExamType.SSC,
+                ResultType.INSTITUTION, "108256", null, null);
+        assertNotEquals(key, institution.getQueryKey("123456", "1000123456"));
+    }
+
+    @Test
+    public void requestMatchesUncompiledFactory() {
+        String captcha = "a b/\u00e7";
+        Request compiled = request(plan.newFactory(captcha, "PHPSESSID=s1", "123456", "1000123456"));
+        Request uncompiled = request(new ResultRequestFactory(captcha, "PHPSESSID=s1", "123456", "1000123456",
+                BoardType.DHAKA, "2023", ExamType.SSC, ResultType.INDIVIDUAL, null, null, null));
+
+        assertEquals(uncompiled.url(), compiled.url());
+        assertEquals("PHPSESSID=s1", compiled.header("Cookie"));
+        assertEquals(plan.getTags(), compiled.tag(RequestTags.class));
+    }
+
+    // Returns the request a factory creates its call for, on a LazyHttp with the plan's base URL.
+    private static Request request(ResultRequestFactory factory) {
+        AtomicReference<Request> created = new AtomicReference<>();
+        Call.Factory transport = request -> {
+            created.set(request);
+            return null;
+        };
+        factory.createCall(transport, new Request.Builder().url(BASE_URL).build());
+        return created.get();
+    }
+}
@@ -0,0 +1,98 @@
+package com.eresult.sdk.data.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import com.eresult.sdk.data.ResultRecord;
+import com.eresult.sdk.data.SubjectGrade;
+import com.eresult.sdk.data.query.http.FailureException;
+import com.eresult.sdk.data.query.http.FailureReason;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ResultReaderTest {
+
+    @Test
+    public void readsIndividualResult() throws IOException {
+        ResultReader reader = ResultReader.of("{\"status\":0,\"msg\":\"\",\"res\":{\"roll_no\":\"123456\","
+                + "\"reg_no\":\"1000123456\",\"name\":\"STUDENT\",\"gpa\":\"5.00\",\"result\":\"PASSED\","
+                + "\"center\":\"Dhaka\",\"display_details\":\"101:A+, 102:English:A\"}}");
+
+        ResultRecord record = reader.next();
+        assertEquals("123456", record.getRoll());
+        assertEquals("1000123456", record.getRegistration());
+        assertEquals("STUDENT", record.getName());
+        assertEquals("5.00", record.getGpa());
+        assertEquals("PASSED", record.getResult());
+        assertEquals("Dhaka", record.getExtras().get("center"));
+
+        List<SubjectGrade> subjects = record.getSubjects();
+        assertEquals(2, subjects.size());
+        assertEquals("101", subjects.get(0).getCode());
+        assertNull(subjects.get(0).getName());
+        assertEquals("A+", subjects.get(0).getGrade());
+        assertEquals("English", subjects.get(1).getName());
+
+        assertNull(reader.next());
+        assertEquals(0, reader.getStatus());
+    }
+
+    @Test
+    public void readsSubjectObjects() throws IOException {
+        ResultRecord record = ResultReader.of("{\"res\":{\"roll\":\"1\",\"subjects\":[{\"sub_code\":\"101\","
+                + "\"sub_name\":\"Bangla\",\"grade\":\"A+\",\"gp\":\"5\"},\"102:A\"]}}").next();
+
+        assertEquals(2, record.getSubjects().size());
+        SubjectGrade bangla = record.getSubjects().get(0);
+        assertEquals("Bangla", bangla.getName());
+        assertEquals("5", bangla.getPoint());
+        assertEquals("102", record.getSubjects().get(1).getCode());
+    }
+
+    @Test
+    public void streamsStudentsOfArray() throws IOException {
+        ResultReader reader = ResultReader.of("{\"res\":[{\"roll\":\"1\"},{\"unknown\":\"skipped\"},3,"
+                + "{\"roll\":\"2\"}],\"status\":\"0\"}");
+        List<String> rolls = new ArrayList<>();
+
+        assertEquals(2, reader.readAll(record -> rolls.add(record.getRoll())));
+        assertEquals("1", rolls.get(0));
+        assertEquals("2", rolls.get(1));
+        // Fields after the students are read once the students are.
+        assertEquals(0, reader.getStatus());
+    }
+
+    @Test
+    public void readsBareArray() throws IOException {
+        ResultReader reader = ResultReader.of("[{\"roll\":\"1\"},{\"roll\":\"2\"}]");
+
+        assertEquals("1", reader.next().getRoll());
+        assertEquals("2", reader.next().getRoll());
+        assertNull(reader.next());
+        assertEquals(-1, reader.getStatus());
+    }
+
+    @Test
+    public void rejectionHasNoRecords() throws IOException {
+        ResultReader reader = ResultReader.of("{\"status\":1,\"msg\":\"Invalid captcha!\"}");
+
+        assertNull(reader.next());
+        assertEquals(1, reader.getStatus());
+        assertEquals("Invalid captcha!", reader.getMessage());
+    }
+
+    @Test
+    public void unexpectedPayloadIsInvalidResponse() throws IOException {
+        try {
+            ResultReader.of("\"Service unavailable\"").next();
+            fail("The payload was accepted");
+        } catch (FailureException e) {
+            assertEquals(FailureReason.INVALID_RESPONSE, e.getReason());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.eresult.sdk.data.query.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+public class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 50;
+
+    @Test
+    public void halfOpenLetsSingleProbeThrough() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+
+        Thread.sleep(OPEN_MILLIS + 20);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        long probe = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.REJECTED, probe);
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+
+        breaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertNotEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+    }
+
+    @Test
+    public void failedProbeReopensCircuit() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_MILLIS + 20);
+        long probe = breaker.tryAcquire();
+
+        breaker.onFailure(probe);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+    }
+
+    @Test
+    public void ignoredProbeLetsNextRequestProbe() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_MILLIS + 20);
+        long probe = breaker.tryAcquire();
+
+        breaker.onIgnored(probe);
+        assertNotEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+    }
+
+    @Test
+    public void requestsSentBeforeOpeningDoNotChangeOpenCircuit() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(2, OPEN_MILLIS, TimeUnit.MILLISECONDS);
+        long stale = breaker.tryAcquire();
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // A late success does not close the circuit.
+        breaker.onSuccess(stale);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // A late failure does not push the reopen time further out.
+        Thread.sleep(OPEN_MILLIS + 20);
+        breaker.onFailure(stale);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // A late outcome does not make room for a second probe.
+        long probe = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.REJECTED, probe);
+        breaker.onIgnored(stale);
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+
+        breaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void interceptorReleasesProbeOnRuntimeException() throws Exception {
+        Resilience resilience = new Resilience.Builder()
+                .circuitBreaker(1, OPEN_MILLIS, TimeUnit.MILLISECONDS)
+                .build();
+        Outcome outcome = new Outcome();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new ResilienceInterceptor(resilience))
+                .addInterceptor(outcome)
+                .build();
+        Request request = new Request.Builder().url("https://eboardresults.com/").build();
+
+        outcome.failure = new IOException("Connection reset");
+        try {
+            client.newCall(request).execute();
+            fail("The network failure was not thrown");
+        } catch (IOException expected) {
+            // Opens the circuit.
+        }
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getCircuitBreaker("eboardresults.com").getState());
+
+        Thread.sleep(OPEN_MILLIS + 20);
+        outcome.failure = null;
+        outcome.crash = new IllegalStateException("Bug in an interceptor");
+        try {
+            client.newCall(request).execute();
+            fail("The runtime exception was not thrown");
+        } catch (IllegalStateException expected) {
+            // The probe says nothing about the website.
+        }
+
+        outcome.crash = null;
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker("eboardresults.com").getState());
+    }
+
+    @Test
+    public void interceptorFailsRequestsWhileOpen() {
+        Resilience resilience = new Resilience.Builder()
+                .circuitBreaker(1, 1, TimeUnit.MINUTES)
+                .build();
+        Outcome outcome = new Outcome();
+        outcome.failure = new IOException("Connection reset");
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new ResilienceInterceptor(resilience))
+                .addInterceptor(outcome)
+                .build();
+        Request request = new Request.Builder().url("https://eboardresults.com/").build();
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                client.newCall(request).execute();
+                fail("The request did not fail");
+            } catch (IOException e) {
+                assertEquals(i == 0 ? FailureReason.NETWORK : FailureReason.CIRCUIT_OPEN, FailureReason.of(e));
+            }
+        }
+        assertEquals(1, outcome.calls);
+    }
+
+    // Returns a breaker opened by a single failure.
+    private static CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker(1, OPEN_MILLIS, TimeUnit.MILLISECONDS);
+        breaker.onFailure(breaker.tryAcquire());
+        return breaker;
+    }
+
+    /**
+     * Interceptor standing in for the website, answering 200 unless told to fail.
+     */
+    private static final class Outcome implements Interceptor {
+        volatile IOException failure;
+        volatile RuntimeException crash;
+        volatile int calls;
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            calls++;
+            if (failure != null) throw failure;
+            if (crash != null) throw crash;
+            return new Response.Builder()
+                    .request(chain.request())
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK")
+                    .body(ResponseBody.create(new byte[0], null))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.eresult.sdk.data.query.http;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    @Test
+    public void requestsBeyondLimitWaitForRelease() {
+        ConcurrencyLimiter limiter = limiter(new ConcurrencyLimiter.Builder());
+        execute(limiter, 3);
+        assertEquals(2, started.get());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getQueued());
+
+        limiter.release(RTT, false);
+        assertEquals(3, started.get());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+        assertEquals(0, rejected.get());
+    }
+
+    @Test
+    public void fullQueueRejectsRequests() {
+        ConcurrencyLimiter limiter = limiter(new ConcurrencyLimiter.Builder().queue(1));
+        execute(limiter, 4);
+        assertEquals(2, started.get());
+        assertEquals(1, limiter.getQueued());
+        assertEquals(1, rejected.get());
+    }
+
+    @Test
+    public void rejectPolicyDoesNotQueue() {
+        ConcurrencyLimiter limiter = limiter(new ConcurrencyLimiter.Builder().reject());
+        execute(limiter, 3);
+        assertEquals(2, started.get());
+        assertEquals(0, limiter.getQueued());
+        assertEquals(1, rejected.get());
+    }
+
+    @Test
+    public void dropShrinksLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter.Builder()
+                .algorithm(new AimdLimit(4, 1, 8, 0.5, 5, TimeUnit.SECONDS))
+                .build();
+        execute(limiter, 4);
+        limiter.release(RTT, true);
+        assertEquals(2, limiter.getLimit());
+
+        // The requests still in flight keep running, new ones wait until they are below the limit.
+        execute(limiter, 1);
+        assertEquals(4, started.get());
+        assertEquals(1, limiter.getQueued());
+        limiter.release(RTT, false);
+        limiter.release(RTT, false);
+        assertEquals(5, started.get());
+    }
+
+    @Test
+    public void unusedSlotDoesNotUpdateLimit() {
+        ConcurrencyLimiter limiter = limiter(new ConcurrencyLimiter.Builder());
+        execute(limiter, 3);
+        limiter.releaseUnused();
+        assertEquals(2, limiter.getLimit());
+        assertEquals(3, started.get());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    // Limiter with a limit of 2 that does not change while requests succeed.
+    private static ConcurrencyLimiter limiter(ConcurrencyLimiter.Builder builder) {
+        return builder.algorithm(new AimdLimit(2, 1, 2, 0.5, 5, TimeUnit.SECONDS)).build();
+    }
+
+    private void execute(ConcurrencyLimiter limiter, int requests) {
+        for (int i = 0; i < requests; i++) {
+            limiter.execute(started::incrementAndGet, rejected::incrementAndGet);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.eresult.sdk.data.query.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LimitAlgorithmTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void aimdGrowsByAboutOnePerRound() {
+        AimdLimit aimd = new AimdLimit(4, 1, 8, 0.9, 1, TimeUnit.SECONDS);
+        // A round of 4 requests is not quite enough, since the limit grows while the round runs.
+        sample(aimd, 4, RTT, false);
+        assertEquals(4, aimd.getLimit());
+        sample(aimd, 1, RTT, false);
+        assertEquals(5, aimd.getLimit());
+    }
+
+    @Test
+    public void aimdOnlyGrowsWhileLimitIsUsed() {
+        AimdLimit aimd = new AimdLimit(4, 1, 8, 0.9, 1, TimeUnit.SECONDS);
+        for (int i = 0; i < 100; i++) {
+            aimd.onSample(RTT, 1, false);
+        }
+        assertEquals(4, aimd.getLimit());
+    }
+
+    @Test
+    public void aimdBacksOffOnDropsAndSlowRequests() {
+        AimdLimit aimd = new AimdLimit(8, 2, 8, 0.5, 1, TimeUnit.SECONDS);
+        aimd.onSample(RTT, 8, true);
+        assertEquals(4, aimd.getLimit());
+        aimd.onSample(TimeUnit.SECONDS.toNanos(2), 4, false);
+        assertEquals(2, aimd.getLimit());
+        aimd.onSample(RTT, 2, true);
+        assertEquals(2, aimd.getLimit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aimdRejectsInitialLimitOutsideBounds() {
+        new AimdLimit(10, 1, 8, 0.9, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void gradientGrowsWhileLatencyIsSteady() {
+        GradientLimit gradient = new GradientLimit(8, 1, 64);
+        sample(gradient, 20, RTT, false);
+        assertTrue(gradient.getLimit() > 8);
+    }
+
+    @Test
+    public void gradientShrinksWhenLatencyRises() {
+        GradientLimit gradient = new GradientLimit(32, 1, 64);
+        sample(gradient, 20, RTT, false);
+        int steady = gradient.getLimit();
+        sample(gradient, 20, RTT * 4, false);
+        assertTrue(gradient.getLimit() < steady);
+    }
+
+    @Test
+    public void gradientShrinksOnDrops() {
+        GradientLimit gradient = new GradientLimit(32, 4, 64);
+        sample(gradient, 1, RTT, true);
+        assertTrue(gradient.getLimit() < 32);
+        sample(gradient, 200, RTT, true);
+        assertEquals(4, gradient.getLimit());
+    }
+
+    // Feeds samples of requests that used the whole limit.
+    private static void sample(LimitAlgorithm algorithm, int samples, long rttNanos, boolean dropped) {
+        for (int i = 0; i < samples; i++) {
+            algorithm.onSample(rttNanos, algorithm.getLimit(), dropped);
+        }
+    }
+}
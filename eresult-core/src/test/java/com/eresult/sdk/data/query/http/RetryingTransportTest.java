@@ -0,0 +1,168 @@
+package com.eresult.sdk.data.query.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class RetryingTransportTest {
+
+    private static final Request REQUEST = new Request.Builder().url("https://eboardresults.com/v2/captcha").build();
+
+    // Status codes answered in order, the last one repeated.
+    private volatile int[] codes = {200};
+    private volatile String retryAfter;
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final InMemoryTransport website = new InMemoryTransport(request -> {
+        int attempt = attempts.getAndIncrement();
+        int[] answers = codes;
+        Response.Builder response = InMemoryTransport.newResponse(request)
+                .code(answers[Math.min(attempt, answers.length - 1)]);
+        if (retryAfter != null) response.header("Retry-After", retryAfter);
+        return response.build();
+    });
+
+    @Test
+    public void enqueuedCallIsRetriedUntilItSucceeds() throws Exception {
+        codes = new int[]{503, 503, 200};
+        Response response = enqueue(transport(3).newCall(REQUEST)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(200, response.code());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void lastServerErrorFailsCall() throws Exception {
+        codes = new int[]{429};
+        try {
+            transport(1).newCall(REQUEST).execute();
+            fail("The call did not fail");
+        } catch (FailureException e) {
+            assertEquals(FailureReason.RATE_LIMITED, e.getReason());
+        }
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void requestsWithoutRetriesAreSentOnce() {
+        codes = new int[]{503, 200};
+        Request result = Resilience.withoutRetries(REQUEST.newBuilder()).build();
+        try {
+            transport(3).newCall(result).execute();
+            fail("The call did not fail");
+        } catch (IOException e) {
+            assertEquals(FailureReason.SERVER_ERROR, FailureReason.of(e));
+        }
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void cancellingDuringBackoffFailsCallRightAway() throws Exception {
+        codes = new int[]{503, 200};
+        retryAfter = "2";
+        Call call = transport(3).newCall(REQUEST);
+        CompletableFuture<Response> response = enqueue(call);
+        while (attempts.get() == 0) {
+            Thread.sleep(5);
+        }
+        // Give the failed attempt time to schedule its retry.
+        Thread.sleep(50);
+
+        long start = System.nanoTime();
+        call.cancel();
+        assertEquals(FailureReason.CANCELED, failure(response));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void deadlineCoversAllAttempts() {
+        codes = new int[]{503, 200};
+        retryAfter = "2";
+        Call call = transport(3).newCall(REQUEST);
+        call.timeout().timeout(300, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        try {
+            call.execute();
+            fail("The call did not fail");
+        } catch (IOException e) {
+            // The website asks for a retry only after the deadline.
+            assertEquals(FailureReason.SERVER_ERROR, FailureReason.of(e));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void retryAfterLongerThanMaxDelayIsNotWaitedFor() {
+        codes = new int[]{503, 200};
+        retryAfter = "60";
+        try {
+            transport(3).newCall(REQUEST).execute();
+            fail("The call did not fail");
+        } catch (IOException e) {
+            assertEquals(FailureReason.SERVER_ERROR, FailureReason.of(e));
+        }
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void callCanOnlyBeExecutedOnce() throws IOException {
+        Call call = transport(1).newCall(REQUEST);
+        call.execute().close();
+        try {
+            call.execute();
+            fail("The call was executed twice");
+        } catch (IllegalStateException expected) {
+            // Like an OkHttp call.
+        }
+    }
+
+    private RetryingTransport transport(int maxRetries) {
+        return new RetryingTransport(website, new Resilience.Builder()
+                .maxRetries(maxRetries)
+                .backoff(1, 5_000, TimeUnit.MILLISECONDS)
+                .retryBudget(new RetryBudget(1, 100))
+                .build());
+    }
+
+    private static CompletableFuture<Response> enqueue(Call call) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private static FailureReason failure(CompletableFuture<Response> response) throws Exception {
+        try {
+            response.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return FailureReason.of(e.getCause());
+        }
+        throw new AssertionError("The call did not fail");
+    }
+}
@@ -0,0 +1,211 @@
+package com.eresult.sdk.data.query.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+public class SingleFlightTest {
+
+    private static final String KEY = "dhaka|2023|ssc|123456";
+    private static final String REJECTED = "rejected";
+
+    // Bodies answering the requests in order, each request waits for its body.
+    private final BlockingQueue<String> bodies = new LinkedBlockingQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final InMemoryTransport transport = new InMemoryTransport(request -> {
+        requests.incrementAndGet();
+        String body;
+        try {
+            body = bodies.take();
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+        return InMemoryTransport.newResponse(request).body(ResponseBody.create(body, null)).build();
+    });
+    private final SingleFlight<String> singleFlight = new SingleFlight<>(response -> !REJECTED.equals(response));
+
+    @Test
+    public void joinedQueryReceivesSharedResponse() throws Exception {
+        Outcome leader = new Outcome();
+        Outcome joiner = new Outcome();
+        assertNotNull(singleFlight.execute(KEY, 0, this::start, leader, null));
+        assertNull(singleFlight.execute(KEY, 0, this::start, joiner, null));
+
+        bodies.add("result");
+        assertEquals("result", leader.get());
+        assertEquals("result", joiner.get());
+        assertEquals(1, requests.get());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    public void unsharedResponseExecutesJoinedQueryAgainOnItsFuture() throws Exception {
+        Outcome leader = new Outcome();
+        Outcome joiner = new Outcome();
+        CallFuture<String> future = new CallFuture<>();
+        Call leaderCall = singleFlight.execute(KEY, 0, this::start, leader, null);
+        assertNull(singleFlight.execute(KEY, 0, this::start, joiner, future));
+        assertNull(future.getCall());
+
+        bodies.add(REJECTED);
+        assertEquals(REJECTED, leader.get());
+        Call restarted = awaitCall(future);
+        assertNotSame(leaderCall, restarted);
+
+        // The request sent again is cancelled through the joiner's future.
+        awaitRequests(2);
+        future.cancel(false);
+        assertTrue(restarted.isCanceled());
+        bodies.add("result");
+        assertEquals(FailureReason.CANCELED, joiner.failure());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void cancelledLeaderDoesNotFailJoiner() throws Exception {
+        Outcome leader = new Outcome();
+        Outcome joiner = new Outcome();
+        Call leaderCall = singleFlight.execute(KEY, 0, this::start, leader, null);
+        assertNull(singleFlight.execute(KEY, 0, this::start, joiner, null));
+
+        // Cancelled once it was sent, so the website still answers it.
+        awaitRequests(1);
+        leaderCall.cancel();
+        bodies.add("result");
+        assertEquals(FailureReason.CANCELED, leader.failure());
+
+        // The joiner leads a request of its own.
+        bodies.add("result");
+        assertEquals("result", joiner.get());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void joinerTimesOutOnItsOwn() throws Exception {
+        Outcome leader = new Outcome();
+        Outcome joiner = new Outcome();
+        assertNotNull(singleFlight.execute(KEY, 0, this::start, leader, null));
+        long start = System.nanoTime();
+        assertNull(singleFlight.execute(KEY, 50, this::start, joiner, null));
+
+        assertEquals(FailureReason.TIMEOUT, joiner.failure());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertFalse(leader.isDone());
+
+        bodies.add("result");
+        assertEquals("result", leader.get());
+        assertEquals(1, joiner.calls.get());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void joinerSentAgainKeepsItsDeadline() throws Exception {
+        Outcome leader = new Outcome();
+        Outcome joiner = new Outcome();
+        CallFuture<String> future = new CallFuture<>();
+        singleFlight.execute(KEY, 0, this::start, leader, null);
+        singleFlight.execute(KEY, 5_000, this::start, joiner, future);
+
+        bodies.add(REJECTED);
+        Call restarted = awaitCall(future);
+        long remaining = restarted.timeout().timeoutNanos();
+        assertTrue(remaining > 0 && remaining <= TimeUnit.SECONDS.toNanos(5));
+
+        bodies.add("result");
+        assertEquals("result", joiner.get());
+    }
+
+    // Query sending the request on the transport, as LazyHttp does.
+    private Call start(long timeoutMillis, LazyHttp.Callback<String> callback) {
+        Call call = transport.newCall(new Request.Builder().url("https://eboardresults.com/v2/getres").build());
+        if (timeoutMillis > 0) call.timeout().timeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
+                callback.onResponse(call, response.body().string());
+            }
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                callback.onFailure(call, e);
+            }
+        });
+        return call;
+    }
+
+    private void awaitRequests(int count) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requests.get() < count && System.nanoTime() < end) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, requests.get());
+    }
+
+    private static Call awaitCall(CallFuture<?> future) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (future.getCall() == null && System.nanoTime() < end) {
+            Thread.sleep(5);
+        }
+        assertNotNull("No call was attached to the future", future.getCall());
+        return future.getCall();
+    }
+
+    /**
+     * Callback recording the outcome of a query and how often it was reported.
+     */
+    private static final class Outcome extends CompletableFuture<String> implements LazyHttp.Callback<String> {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public void onResponse(Call call, String response) {
+            calls.incrementAndGet();
+            complete(response);
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            calls.incrementAndGet();
+            completeExceptionally(e);
+        }
+
+        @Override
+        public String get() throws InterruptedException, ExecutionException {
+            try {
+                return super.get(5, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                throw new AssertionError("The query was not answered", e);
+            }
+        }
+
+        FailureReason failure() throws InterruptedException {
+            try {
+                get();
+            } catch (ExecutionException e) {
+                return FailureReason.of(e.getCause());
+            }
+            throw new AssertionError("The query did not fail");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.eresult.sdk.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.eresult.sdk.data.query.http.FailureReason;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+
+import okhttp3.HttpUrl;
+
+public class FlightRecorderTest {
+
+    private static final RequestTags RESULT = RequestTags.of("/v2/getres");
+    private static final HttpUrl URL = HttpUrl.get("https://eboardresults.com/v2/getres?exam=ssc&year=2023"
+            + "&board=dhaka&result_type=1&roll=123456&reg=1000123456&eiin&captcha=8421");
+
+    @Test
+    public void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(128, new FlightRecorder(100).getCapacity());
+        assertEquals(1, new FlightRecorder(1).getCapacity());
+    }
+
+    @Test
+    public void snapshotKeepsLatestExchangesOldestFirst() {
+        FlightRecorder recorder = new FlightRecorder(4);
+        for (int i = 0; i < 6; i++) {
+            record(recorder, 200 + i, null);
+        }
+
+        List<FlightRecorder.Exchange> exchanges = recorder.snapshot();
+        assertEquals(6, recorder.getRecorded());
+        assertEquals(4, exchanges.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i + 2, exchanges.get(i).getSequence());
+            assertEquals(202 + i, exchanges.get(i).getStatus());
+        }
+    }
+
+    @Test
+    public void exchangeKeepsItsMeasurements() {
+        FlightRecorder recorder = new FlightRecorder(4);
+        recorder.record(RESULT, URL, 1_700_000_000_000L, -1, -1, -1, 40_000_000, 2_000_000, 45_000_000,
+                1, 0, 0, 512, FailureReason.TIMEOUT);
+
+        FlightRecorder.Exchange exchange = recorder.snapshot().get(0);
+        assertEquals("/v2/getres", exchange.getEndpoint());
+        assertEquals(1_700_000_000_000L, exchange.getStartMillis());
+        assertEquals(-1, exchange.getDnsNanos());
+        assertEquals(40_000_000, exchange.getFirstByteNanos());
+        assertEquals(45_000_000, exchange.getCallNanos());
+        assertEquals(512, exchange.getBytesReceived());
+        assertEquals(FailureReason.TIMEOUT, exchange.getFailure());
+    }
+
+    @Test
+    public void studentDataIsRedacted() throws IOException {
+        FlightRecorder recorder = new FlightRecorder(4);
+        record(recorder, 200, null);
+
+        assertEquals("exam=ssc&year=2023&board=dhaka&result_type=1&roll=*&reg=*&eiin&captcha=*",
+                recorder.snapshot().get(0).getQuery());
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        recorder.writeJson(json);
+        String dump = new String(json.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(dump.contains("\"endpoint\": \"/v2/getres\""));
+        assertFalse(dump.contains("123456"));
+        assertFalse(dump.contains("8421"));
+    }
+
+    @Test
+    public void binaryDumpReadsBack() throws IOException {
+        FlightRecorder recorder = new FlightRecorder(4);
+        record(recorder, 200, null);
+        record(recorder, 0, FailureReason.NETWORK);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        recorder.writeBinary(output);
+
+        List<FlightRecorder.Exchange> exchanges = FlightRecorder.readBinary(new ByteArrayInputStream(output.toByteArray()));
+        assertEquals(2, exchanges.size());
+        List<FlightRecorder.Exchange> recorded = recorder.snapshot();
+        for (int i = 0; i < 2; i++) {
+            assertEquals(recorded.get(i).toString(), exchanges.get(i).toString());
+            assertEquals(recorded.get(i).getQuery(), exchanges.get(i).getQuery());
+            assertEquals(recorded.get(i).getBytesSent(), exchanges.get(i).getBytesSent());
+        }
+        assertNull(exchanges.get(0).getFailure());
+        assertEquals(FailureReason.NETWORK, exchanges.get(1).getFailure());
+    }
+
+    @Test(expected = IOException.class)
+    public void otherDataIsNoBinaryDump() throws IOException {
+        FlightRecorder.readBinary(new ByteArrayInputStream("[{\"sequence\":0}]".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void record(FlightRecorder recorder, int status, FailureReason failure) {
+        recorder.record(RESULT, URL, System.currentTimeMillis(), 1_000, 2_000, 3_000, 4_000, 5_000, 20_000,
+                1, status, 64, 1_024, failure);
+    }
+}
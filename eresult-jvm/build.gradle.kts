@@ -0,0 +1,28 @@
+plugins {
+    id("java-library")
+    id("maven-publish")
+}
+
+// JVM-only additions built on java.util.concurrent.Flow, which Android only ships from API level 30.
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    api(project(":eresult-core"))
+    implementation("androidx.annotation:annotation:1.7.1")
+    testImplementation("junit:junit:4.13.2")
+}
+
+publishing {
+    publications {
+        register<MavenPublication>("release") {
+            groupId = "com.github.lazy-pr0grammer"
+            artifactId = "eresult-jvm"
+            version = "1.0"
+
+            from(components["java"])
+        }
+    }
+}
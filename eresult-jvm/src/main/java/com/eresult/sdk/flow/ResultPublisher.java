@@ -0,0 +1,259 @@
+/**
+ * ResultPublisher class publishes the students of an institution, center or district result as a
+ * java.util.concurrent.Flow.Publisher, decoded while the response is being downloaded.
+ * <p>
+ * Records are only read off the socket as far as the subscriber has requested them. Without demand the
+ * response body is not read, the socket buffers fill up and TCP flow control holds the website back, so
+ * a slow subscriber never makes the SDK buffer more than a few records. Cancelling the subscription
+ * cancels the underlying Call and releases its connection.
+ * <p>
+ * The request is sent on the first demand. Reads block the executor's thread while waiting for the
+ * network, so use an executor suited for blocking work, e.g. a virtual thread per task executor.
+ * Every subscriber sends its own request within the given session, which the website only accepts until
+ * it expires (see Session), so a publisher is meant for a single subscriber.
+ */
+package com.eresult.sdk.flow;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.EResult;
+import com.eresult.sdk.data.ResultRecord;
+import com.eresult.sdk.data.Session;
+import com.eresult.sdk.data.query.ResultReader;
+import com.eresult.sdk.data.query.http.CallFuture;
+import com.eresult.sdk.data.query.http.FailureException;
+import com.eresult.sdk.data.query.http.FailureReason;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ResultPublisher implements Flow.Publisher<ResultRecord> {
+
+    private final EResult eResult;
+    private final Session session;
+    private final String captcha;
+    private final Executor executor;
+
+    /**
+     * Constructor for ResultPublisher, reading on a shared pool of daemon threads.
+     *
+     * @param eResult EResult instance configured for the institution, center or district result.
+     * @param session Session the captcha was issued in.
+     * @param captcha Captcha code for result retrieval.
+     */
+    public ResultPublisher(@NonNull EResult eResult, @NonNull Session session, @NonNull String captcha) {
+        this(eResult, session, captcha, ReadExecutor.INSTANCE);
+    }
+
+    /**
+     * Constructor for ResultPublisher.
+     *
+     * @param eResult  EResult instance configured for the institution, center or district result.
+     * @param session  Session the captcha was issued in.
+     * @param captcha  Captcha code for result retrieval.
+     * @param executor Executor reading the response and signalling the subscriber.
+     */
+    public ResultPublisher(
+            @NonNull EResult eResult, @NonNull Session session, @NonNull String captcha, @NonNull Executor executor) {
+        this.eResult = eResult;
+        this.session = session;
+        this.captcha = captcha;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ResultRecord> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber == null");
+        }
+        subscriber.onSubscribe(new RecordSubscription(subscriber));
+    }
+
+    /**
+     * Subscription reading records on demand. All reads and signals happen in drain(), which runs on the
+     * executor and never on more than one thread at a time.
+     */
+    private final class RecordSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super ResultRecord> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+        private volatile CallFuture<ResultReader> future;
+        private volatile Throwable invalidRequest;
+
+        // Only touched while draining.
+        private ResultReader reader;
+        private int count;
+        private boolean done;
+
+        RecordSubscription(Flow.Subscriber<? super ResultRecord> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                long current;
+                long next;
+                do {
+                    current = requested.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!requested.compareAndSet(current, next));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            // Aborts a read blocked on the socket, the reader is closed by the drain.
+            CallFuture<ResultReader> future = this.future;
+            if (future != null) {
+                future.cancel(true);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (done) return;
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            if (invalidRequest != null) {
+                cancel();
+                fail(invalidRequest);
+                return;
+            }
+            if (reader == null && !open()) return;
+
+            try {
+                while (requested.get() > 0) {
+                    ResultRecord record = reader.next();
+                    if (cancelled) {
+                        terminate();
+                        return;
+                    }
+                    if (record == null) {
+                        complete();
+                        return;
+                    }
+                    count++;
+                    if (requested.get() != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    subscriber.onNext(record);
+                    if (cancelled) {
+                        terminate();
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                if (cancelled) {
+                    terminate();
+                } else {
+                    fail(FailureException.of(e));
+                }
+            } catch (RuntimeException e) {
+                // The subscriber broke the contract by throwing, it must not be signalled anymore.
+                cancel();
+                terminate();
+            }
+        }
+
+        // Sends the request on the first demand, then takes the reader once it has arrived.
+        private boolean open() {
+            CallFuture<ResultReader> future = this.future;
+            if (future == null) {
+                future = eResult.resultReaderAsync(session, captcha);
+                this.future = future;
+                if (cancelled) {
+                    future.cancel(true);
+                }
+                future.whenComplete((reader, failure) -> schedule());
+            }
+            if (!future.isDone()) return false;
+
+            try {
+                reader = future.join();
+                return true;
+            } catch (CancellationException e) {
+                terminate();
+            } catch (CompletionException e) {
+                fail(e.getCause() instanceof IOException ? FailureException.of((IOException) e.getCause()) : e.getCause());
+            }
+            return false;
+        }
+
+        private void complete() {
+            int status = reader.getStatus();
+            String message = reader.getMessage();
+            terminate();
+            if (count == 0 && status > 0) {
+                subscriber.onError(new FailureException(FailureReason.REJECTED,
+                        message != null && !message.isEmpty() ? message : "Result rejected"));
+            } else {
+                subscriber.onComplete();
+            }
+        }
+
+        private void fail(Throwable failure) {
+            terminate();
+            subscriber.onError(failure);
+        }
+
+        // Marks the subscription done and releases the response.
+        private void terminate() {
+            if (done) return;
+            done = true;
+            ResultReader open = reader;
+            CallFuture<ResultReader> future = this.future;
+            if (open == null && future != null && future.isDone() && !future.isCompletedExceptionally()) {
+                // The response arrived before the cancellation but was not taken by the drain yet.
+                open = future.getNow(null);
+            }
+            if (open != null) {
+                try {
+                    open.close();
+                } catch (IOException ignored) {
+                }
+                reader = null;
+            }
+        }
+    }
+
+    // Lazily created pool of daemon threads reading responses.
+    private static class ReadExecutor {
+        static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "EResult publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,297 @@
+/**
+ * JdkHttpTransport class runs the calls of LazyHttp on the JDK's java.net.http.HttpClient. The client
+ * negotiates HTTP/2, so concurrent lookups are multiplexed over a few connections, and blocking calls park
+ * without holding a carrier thread when they are made from virtual threads.
+ * <p>
+ * Requests and responses are translated from and to OkHttp values, the body of a response is streamed from
+ * the client without being buffered. OkHttp interceptors, event listeners and the DNS cache do not apply,
+ * so LazyHttp's resilience, metrics and DNS cache settings have no effect on this transport.
+ */
+package com.eresult.sdk.transport;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.data.query.http.Transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.Okio;
+import okio.Timeout;
+
+public class JdkHttpTransport implements Transport {
+
+    // Headers the HttpClient sets itself and refuses to take from the request.
+    private static final List<String> RESTRICTED_HEADERS =
+            Arrays.asList("connection", "content-length", "expect", "host", "upgrade");
+
+    private final HttpClient client;
+
+    /**
+     * Constructor for JdkHttpTransport, on a client preferring HTTP/2, following redirects like OkHttp and
+     * connecting within 10 seconds.
+     */
+    public JdkHttpTransport() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build());
+    }
+
+    /**
+     * Constructor for JdkHttpTransport.
+     *
+     * @param client HttpClient executing the calls.
+     */
+    public JdkHttpTransport(@NonNull HttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Returns the client executing the calls.
+     *
+     * @return HttpClient instance.
+     */
+    @NonNull
+    public HttpClient getClient() {
+        return client;
+    }
+
+    @NonNull
+    @Override
+    public Call newCall(@NonNull Request request) {
+        return new JdkCall(request);
+    }
+
+    @NonNull
+    @Override
+    public List<InetAddress> lookup(@NonNull String host) throws IOException {
+        return Arrays.asList(InetAddress.getAllByName(host));
+    }
+
+    /**
+     * Returns -1, the HttpClient does not expose its connection pool.
+     *
+     * @return -1.
+     */
+    @Override
+    public int idleConnectionCount() {
+        return -1;
+    }
+
+    /**
+     * Call sent with the HttpClient. Cancelling it cancels the exchange and closes the body being read.
+     */
+    private final class JdkCall implements Call {
+        private final Request request;
+        private final AtomicBoolean executed = new AtomicBoolean();
+        private final Timeout timeout = new Timeout();
+
+        private volatile boolean canceled;
+        private volatile CompletableFuture<HttpResponse<InputStream>> exchange;
+        private volatile InputStream body;
+
+        JdkCall(Request request) {
+            this.request = request;
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @NonNull
+        @Override
+        public Response execute() throws IOException {
+            long sentAt = System.currentTimeMillis();
+            CompletableFuture<HttpResponse<InputStream>> exchange = send();
+            try {
+                return toResponse(exchange.get(), sentAt);
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Canceled");
+            } catch (ExecutionException | CancellationException e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback callback) {
+            long sentAt = System.currentTimeMillis();
+            CompletableFuture<HttpResponse<InputStream>> exchange;
+            try {
+                exchange = send();
+            } catch (IOException e) {
+                callback.onFailure(this, e);
+                return;
+            }
+            exchange.whenComplete((response, e) -> {
+                if (e != null) {
+                    callback.onFailure(this, failure(e));
+                    return;
+                }
+                try {
+                    callback.onResponse(this, toResponse(response, sentAt));
+                } catch (IOException ignored) {
+                    // Like OkHttp, a failing callback is not told about its own failure.
+                }
+            });
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            CompletableFuture<HttpResponse<InputStream>> exchange = this.exchange;
+            if (exchange != null) {
+                exchange.cancel(true);
+            }
+            InputStream body = this.body;
+            if (body != null) {
+                try {
+                    body.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed.get();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return timeout;
+        }
+
+        @NonNull
+        @Override
+        public Call clone() {
+            return new JdkCall(request);
+        }
+
+        // Translates the request and sends it, the timeout of the call covers the wait for the headers.
+        private CompletableFuture<HttpResponse<InputStream>> send() throws IOException {
+            if (!executed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Already Executed");
+            }
+            if (canceled) {
+                throw new IOException("Canceled");
+            }
+
+            HttpRequest.Builder builder = HttpRequest.newBuilder(request.url().uri());
+            for (int i = 0; i < request.headers().size(); i++) {
+                String name = request.headers().name(i);
+                if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                    builder.header(name, request.headers().value(i));
+                }
+            }
+            RequestBody requestBody = request.body();
+            if (requestBody == null) {
+                builder.method(request.method(), HttpRequest.BodyPublishers.noBody());
+            } else {
+                Buffer buffer = new Buffer();
+                requestBody.writeTo(buffer);
+                MediaType contentType = requestBody.contentType();
+                if (contentType != null && request.header("Content-Type") == null) {
+                    builder.header("Content-Type", contentType.toString());
+                }
+                builder.method(request.method(), HttpRequest.BodyPublishers.ofByteArray(buffer.readByteArray()));
+            }
+            if (timeout.timeoutNanos() > 0) {
+                builder.timeout(Duration.ofNanos(timeout.timeoutNanos()));
+            }
+
+            CompletableFuture<HttpResponse<InputStream>> exchange =
+                    client.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            this.exchange = exchange;
+            if (canceled) {
+                exchange.cancel(true);
+            }
+            return exchange;
+        }
+
+        private Response toResponse(HttpResponse<InputStream> response, long sentAt) throws IOException {
+            body = response.body();
+            if (canceled) {
+                body.close();
+                throw new IOException("Canceled");
+            }
+
+            Headers.Builder headers = new Headers.Builder();
+            for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+                // HTTP/2 pseudo headers such as :status are not headers of the response.
+                if (header.getKey().startsWith(":")) continue;
+                for (String value : header.getValue()) {
+                    headers.addUnsafeNonAscii(header.getKey(), value);
+                }
+            }
+            String contentType = response.headers().firstValue("Content-Type").orElse(null);
+            long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(response.version() == HttpClient.Version.HTTP_2 ? Protocol.HTTP_2 : Protocol.HTTP_1_1)
+                    .code(response.statusCode())
+                    .message("")
+                    .headers(headers.build())
+                    .body(ResponseBody.create(
+                            Okio.buffer(Okio.source(body)),
+                            contentType != null ? MediaType.parse(contentType) : null,
+                            contentLength))
+                    .sentRequestAtMillis(sentAt)
+                    .receivedResponseAtMillis(System.currentTimeMillis())
+                    .build();
+        }
+
+        // Maps a failed exchange onto the IOExceptions OkHttp fails its calls with.
+        private IOException failure(Throwable e) {
+            Throwable cause = e instanceof ExecutionException || e instanceof CompletionException ? e.getCause() : e;
+            if (canceled || cause instanceof CancellationException) {
+                return new IOException("Canceled", cause);
+            }
+            if (cause instanceof HttpTimeoutException) {
+                InterruptedIOException timeout = new InterruptedIOException("timeout");
+                timeout.initCause(cause);
+                return timeout;
+            }
+            if (cause instanceof IOException) {
+                return (IOException) cause;
+            }
+            return new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.eresult.sdk.flow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.eresult.sdk.EResult;
+import com.eresult.sdk.data.BoardType;
+import com.eresult.sdk.data.ExamType;
+import com.eresult.sdk.data.ResultRecord;
+import com.eresult.sdk.data.ResultType;
+import com.eresult.sdk.data.Session;
+import com.eresult.sdk.data.query.http.FailureException;
+import com.eresult.sdk.data.query.http.FailureReason;
+import com.eresult.sdk.data.query.http.InMemoryTransport;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import okhttp3.ResponseBody;
+
+public class ResultPublisherTest {
+
+    private static final int STUDENTS = 50;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile String body = institution(STUDENTS);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void recordsFollowDemand() throws Exception {
+        Recorder recorder = new Recorder();
+        publisher().subscribe(recorder);
+
+        recorder.subscription.request(2);
+        recorder.awaitRecords(2);
+        Thread.sleep(50);
+        assertEquals(2, recorder.records.size());
+        assertEquals(1, requests.get());
+
+        recorder.subscription.request(Long.MAX_VALUE);
+        recorder.awaitTermination();
+        assertEquals(STUDENTS, recorder.records.size());
+        assertEquals("100000", recorder.records.get(0).getRoll());
+        assertEquals(1, recorder.completions.get());
+    }
+
+    @Test
+    public void requestIsSentOnFirstDemand() throws Exception {
+        Recorder recorder = new Recorder();
+        publisher().subscribe(recorder);
+        Thread.sleep(50);
+        assertEquals(0, requests.get());
+
+        recorder.subscription.request(1);
+        recorder.awaitRecords(1);
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void cancelledSubscriptionIsNotSignalled() throws Exception {
+        Recorder recorder = new Recorder();
+        publisher().subscribe(recorder);
+        recorder.subscription.request(1);
+        recorder.awaitRecords(1);
+
+        recorder.subscription.cancel();
+        recorder.subscription.request(10);
+        Thread.sleep(50);
+        assertEquals(1, recorder.records.size());
+        assertEquals(0, recorder.completions.get());
+        assertEquals(0, recorder.errors.size());
+    }
+
+    @Test
+    public void rejectedRequestFailsSubscriber() throws Exception {
+        body = "{\"status\":1,\"msg\":\"Invalid captcha!\"}";
+        Recorder recorder = new Recorder();
+        publisher().subscribe(recorder);
+
+        recorder.subscription.request(1);
+        recorder.awaitTermination();
+        assertEquals(1, recorder.errors.size());
+        FailureException failure = (FailureException) recorder.errors.get(0);
+        assertEquals(FailureReason.REJECTED, failure.getReason());
+        assertEquals("Invalid captcha!", failure.getMessage());
+    }
+
+    @Test
+    public void nonPositiveRequestFailsSubscriber() throws Exception {
+        Recorder recorder = new Recorder();
+        publisher().subscribe(recorder);
+
+        recorder.subscription.request(0);
+        recorder.awaitTermination();
+        assertTrue(recorder.errors.get(0) instanceof IllegalArgumentException);
+        assertFalse(recorder.completions.get() > 0);
+    }
+
+    private ResultPublisher publisher() throws IllegalAccessException {
+        EResult eResult = new EResult.Builder()
+                .setYear("2023")
+                .setExamType(ExamType.SSC)
+                .setBoardType(BoardType.DHAKA)
+                .setResultType(ResultType.INSTITUTION)
+                .setEiinCode("108256")
+                .setResilience(null)
+                .setTransport(new InMemoryTransport(request -> {
+                    requests.incrementAndGet();
+                    return InMemoryTransport.newResponse(request).body(ResponseBody.create(body, null)).build();
+                }))
+                .build();
+        return new ResultPublisher(eResult, new Session("PHPSESSID=s1", System.currentTimeMillis()), "1234", executor);
+    }
+
+    private static String institution(int students) {
+        StringBuilder json = new StringBuilder("{\"status\":0,\"msg\":\"\",\"res\":[");
+        for (int i = 0; i < students; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"roll_no\":\"").append(100000 + i).append("\",\"gpa\":\"5.00\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Subscriber recording every signal, requesting nothing on its own.
+     */
+    private static final class Recorder implements Flow.Subscriber<ResultRecord> {
+        final List<ResultRecord> records = new CopyOnWriteArrayList<>();
+        final List<Throwable> errors = new CopyOnWriteArrayList<>();
+        final AtomicInteger completions = new AtomicInteger();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ResultRecord item) {
+            records.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            errors.add(throwable);
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completions.incrementAndGet();
+            terminated.countDown();
+        }
+
+        void awaitRecords(int count) throws InterruptedException {
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (records.size() < count) {
+                assertTrue("The records did not arrive", System.nanoTime() < end);
+                Thread.sleep(5);
+            }
+        }
+
+        void awaitTermination() throws InterruptedException {
+            assertTrue("The subscriber was not terminated", terminated.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -31,7 +31,7 @@ android {
 
 dependencies {
     implementation("androidx.core:core-ktx:1.12.0")
-    implementation("com.squareup.okhttp3:okhttp:4.12.0")
+    api(project(":eresult-core"))
 }
 
 afterEvaluate {
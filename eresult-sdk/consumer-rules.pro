@@ -0,0 +1,3 @@
+# Default callback executor, loaded through ServiceLoader.
+-keep class com.eresult.sdk.android.AndroidExecutorProvider { <init>(); }
+-keepnames class com.eresult.sdk.CallbackExecutors$Provider
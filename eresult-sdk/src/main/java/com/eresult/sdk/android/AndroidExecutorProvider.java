@@ -0,0 +1,20 @@
+/**
+ * AndroidExecutorProvider class makes the main thread the default callback executor of EResult on Android.
+ * It is registered in META-INF/services and loaded by CallbackExecutors.
+ */
+package com.eresult.sdk.android;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.CallbackExecutors;
+
+import java.util.concurrent.Executor;
+
+public class AndroidExecutorProvider implements CallbackExecutors.Provider {
+
+    @NonNull
+    @Override
+    public Executor getExecutor() {
+        return MainThreadExecutor.getInstance();
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * BitmapPool class keeps a few released bitmaps around so the next captcha can be decoded into one of
+ * them through BitmapFactory.Options.inBitmap instead of allocating a new bitmap on every refresh.
+ */
+package com.eresult.sdk.android;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+public class BitmapPool {
+
+    // Process-wide pool used by the default captcha decoders.
+    private static final BitmapPool DEFAULT = new BitmapPool(3);
+
+    private final int capacity;
+    private final ArrayDeque<Bitmap> bitmaps;
+
+    /**
+     * Constructor for BitmapPool.
+     *
+     * @param capacity Maximum number of bitmaps kept in the pool.
+     */
+    public BitmapPool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Pool capacity must be at least 1!");
+        }
+        this.capacity = capacity;
+        this.bitmaps = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Returns the process-wide pool shared by the default captcha decoders.
+     *
+     * @return Shared BitmapPool instance.
+     */
+    public static BitmapPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns a bitmap to the pool. The bitmap must no longer be drawn anywhere, since its pixels will be
+     * overwritten by the next decode. Immutable or recycled bitmaps are ignored.
+     *
+     * @param bitmap Bitmap that is not used anymore.
+     */
+    public synchronized void put(@NonNull Bitmap bitmap) {
+        if (bitmap.isRecycled() || !bitmap.isMutable() || bitmaps.contains(bitmap)) return;
+        if (bitmaps.size() == capacity) {
+            // Dropped bitmaps are left to the garbage collector, they may still be referenced elsewhere.
+            bitmaps.removeFirst();
+        }
+        bitmaps.addLast(bitmap);
+    }
+
+    /**
+     * Takes a bitmap out of the pool that is large enough to hold an image of the given size.
+     *
+     * @param width  Width of the image to decode.
+     * @param height Height of the image to decode.
+     * @param config Pixel configuration of the image to decode.
+     * @return Reusable bitmap, or null if the pool has none that fits.
+     */
+    public synchronized Bitmap get(int width, int height, @NonNull Bitmap.Config config) {
+        long required = (long) width * height * bytesPerPixel(config);
+        Iterator<Bitmap> iterator = bitmaps.iterator();
+        while (iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            if (bitmap.isRecycled()) {
+                iterator.remove();
+            } else if (bitmap.getConfig() == config && bitmap.getAllocationByteCount() >= required) {
+                iterator.remove();
+                return bitmap;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes every bitmap from the pool.
+     */
+    public synchronized void clear() {
+        bitmaps.clear();
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        switch (config) {
+            case ALPHA_8:
+                return 1;
+            case RGB_565:
+            case ARGB_4444:
+                return 2;
+            default:
+                return 4;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * CaptchaBitmapDecoder class decodes captcha images into bitmaps. It can downsample the image to the size
+ * of the view showing it, and decodes into bitmaps taken from a BitmapPool whenever one fits.
+ * Decoding is blocking, so it is never done on the main thread.
+ */
+package com.eresult.sdk.android;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import androidx.annotation.NonNull;
+
+import com.eresult.sdk.CaptchaDecoder;
+import com.eresult.sdk.EResult;
+
+import java.io.IOException;
+
+public class CaptchaBitmapDecoder implements CaptchaDecoder<Bitmap> {
+
+    // Decoder keeping the original size, backed by the default pool.
+    private static final CaptchaBitmapDecoder DEFAULT = new CaptchaBitmapDecoder(0, 0, BitmapPool.getDefault());
+
+    // Requested size of the decoded image, 0 to keep the original size.
+    private final int reqWidth;
+    private final int reqHeight;
+
+    // Pool providing reusable bitmaps.
+    private final BitmapPool pool;
+
+    /**
+     * Constructor for CaptchaBitmapDecoder.
+     *
+     * @param reqWidth  Width of the target view in pixels, 0 to keep the original width.
+     * @param reqHeight Height of the target view in pixels, 0 to keep the original height.
+     * @param pool      Pool providing reusable bitmaps.
+     */
+    public CaptchaBitmapDecoder(int reqWidth, int reqHeight, @NonNull BitmapPool pool) {
+        if (reqWidth < 0 || reqHeight < 0) {
+            throw new IllegalArgumentException("Requested size can not be negative!");
+        }
+        this.reqWidth = reqWidth;
+        this.reqHeight = reqHeight;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the decoder keeping the original image size, backed by {@link BitmapPool#getDefault()}.
+     *
+     * @return Shared CaptchaBitmapDecoder instance.
+     */
+    @NonNull
+    public static CaptchaBitmapDecoder getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Requests a captcha image decoded by the default decoder, as {@code EResult.requestCaptcha(callback)}
+     * did before the Android adapter was split from the core module.
+     *
+     * @param result   EResult requesting the captcha.
+     * @param callback Callback to handle the bitmap or failure.
+     * @deprecated Use {@code result.requestCaptcha(CaptchaBitmapDecoder.getDefault(), callback)}.
+     */
+    @Deprecated
+    public static void requestCaptcha(@NonNull EResult result, @NonNull EResult.ResultCallback<Bitmap> callback) {
+        result.requestCaptcha(DEFAULT, callback);
+    }
+
+    /**
+     * Decodes the captcha image.
+     *
+     * @param data Encoded image as received from the website.
+     * @return Decoded, mutable bitmap.
+     * @throws IOException If the data is not a decodable image.
+     */
+    @Override
+    public Bitmap decode(@NonNull byte[] data) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IOException("Captcha image could not be decoded!");
+        }
+
+        int sampleSize = sampleSize(options.outWidth, options.outHeight);
+        int width = (options.outWidth + sampleSize - 1) / sampleSize;
+        int height = (options.outHeight + sampleSize - 1) / sampleSize;
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        options.inMutable = true;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        options.inBitmap = pool.get(width, height, Bitmap.Config.ARGB_8888);
+
+        Bitmap bitmap;
+        try {
+            bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        } catch (IllegalArgumentException e) {
+            // The pooled bitmap could not be reused, decode into a new one instead.
+            options.inBitmap = null;
+            bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        }
+        if (bitmap == null) {
+            throw new IOException("Captcha image could not be decoded!");
+        }
+        return bitmap;
+    }
+
+    /**
+     * Returns a bitmap that is no longer shown to the pool of this decoder.
+     *
+     * @param bitmap Bitmap previously returned by {@link #decode(byte[])}.
+     */
+    public void release(@NonNull Bitmap bitmap) {
+        pool.put(bitmap);
+    }
+
+    // Largest power of two that keeps the image at least as large as the requested size.
+    private int sampleSize(int width, int height) {
+        int sampleSize = 1;
+        if (reqWidth == 0 && reqHeight == 0) return sampleSize;
+        while ((reqWidth == 0 || width / (sampleSize * 2) >= reqWidth)
+                && (reqHeight == 0 || height / (sampleSize * 2) >= reqHeight)) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+}
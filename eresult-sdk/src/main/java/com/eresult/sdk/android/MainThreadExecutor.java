@@ -0,0 +1,37 @@
+/**
+ * MainThreadExecutor class runs tasks on the Android main thread. A single instance with a single
+ * cached Handler is shared by every EResult, instead of creating a Handler for each callback.
+ */
+package com.eresult.sdk.android;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+
+public final class MainThreadExecutor implements Executor {
+
+    private static final MainThreadExecutor INSTANCE = new MainThreadExecutor();
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private MainThreadExecutor() {
+    }
+
+    /**
+     * Returns the shared main thread executor.
+     *
+     * @return MainThreadExecutor instance.
+     */
+    @NonNull
+    public static MainThreadExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        handler.post(command);
+    }
+}
@@ -16,3 +16,6 @@ dependencyResolutionManagement {
 rootProject.name = "eresult-sdk"
 include(":app")
 include(":eresult-sdk")
+include(":eresult-core")
+include(":eresult-jvm")
+include(":eresult-benchmark")